@@ -0,0 +1,92 @@
+package org.gouenji.financeapp.benchmark;
+
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.records.Record;
+import org.gouenji.financeapp.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.IServletWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountPageRenderBenchmark {
+
+    @Param({"20", "200", "2000"})
+    private int transactions;
+
+    private ConfigurableApplicationContext context;
+    private SpringTemplateEngine templateEngine;
+    private IServletWebExchange exchange;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        templateEngine = context.getBean(SpringTemplateEngine.class);
+        MockServletContext servletContext = new MockServletContext();
+        exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext, "GET", "/account"),
+                        new MockHttpServletResponse());
+
+        LocalDate today = LocalDate.now();
+        List<Record> recentTransactions = new ArrayList<>(transactions);
+        for(int i = 0; i < transactions; i++){
+            recentTransactions.add(i % 2 == 0
+                    ? new IncomeRecordView(i, IncomeCategory.SALARY, 10_000L + i, today.minusDays(i), "Зарплата " + i)
+                    : new ExpenseRecordView(i, ExpenseCategory.FOOD, 500L + i, today.minusDays(i), "Хот дог " + i));
+        }
+        variables = new HashMap<>();
+        variables.put("totalIncome", Money.toMajor(12_500_000));
+        variables.put("totalExpense", Money.toMajor(500_000));
+        variables.put("totalBalance", Money.toMajor(12_000_000));
+        variables.put("monthIncome", Money.toMajor(1_000_000));
+        variables.put("monthExpense", Money.toMajor(50_000));
+        variables.put("recentTransactionsCount", (long) transactions);
+        variables.put("recentTransactions", recentTransactions);
+        variables.put("isFirstPage", true);
+        variables.put("hasMoreTransactions", true);
+        variables.put("nextCursor", "2025-01-10:1~2025-01-11:3");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderAccountPage() {
+        return templateEngine.process("private/account-page", new WebContext(exchange, Locale.ENGLISH, variables));
+    }
+}
@@ -0,0 +1,89 @@
+package org.gouenji.financeapp.benchmark;
+
+import org.gouenji.financeapp.FinanceAppApplication;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.service.records.MonthlySummaryService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final class BenchmarkContext {
+
+    private static final String[] INCOME_CATEGORIES = {"SALARY", "BONUS", "INVESTMENT", "UNDERWORKING"};
+    private static final String[] EXPENSE_CATEGORIES = {"FOOD", "TRANSPORT", "FUN"};
+    private static final int DAYS_OF_HISTORY = 730;
+
+    private BenchmarkContext() {
+    }
+
+    // The query and version caches are off unless a benchmark passes them back in: after warm-up they would
+    // answer every read from memory and hide the SQL and connection paths being measured.
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(FinanceAppApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "ledger.query-cache.max-entries=0",
+                        "ledger.version-cache-ttl=PT0S")
+                .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static int seedUser(ConfigurableApplicationContext context, String email, int recordsPerTable) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, 'USER')",
+                "Benchmark", email, "");
+        int userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Integer.class, email);
+        insertRecords(jdbcTemplate, "INCOME", INCOME_CATEGORIES, userId, recordsPerTable);
+        insertRecords(jdbcTemplate, "EXPENSE", EXPENSE_CATEGORIES, userId, recordsPerTable);
+        context.getBean(MonthlySummaryService.class).rebuild();
+        jdbcTemplate.execute("ANALYZE");
+        return userId;
+    }
+
+    static void authenticate(int userId, String email) {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        AuthenticatedUser principal = new AuthenticatedUser(
+                userId,
+                email,
+                "",
+                0,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static void insertRecords(JdbcTemplate jdbcTemplate,
+                                      String kind,
+                                      String[] categories,
+                                      int userId,
+                                      int count) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            rows.add(new Object[]{
+                    kind,
+                    categories[i % categories.length],
+                    1_000L + i % 25_000,
+                    Date.valueOf(today.minusDays(i % DAYS_OF_HISTORY)),
+                    "Benchmark record " + i,
+                    userId
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ledger_entries (kind, category, amount, date, description, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,83 @@
+package org.gouenji.financeapp.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.dto.users.JwtClaims;
+import org.gouenji.financeapp.util.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-long-enough-for-hs256";
+
+    private JwtTokenUtil cachedTokenUtil;
+    private JwtTokenUtil uncachedTokenUtil;
+    private AuthenticatedUser authenticatedUser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedTokenUtil = new JwtTokenUtil(SECRET, Duration.ofHours(1), 10_000);
+        uncachedTokenUtil = new JwtTokenUtil(SECRET, Duration.ofHours(1), 0);
+        authenticatedUser = new AuthenticatedUser(
+                1,
+                "test@gmail.com",
+                "",
+                0,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        token = cachedTokenUtil.generateToken(authenticatedUser);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedTokenUtil.generateToken(authenticatedUser);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> verifyCached() {
+        return cachedTokenUtil.verify(token);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> verifyUncached() {
+        return uncachedTokenUtil.verify(token);
+    }
+
+    @Benchmark
+    public void rebuildKeyAndParseThreeTimes(Blackhole blackhole) {
+        for(int i = 0; i < 3; i++){
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            blackhole.consume(claims);
+        }
+    }
+}
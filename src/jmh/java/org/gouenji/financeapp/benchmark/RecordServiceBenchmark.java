@@ -0,0 +1,92 @@
+package org.gouenji.financeapp.benchmark;
+
+import org.gouenji.financeapp.controller.secured.PrivateAccountController;
+import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.service.records.ExpenseRecordService;
+import org.gouenji.financeapp.service.records.LedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordServiceBenchmark {
+
+    private static final String EMAIL = "benchmark@gmail.com";
+
+    @Param({"100", "1000", "10000"})
+    private int recordsPerTable;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRecordService expenseRecordService;
+    private LedgerService ledgerService;
+    private PrivateAccountController privateAccountController;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        int userId = BenchmarkContext.seedUser(context, EMAIL, recordsPerTable);
+        BenchmarkContext.authenticate(userId, EMAIL);
+        expenseRecordService = context.getBean(ExpenseRecordService.class);
+        ledgerService = context.getBean(LedgerService.class);
+        privateAccountController = context.getBean(PrivateAccountController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpenseRecordsContainer expenseFindAll() {
+        return expenseRecordService.findAll(RecordFilter.all(), null);
+    }
+
+    @Benchmark
+    public ExpenseRecordsContainer expenseFindAllByCategory() {
+        return expenseRecordService.findAll(RecordFilter.of(ExpenseCategory.FOOD), null);
+    }
+
+    @Benchmark
+    public ExpenseRecordsContainer expenseFindSummary() {
+        return expenseRecordService.findSummary();
+    }
+
+    @Benchmark
+    public LedgerPage ledgerFindRecent() {
+        return ledgerService.findRecent(null);
+    }
+
+    @Benchmark
+    public ExtendedModelMap accountMainPage() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        // a fresh request without If-None-Match, so the page is always built
+        ServletWebRequest request = new ServletWebRequest(
+                new MockHttpServletRequest("GET", "/account"), new MockHttpServletResponse());
+        privateAccountController.getMainPage(model, request, null);
+        return model;
+    }
+}
@@ -0,0 +1,99 @@
+package org.gouenji.financeapp.benchmark;
+
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.util.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Fires a burst of concurrent GET /account requests at a real Tomcat and waits for all of them:
+// the score is the time to drain the burst (worst latency), concurrentRequests / score is the throughput.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadingLoadBenchmark {
+
+    private static final String EMAIL = "load@gmail.com";
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"50", "500"})
+    private int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "ledger.cache.max-records=0",
+                "spring.jpa.show-sql=false");
+        int userId = BenchmarkContext.seedUser(context, EMAIL, 1000);
+        String token = context.getBean(JwtTokenUtil.class).generateToken(new AuthenticatedUser(
+                userId,
+                EMAIL,
+                "",
+                0,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+        ));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/account"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int accountPageBurst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrentRequests];
+        for(int i = 0; i < concurrentRequests; i++){
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if(response.statusCode() != 200){
+                            throw new IllegalStateException("GET /account returned " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+}
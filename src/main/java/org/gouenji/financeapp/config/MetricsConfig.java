@@ -0,0 +1,17 @@
+package org.gouenji.financeapp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// HTTP endpoints, the Hikari pool, Hibernate statistics and the JVM are bound by Spring Boot itself;
+// this only adds what @Timed needs on the services.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package org.gouenji.financeapp.config;
+
+import org.gouenji.financeapp.service.records.MonthlySummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "summary.rebuild", havingValue = "true")
+public class MonthlySummaryRebuildRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(MonthlySummaryRebuildRunner.class);
+
+    private final MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    public MonthlySummaryRebuildRunner(MonthlySummaryService monthlySummaryService) {
+        this.monthlySummaryService = monthlySummaryService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Rebuilt monthly_summary: {} rows", monthlySummaryService.rebuild());
+    }
+}
@@ -0,0 +1,35 @@
+package org.gouenji.financeapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// BCrypt is deliberately slow and runs on the request thread, so a login's latency is mostly this hash
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private static final String PASSWORD_TIMER = "auth.password";
+
+    private final PasswordEncoder target;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder target, MeterRegistry meterRegistry) {
+        this.target = target;
+        this.encodeTimer = meterRegistry.timer(PASSWORD_TIMER, "operation", "encode");
+        this.matchTimer = meterRegistry.timer(PASSWORD_TIMER, "operation", "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> target.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchTimer.record(() -> target.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return target.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,50 @@
+package org.gouenji.financeapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// spring.threads.virtual.enabled=true already moves Tomcat, MVC async work and the task scheduler onto
+// virtual threads; this only adds the connection guard they need.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Without a limit every waiting virtual thread is queued inside Hikari's handoff; the fair semaphore
+    // parks them cheaply in arrival order and gives up after Hikari's own connection timeout.
+    @Bean
+    public static BeanPostProcessor connectionPermitGate(
+            @Value("${datasource.connection-permits:0}") int connectionPermits) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof HikariDataSource hikari){
+                    int permits = connectionPermits > 0 ? connectionPermits : hikari.getMaximumPoolSize();
+                    return new PermitGatedDataSource(hikari, permits, hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Hikari's own acquire timer only starts once a thread is past the gate
+    @Bean
+    public MeterBinder connectionPermitMetrics(DataSource dataSource) {
+        return meterRegistry -> {
+            if(dataSource instanceof PermitGatedDataSource gated){
+                Gauge.builder("datasource.permits.available", gated, PermitGatedDataSource::availablePermits)
+                        .register(meterRegistry);
+                Gauge.builder("datasource.permits.waiting", gated, PermitGatedDataSource::waitingThreads)
+                        .register(meterRegistry);
+            }
+        };
+    }
+}
@@ -1,12 +1,18 @@
 package org.gouenji.financeapp.config.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.dto.users.JwtClaims;
+import org.gouenji.financeapp.service.TokenVersionService;
 import org.gouenji.financeapp.util.JwtTokenUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,17 +22,32 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String AUTHENTICATION_TIMER = "auth.jwt";
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final MeterRegistry meterRegistry;
+    private final boolean stateless;
+    private final boolean revocationCheck;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil,
+                                   UserDetailsService userDetailsService,
+                                   TokenVersionService tokenVersionService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${jwt.stateless:true}") boolean stateless,
+                                   @Value("${jwt.revocation-check:false}") boolean revocationCheck) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.meterRegistry = meterRegistry;
+        this.stateless = stateless;
+        this.revocationCheck = revocationCheck;
     }
 
     @Override
@@ -35,13 +56,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             String token = getTokenFromRequest(request);
 
-            if (token != null && jwtTokenUtil.validateToken(token)) {
-                String username = jwtTokenUtil.getUsername(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<JwtClaims> claims = jwtTokenUtil.verify(token);
+            UserDetails userDetails = claims
+                    .map(this::resolveUser)
+                    .orElse(null);
+            outcome = outcomeOf(token, claims.isPresent(), userDetails != null);
 
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
@@ -52,11 +78,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
+        } finally {
+            sample.stop(meterRegistry.timer(AUTHENTICATION_TIMER, "outcome", outcome));
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private String outcomeOf(String token, boolean verified, boolean authenticated) {
+        if (token == null) {
+            return "none";
+        }
+        if (authenticated) {
+            return "valid";
+        }
+        if (verified) {
+            return "revoked";
+        }
+        return jwtTokenUtil.isExpired(token) ? "expired" : "invalid";
+    }
+
+    private UserDetails resolveUser(JwtClaims claims) {
+        AuthenticatedUser principal = claims.toPrincipal();
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(claims.subject());
+        }
+        if (revocationCheck && !tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion())) {
+            return null;
+        }
+        if (stateless) {
+            return principal;
+        }
+        return userDetailsService.loadUserByUsername(principal.getUsername());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
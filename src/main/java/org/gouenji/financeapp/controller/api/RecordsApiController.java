@@ -0,0 +1,168 @@
+package org.gouenji.financeapp.controller.api;
+
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFields;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordFilterForm;
+import org.gouenji.financeapp.dto.records.RecordRequest;
+import org.gouenji.financeapp.dto.records.SelectedRecordsPage;
+import org.gouenji.financeapp.dto.records.SummaryDto;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.service.records.ExpenseRecordService;
+import org.gouenji.financeapp.service.records.IncomeRecordService;
+import org.gouenji.financeapp.service.records.LedgerService;
+import org.gouenji.financeapp.service.records.LedgerVersionService;
+import org.gouenji.financeapp.util.ConditionalRequests;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.net.URI;
+import java.util.Map;
+
+// JSON counterpart of the account pages for the mobile client and scripts: the same services, cursor pages
+// of RecordDto and ?fields= to trim every record down to the fields the caller reads.
+@RestController
+@RequestMapping("/api/v1")
+public class RecordsApiController {
+
+    private final IncomeRecordService incomeRecordService;
+    private final ExpenseRecordService expenseRecordService;
+    private final LedgerService ledgerService;
+    private final LedgerVersionService ledgerVersionService;
+
+    @Autowired
+    public RecordsApiController(IncomeRecordService incomeRecordService,
+                                ExpenseRecordService expenseRecordService,
+                                LedgerService ledgerService,
+                                LedgerVersionService ledgerVersionService) {
+        this.incomeRecordService = incomeRecordService;
+        this.expenseRecordService = expenseRecordService;
+        this.ledgerService = ledgerService;
+        this.ledgerVersionService = ledgerVersionService;
+    }
+
+    @GetMapping("/summary")
+    public SummaryDto getSummary(ServletWebRequest request) {
+        if(isNotModified(request)){
+            return null;
+        }
+        return SummaryDto.of(incomeRecordService.findSummary(), expenseRecordService.findSummary());
+    }
+
+    @GetMapping("/ledger")
+    public SelectedRecordsPage getLedger(ServletWebRequest request,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) String fields) {
+        RecordFields recordFields = RecordFields.parse(fields);
+        RecordCursor recordCursor = RecordCursor.parse(cursor);
+        if(isNotModified(request)){
+            return null;
+        }
+        return recordFields.select(ledgerService.findPage(recordCursor));
+    }
+
+    @GetMapping("/income")
+    public SelectedRecordsPage getIncomeRecords(ServletWebRequest request,
+                                                @ModelAttribute RecordFilterForm filter,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) String fields) {
+        RecordFields recordFields = RecordFields.parse(fields);
+        RecordFilter<IncomeCategory> recordFilter = filter.toFilter(IncomeCategory.class);
+        RecordCursor recordCursor = RecordCursor.parse(cursor);
+        if(isNotModified(request)){
+            return null;
+        }
+        return recordFields.select(incomeRecordService.findPage(recordFilter, recordCursor));
+    }
+
+    @GetMapping("/income/{id}")
+    public Map<String, Object> getIncomeRecord(ServletWebRequest request,
+                                               @PathVariable int id,
+                                               @RequestParam(required = false) String fields) {
+        RecordFields recordFields = RecordFields.parse(fields);
+        if(isNotModified(request)){
+            return null;
+        }
+        return recordFields.select(RecordDto.of(incomeRecordService.findRecord(id)));
+    }
+
+    @PostMapping("/income")
+    public ResponseEntity<RecordDto> addIncomeRecord(@RequestBody RecordRequest<IncomeCategory> request) {
+        IncomeRecord record = incomeRecordService.saveRecord(request.category(), request.minorAmount(),
+                request.date(), request.description());
+        return ResponseEntity.created(URI.create("/api/v1/income/" + record.getId())).body(RecordDto.of(record));
+    }
+
+    @PutMapping("/income/{id}")
+    public ResponseEntity<Void> editIncomeRecord(@PathVariable int id,
+                                                 @RequestBody RecordRequest<IncomeCategory> request) {
+        incomeRecordService.updateRecord(id, request.category(), request.minorAmount(),
+                request.date(), request.description());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/income/{id}")
+    public ResponseEntity<Void> deleteIncomeRecord(@PathVariable int id) {
+        return incomeRecordService.deleteRecord(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/expense")
+    public SelectedRecordsPage getExpenseRecords(ServletWebRequest request,
+                                                 @ModelAttribute RecordFilterForm filter,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) String fields) {
+        RecordFields recordFields = RecordFields.parse(fields);
+        RecordFilter<ExpenseCategory> recordFilter = filter.toFilter(ExpenseCategory.class);
+        RecordCursor recordCursor = RecordCursor.parse(cursor);
+        if(isNotModified(request)){
+            return null;
+        }
+        return recordFields.select(expenseRecordService.findPage(recordFilter, recordCursor));
+    }
+
+    @GetMapping("/expense/{id}")
+    public Map<String, Object> getExpenseRecord(ServletWebRequest request,
+                                                @PathVariable int id,
+                                                @RequestParam(required = false) String fields) {
+        RecordFields recordFields = RecordFields.parse(fields);
+        if(isNotModified(request)){
+            return null;
+        }
+        return recordFields.select(RecordDto.of(expenseRecordService.findRecord(id)));
+    }
+
+    @PostMapping("/expense")
+    public ResponseEntity<RecordDto> addExpenseRecord(@RequestBody RecordRequest<ExpenseCategory> request) {
+        ExpenseRecord record = expenseRecordService.saveRecord(request.category(), request.minorAmount(),
+                request.date(), request.description());
+        return ResponseEntity.created(URI.create("/api/v1/expense/" + record.getId())).body(RecordDto.of(record));
+    }
+
+    @PutMapping("/expense/{id}")
+    public ResponseEntity<Void> editExpenseRecord(@PathVariable int id,
+                                                  @RequestBody RecordRequest<ExpenseCategory> request) {
+        expenseRecordService.updateRecord(id, request.category(), request.minorAmount(),
+                request.date(), request.description());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/expense/{id}")
+    public ResponseEntity<Void> deleteExpenseRecord(@PathVariable int id) {
+        return expenseRecordService.deleteRecord(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Validation runs first: a bad parameter is a 400 even when the ledger has not changed
+    private boolean isNotModified(ServletWebRequest request) {
+        return ConditionalRequests.isNotModified(request, ledgerVersionService.currentETag());
+    }
+}
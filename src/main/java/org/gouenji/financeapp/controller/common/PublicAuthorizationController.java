@@ -2,8 +2,10 @@ package org.gouenji.financeapp.controller.common;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.service.TokenVersionService;
 import org.gouenji.financeapp.service.UserService;
 import org.gouenji.financeapp.util.JwtTokenUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,13 +29,15 @@ public class PublicAuthorizationController {
     private final JwtTokenUtil jwtTokenUtil;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final TokenVersionService tokenVersionService;
 
     @Autowired
-    public PublicAuthorizationController(UserService userService, JwtTokenUtil jwtTokenUtil, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager) {
+    public PublicAuthorizationController(UserService userService, JwtTokenUtil jwtTokenUtil, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, TokenVersionService tokenVersionService) {
         this.userService = userService;
         this.jwtTokenUtil = jwtTokenUtil;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @GetMapping("/login")
@@ -63,7 +67,7 @@ public class PublicAuthorizationController {
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            UserDetails userDetails = userService.loadUserByUsername(email);
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
             String token = jwtTokenUtil.generateToken(userDetails);
 
@@ -93,6 +97,11 @@ public class PublicAuthorizationController {
     @PostMapping("/logout")
     public String logout(HttpServletResponse response) {
 
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            tokenVersionService.revoke(authenticatedUser.getId());
+        }
+
         SecurityContextHolder.clearContext();
 
         Cookie jwtCookie = new Cookie("jwt_token", null);
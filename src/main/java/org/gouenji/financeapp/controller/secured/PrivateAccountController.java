@@ -1,64 +1,150 @@
 package org.gouenji.financeapp.controller.secured;
 
+import org.gouenji.financeapp.dto.records.Dashboard;
 import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.ExportFormat;
+import org.gouenji.financeapp.dto.records.ImportReport;
 import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordFilterForm;
+import org.gouenji.financeapp.dto.records.RecordsPage;
 import org.gouenji.financeapp.entity.records.ExpenseRecord;
 import org.gouenji.financeapp.entity.records.IncomeRecord;
-import org.gouenji.financeapp.entity.records.Record;
 import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
 import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.service.records.DashboardService;
 import org.gouenji.financeapp.service.records.ExpenseRecordService;
 import org.gouenji.financeapp.service.records.IncomeRecordService;
+import org.gouenji.financeapp.service.records.LedgerBulkService;
+import org.gouenji.financeapp.service.records.LedgerExportService;
+import org.gouenji.financeapp.service.records.LedgerImportService;
+import org.gouenji.financeapp.service.records.LedgerService;
+import org.gouenji.financeapp.service.records.LedgerVersionService;
+import org.gouenji.financeapp.util.ConditionalRequests;
+import org.gouenji.financeapp.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Stream;
 
 @Controller
 @RequestMapping("/account")
 public class PrivateAccountController {
 
     private final IncomeRecordService incomeRecordService;
-    private IncomeRecordsContainer incomeRecordsContainer;
-
     private final ExpenseRecordService expenseRecordService;
-    private ExpenseRecordsContainer expenseRecordsContainer;
+    private final DashboardService dashboardService;
+    private final LedgerService ledgerService;
+    private final LedgerBulkService ledgerBulkService;
+    private final LedgerExportService ledgerExportService;
+    private final LedgerImportService ledgerImportService;
+    private final LedgerVersionService ledgerVersionService;
+    private final UserService userService;
 
     @Autowired
-    public PrivateAccountController(IncomeRecordService incomeRecordService, ExpenseRecordService expenseRecordService) {
+    public PrivateAccountController(IncomeRecordService incomeRecordService,
+                                    ExpenseRecordService expenseRecordService,
+                                    DashboardService dashboardService,
+                                    LedgerService ledgerService,
+                                    LedgerBulkService ledgerBulkService,
+                                    LedgerExportService ledgerExportService,
+                                    LedgerImportService ledgerImportService,
+                                    LedgerVersionService ledgerVersionService,
+                                    UserService userService) {
         this.incomeRecordService = incomeRecordService;
         this.expenseRecordService = expenseRecordService;
+        this.dashboardService = dashboardService;
+        this.ledgerService = ledgerService;
+        this.ledgerBulkService = ledgerBulkService;
+        this.ledgerExportService = ledgerExportService;
+        this.ledgerImportService = ledgerImportService;
+        this.ledgerVersionService = ledgerVersionService;
+        this.userService = userService;
     }
 
     @GetMapping
-    public String getMainPage(Model model) {
-        incomeRecordsContainer = incomeRecordService.findAll(null);
-        expenseRecordsContainer = expenseRecordService.findAll(null);
-        List<Record> allRecords = Stream.concat(
-                        incomeRecordsContainer.getRecords().stream(),
-                        expenseRecordsContainer.getRecords().stream()
-                )
-                .sorted(Comparator.comparing(Record::getDate).reversed())
-                .toList();
-        model.addAttribute("totalIncome", incomeRecordsContainer.getTotal());
-        model.addAttribute("totalExpense", expenseRecordsContainer.getTotal());
-        model.addAttribute("totalBalance",
-                incomeRecordsContainer.getTotal() - expenseRecordsContainer.getTotal());
-        model.addAttribute("monthIncome", incomeRecordsContainer.hasMonthTotal() ?
-                incomeRecordsContainer.getMonthTotal() : 0);
-        model.addAttribute("monthExpense", expenseRecordsContainer.hasMonthTotal() ?
-                expenseRecordsContainer.getMonthTotal() : 0);
-        model.addAttribute("recentTransactionsCount", allRecords.size());
-        model.addAttribute("recentTransactions", allRecords);
+    public String getMainPage(Model model,
+                              ServletWebRequest request,
+                              @RequestParam(required = false) String cursor) {
+        if(isNotModified(request)){
+            return null;
+        }
+        RecordCursor recordCursor = RecordCursor.parse(cursor);
+        Dashboard dashboard = dashboardService.assemble(recordCursor);
+        IncomeRecordsContainer incomeRecordsContainer = dashboard.income();
+        ExpenseRecordsContainer expenseRecordsContainer = dashboard.expense();
+        LedgerPage ledgerPage = dashboard.recent();
+        model.addAttribute("totalIncome", Money.toMajor(incomeRecordsContainer.getTotal()));
+        model.addAttribute("totalExpense", Money.toMajor(expenseRecordsContainer.getTotal()));
+        model.addAttribute("totalBalance", Money.toMajor(dashboard.getBalance()));
+        model.addAttribute("monthIncome", Money.toMajor(incomeRecordsContainer.hasMonthTotal() ?
+                incomeRecordsContainer.getMonthTotal() : 0));
+        model.addAttribute("monthExpense", Money.toMajor(expenseRecordsContainer.hasMonthTotal() ?
+                expenseRecordsContainer.getMonthTotal() : 0));
+        model.addAttribute("recentTransactionsCount", dashboard.getRecordsCount());
+        model.addAttribute("recentTransactions", ledgerPage.records());
+        model.addAttribute("isFirstPage", recordCursor == null);
+        model.addAttribute("hasMoreTransactions", ledgerPage.hasNextCursor());
+        model.addAttribute("nextCursor", ledgerPage.hasNextCursor() ?
+                ledgerPage.nextCursor().encode() : null);
         return "private/account-page";
     }
 
+    @GetMapping("/records")
+    @ResponseBody
+    public RecordsPage getRecords(ServletWebRequest request, @RequestParam(required = false) String cursor) {
+        if(isNotModified(request)){
+            return null;
+        }
+        return ledgerService.findPage(RecordCursor.parse(cursor));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRecords(@RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        int userId = userService.getCurrentUserId();
+        StreamingResponseBody body = out -> ledgerExportService.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.getFileName())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/import")
+    public String getImportPage() {
+        return "private/import-page";
+    }
+
+    @PostMapping("/import")
+    public String importRecords(Model model, @RequestParam("file") MultipartFile file) throws IOException {
+        try(InputStream in = file.getInputStream()){
+            ImportReport report = ledgerImportService.importCsv(userService.getCurrentUserId(), in);
+            model.addAttribute("report", report);
+        }
+        return "private/import-page";
+    }
+
     @PostMapping("/transaction/edit/{id}")
     public String editTransaction(@PathVariable int id, @RequestParam String type) {
         if(type.equals("INCOME")) {
@@ -82,22 +168,60 @@ public class PrivateAccountController {
         return "redirect:/account";
     }
 
+    @PostMapping("/transaction/bulk/delete")
+    public String deleteTransactions(@RequestParam(required = false) List<Integer> ids) {
+        ledgerBulkService.delete(null, ids);
+        return "redirect:/account";
+    }
+
+    @PostMapping("/transaction/bulk/shift")
+    public String shiftTransactions(@RequestParam(required = false) List<Integer> ids, @RequestParam int days) {
+        ledgerBulkService.shiftDates(null, ids, days);
+        return "redirect:/account";
+    }
+
     @GetMapping("/income")
-    public String getIncomePage(Model model, @RequestParam(required = false) String category) {
-        incomeRecordsContainer = incomeRecordService.findAll(category);
+    public String getIncomePage(Model model,
+                                 ServletWebRequest request,
+                                 @ModelAttribute("filter") RecordFilterForm filter,
+                                 BindingResult filterBinding,
+                                 @RequestParam(required = false) String cursor) {
+        if(isNotModified(request)){
+            return null;
+        }
+        RecordCursor recordCursor = RecordCursor.parse(cursor);
+        IncomeRecordsContainer incomeRecordsContainer =
+                incomeRecordService.findAll(toFilter(model, filter, filterBinding, IncomeCategory.class), recordCursor);
         model.addAttribute("incomeRecords", incomeRecordsContainer.getRecords());
-        model.addAttribute("totalIncome", incomeRecordsContainer.getTotal());
-        model.addAttribute("filteredTotalIncome", incomeRecordsContainer.hasFilteredTotal() ?
-                incomeRecordsContainer.getFilteredTotal() : incomeRecordsContainer.getTotal());
+        model.addAttribute("incomeRecordsCount", incomeRecordsContainer.hasFilteredCount() ?
+                incomeRecordsContainer.getFilteredCount() : incomeRecordsContainer.getCount());
+        model.addAttribute("isFirstPage", recordCursor == null);
+        model.addAttribute("nextCursor", incomeRecordsContainer.hasNextCursor() ?
+                incomeRecordsContainer.getNextCursor().encode() : null);
+        model.addAttribute("totalIncome", Money.toMajor(incomeRecordsContainer.getTotal()));
+        model.addAttribute("filteredTotalIncome", Money.toMajor(incomeRecordsContainer.hasFilteredTotal() ?
+                incomeRecordsContainer.getFilteredTotal() : incomeRecordsContainer.getTotal()));
         model.addAttribute("incomeCategories", IncomeCategory.values());
-        model.addAttribute("selectedCategory", category);
-        model.addAttribute("averageIncome", incomeRecordsContainer.hasAverageTotal() ?
-                incomeRecordsContainer.getAverageTotal() : 0);
-        model.addAttribute("monthTotal", incomeRecordsContainer.hasMonthTotal() ?
-                incomeRecordsContainer.getMonthTotal() : 0);
+        model.addAttribute("selectedCategories", filter.categories());
+        model.addAttribute("averageIncome", Money.toMajor(incomeRecordsContainer.hasFilteredAverageTotal() ?
+                incomeRecordsContainer.getFilteredAverageTotal() : incomeRecordsContainer.hasAverageTotal() ?
+                incomeRecordsContainer.getAverageTotal() : 0));
+        model.addAttribute("monthTotal", Money.toMajor(incomeRecordsContainer.hasMonthTotal() ?
+                incomeRecordsContainer.getMonthTotal() : 0));
         return "private/income/income-page";
     }
 
+    @GetMapping("/income/records")
+    @ResponseBody
+    public RecordsPage getIncomeRecords(ServletWebRequest request,
+                                        @ModelAttribute RecordFilterForm filter,
+                                        @RequestParam(required = false) String cursor) {
+        if(isNotModified(request)){
+            return null;
+        }
+        return incomeRecordService.findPage(filter.toFilter(IncomeCategory.class), RecordCursor.parse(cursor));
+    }
+
     @GetMapping("/income/add")
     public String getIncomeAddPage(Model model) {
         model.addAttribute("incomeCategories", IncomeCategory.values());
@@ -106,10 +230,10 @@ public class PrivateAccountController {
 
     @PostMapping("/income/add")
     public String addIncomeRecord(@RequestParam IncomeCategory category,
-                                  @RequestParam double amount,
+                                  @RequestParam BigDecimal amount,
                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
                                   @RequestParam(required = false) String description) {
-        incomeRecordService.saveRecord(category, amount, date, description);
+        incomeRecordService.saveRecord(category, Money.ofMajor(amount), date, description);
         return "redirect:/account/income";
     }
 
@@ -119,6 +243,25 @@ public class PrivateAccountController {
         return "redirect:/account/income";
     }
 
+    @PostMapping("/income/bulk/delete")
+    public String deleteIncomeRecords(@RequestParam(required = false) List<Integer> ids) {
+        ledgerBulkService.delete(RecordKind.INCOME, ids);
+        return "redirect:/account/income";
+    }
+
+    @PostMapping("/income/bulk/category")
+    public String recategorizeIncomeRecords(@RequestParam(required = false) List<Integer> ids,
+                                            @RequestParam IncomeCategory category) {
+        ledgerBulkService.recategorize(ids, category);
+        return "redirect:/account/income";
+    }
+
+    @PostMapping("/income/bulk/shift")
+    public String shiftIncomeRecords(@RequestParam(required = false) List<Integer> ids, @RequestParam int days) {
+        ledgerBulkService.shiftDates(RecordKind.INCOME, ids, days);
+        return "redirect:/account/income";
+    }
+
     @GetMapping("income/edit/{id}")
     public String getIncomeEditPage(Model model, @PathVariable("id") int id) {
         IncomeRecord incomeRecord = incomeRecordService.findRecord(id);
@@ -130,29 +273,55 @@ public class PrivateAccountController {
     @PostMapping("income/edit/{id}")
     public String editIncomeRecord(@PathVariable("id") int id,
                                     @RequestParam IncomeCategory category,
-                                    @RequestParam double amount,
+                                    @RequestParam BigDecimal amount,
                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
                                     @RequestParam(required = false) String description){
-        incomeRecordService.updateRecord(id, category, amount, date, description);
+        incomeRecordService.updateRecord(id, category, Money.ofMajor(amount), date, description);
         return "redirect:/account/income";
     }
 
     @GetMapping("/expense")
-    public String getExpensePage(Model model, @RequestParam(required = false) String category) {
-        expenseRecordsContainer = expenseRecordService.findAll(category);
+    public String getExpensePage(Model model,
+                                  ServletWebRequest request,
+                                  @ModelAttribute("filter") RecordFilterForm filter,
+                                  BindingResult filterBinding,
+                                  @RequestParam(required = false) String cursor) {
+        if(isNotModified(request)){
+            return null;
+        }
+        RecordCursor recordCursor = RecordCursor.parse(cursor);
+        ExpenseRecordsContainer expenseRecordsContainer =
+                expenseRecordService.findAll(toFilter(model, filter, filterBinding, ExpenseCategory.class), recordCursor);
         model.addAttribute("expenseRecords", expenseRecordsContainer.getRecords());
-        model.addAttribute("totalExpense", expenseRecordsContainer.getTotal());
-        model.addAttribute("filteredTotalExpense", expenseRecordsContainer.hasFilteredTotal() ?
-                expenseRecordsContainer.getFilteredTotal() : expenseRecordsContainer.getTotal());
+        model.addAttribute("expenseRecordsCount", expenseRecordsContainer.hasFilteredCount() ?
+                expenseRecordsContainer.getFilteredCount() : expenseRecordsContainer.getCount());
+        model.addAttribute("isFirstPage", recordCursor == null);
+        model.addAttribute("nextCursor", expenseRecordsContainer.hasNextCursor() ?
+                expenseRecordsContainer.getNextCursor().encode() : null);
+        model.addAttribute("totalExpense", Money.toMajor(expenseRecordsContainer.getTotal()));
+        model.addAttribute("filteredTotalExpense", Money.toMajor(expenseRecordsContainer.hasFilteredTotal() ?
+                expenseRecordsContainer.getFilteredTotal() : expenseRecordsContainer.getTotal()));
         model.addAttribute("expenseCategories", ExpenseCategory.values());
-        model.addAttribute("selectedCategory", category);
-        model.addAttribute("averageExpense", expenseRecordsContainer.hasAverageTotal() ?
-                expenseRecordsContainer.getAverageTotal() : 0);
-        model.addAttribute("monthTotal", expenseRecordsContainer.hasMonthTotal() ?
-                expenseRecordsContainer.getMonthTotal() : 0);
+        model.addAttribute("selectedCategories", filter.categories());
+        model.addAttribute("averageExpense", Money.toMajor(expenseRecordsContainer.hasFilteredAverageTotal() ?
+                expenseRecordsContainer.getFilteredAverageTotal() : expenseRecordsContainer.hasAverageTotal() ?
+                expenseRecordsContainer.getAverageTotal() : 0));
+        model.addAttribute("monthTotal", Money.toMajor(expenseRecordsContainer.hasMonthTotal() ?
+                expenseRecordsContainer.getMonthTotal() : 0));
         return "private/expense/expense-page";
     }
 
+    @GetMapping("/expense/records")
+    @ResponseBody
+    public RecordsPage getExpenseRecords(ServletWebRequest request,
+                                         @ModelAttribute RecordFilterForm filter,
+                                         @RequestParam(required = false) String cursor) {
+        if(isNotModified(request)){
+            return null;
+        }
+        return expenseRecordService.findPage(filter.toFilter(ExpenseCategory.class), RecordCursor.parse(cursor));
+    }
+
     @GetMapping("/expense/add")
     public String getExpenseAddPage(Model model) {
         model.addAttribute("expenseCategories", ExpenseCategory.values());
@@ -161,10 +330,10 @@ public class PrivateAccountController {
 
     @PostMapping("/expense/add")
     public String addExpenseRecord(@RequestParam ExpenseCategory category,
-                            @RequestParam double amount,
+                            @RequestParam BigDecimal amount,
                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
                             @RequestParam(required = false) String description) {
-        expenseRecordService.saveRecord(category, amount, date, description);
+        expenseRecordService.saveRecord(category, Money.ofMajor(amount), date, description);
         return "redirect:/account/expense";
     }
 
@@ -174,6 +343,25 @@ public class PrivateAccountController {
         return "redirect:/account/expense";
     }
 
+    @PostMapping("/expense/bulk/delete")
+    public String deleteExpenseRecords(@RequestParam(required = false) List<Integer> ids) {
+        ledgerBulkService.delete(RecordKind.EXPENSE, ids);
+        return "redirect:/account/expense";
+    }
+
+    @PostMapping("/expense/bulk/category")
+    public String recategorizeExpenseRecords(@RequestParam(required = false) List<Integer> ids,
+                                             @RequestParam ExpenseCategory category) {
+        ledgerBulkService.recategorize(ids, category);
+        return "redirect:/account/expense";
+    }
+
+    @PostMapping("/expense/bulk/shift")
+    public String shiftExpenseRecords(@RequestParam(required = false) List<Integer> ids, @RequestParam int days) {
+        ledgerBulkService.shiftDates(RecordKind.EXPENSE, ids, days);
+        return "redirect:/account/expense";
+    }
+
     @GetMapping("expense/edit/{id}")
     public String getExpenseEditPage(Model model, @PathVariable("id") int id) {
         ExpenseRecord expenseRecord = expenseRecordService.findRecord(id);
@@ -185,10 +373,40 @@ public class PrivateAccountController {
     @PostMapping("expense/edit/{id}")
     public String editExpenseRecord(@PathVariable("id") int id,
                                     @RequestParam ExpenseCategory category,
-                                    @RequestParam double amount,
+                                    @RequestParam BigDecimal amount,
                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
                                     @RequestParam(required = false) String description){
-        expenseRecordService.updateRecord(id, category, amount, date, description);
+        expenseRecordService.updateRecord(id, category, Money.ofMajor(amount), date, description);
         return "redirect:/account/expense";
     }
+
+    // An invalid filter is reported above the list instead of failing the page: the records are then
+    // filtered by the selected categories only, and the form keeps the values that were entered.
+    private static <C extends Enum<C>> RecordFilter<C> toFilter(Model model,
+                                                                RecordFilterForm filter,
+                                                                BindingResult filterBinding,
+                                                                Class<C> type) {
+        String error = null;
+        if(filterBinding.hasErrors()){
+            // a value that failed to convert takes the form out of the model; put back the values that were read
+            model.addAttribute("filter", filter);
+            error = "Some filter values could not be read. Check the dates and amounts.";
+        }else if(filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())){
+            error = "The 'from' date must not be after the 'to' date.";
+        }else if(filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0){
+            error = "The minimum amount must not be greater than the maximum amount.";
+        }
+        if(error == null){
+            return filter.toFilter(type);
+        }
+        model.addAttribute("filterError", error);
+        return filter.withoutRanges().toFilter(type);
+    }
+
+    // Everything these pages show comes from the user's ledger: an unchanged ledger version answers 304
+    // without reading any record or summary.
+    private boolean isNotModified(ServletWebRequest request) {
+        return ConditionalRequests.isNotModified(request, ledgerVersionService.currentETag());
+    }
 }
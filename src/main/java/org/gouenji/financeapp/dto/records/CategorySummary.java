@@ -0,0 +1,4 @@
+package org.gouenji.financeapp.dto.records;
+
+public record CategorySummary(String category, long total, long count, long monthTotal) {
+}
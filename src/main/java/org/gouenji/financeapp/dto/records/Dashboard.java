@@ -0,0 +1,12 @@
+package org.gouenji.financeapp.dto.records;
+
+public record Dashboard(IncomeRecordsContainer income, ExpenseRecordsContainer expense, LedgerPage recent) {
+
+    public long getBalance() {
+        return income.getTotal() - expense.getTotal();
+    }
+
+    public long getRecordsCount() {
+        return income.getCount() + expense.getCount();
+    }
+}
@@ -1,22 +1,28 @@
 package org.gouenji.financeapp.dto.records;
 
-import org.gouenji.financeapp.entity.records.ExpenseRecord;
-
 import java.util.List;
 
 public class ExpenseRecordsContainer {
-    private final List<ExpenseRecord> records;
-    private final double total;
-    private final Double filteredTotal;
-    private final Double averageTotal;
-    private final Double monthTotal;
+    private final List<ExpenseRecordView> records;
+    private final long total;
+    private final Long filteredTotal;
+    private final Long filteredAverageTotal;
+    private final Long filteredCount;
+    private final Long averageTotal;
+    private final Long monthTotal;
+    private final long count;
+    private final RecordCursor nextCursor;
 
     private ExpenseRecordsContainer(Builder builder) {
         this.records = builder.records;
         this.total = builder.total;
         this.filteredTotal = builder.filteredTotal;
+        this.filteredAverageTotal = builder.filteredAverageTotal;
+        this.filteredCount = builder.filteredCount;
         this.averageTotal = builder.averageTotal;
         this.monthTotal = builder.monthTotal;
+        this.count = builder.count;
+        this.nextCursor = builder.nextCursor;
     }
 
     public static Builder builder(){
@@ -24,51 +30,75 @@ public class ExpenseRecordsContainer {
     }
 
     public static class Builder{
-        private List<ExpenseRecord> records;
-        private double total;
-        private Double filteredTotal;
-        private Double averageTotal;
-        private Double monthTotal;
-
-        public Builder records(List<ExpenseRecord> records){
+        private List<ExpenseRecordView> records;
+        private long total;
+        private Long filteredTotal;
+        private Long filteredAverageTotal;
+        private Long filteredCount;
+        private Long averageTotal;
+        private Long monthTotal;
+        private long count;
+        private RecordCursor nextCursor;
+
+        public Builder records(List<ExpenseRecordView> records){
             this.records = records;
             return this;
         }
 
-        public Builder total(double total){
+        public Builder total(long total){
             this.total = total;
             return this;
         }
 
-        public Builder filteredTotal(Double filteredTotal){
+        public Builder filteredTotal(Long filteredTotal){
             this.filteredTotal = filteredTotal;
             return this;
         }
 
-        public Builder averageTotal(Double averageTotal){
+        public Builder filteredAverageTotal(Long filteredAverageTotal){
+            this.filteredAverageTotal = filteredAverageTotal;
+            return this;
+        }
+
+        public Builder filteredCount(Long filteredCount){
+            this.filteredCount = filteredCount;
+            return this;
+        }
+
+        public Builder averageTotal(Long averageTotal){
             this.averageTotal = averageTotal;
             return this;
         }
 
-        public Builder monthTotal(Double monthTotal){
+        public Builder monthTotal(Long monthTotal){
             this.monthTotal = monthTotal;
             return this;
         }
 
+        public Builder count(long count){
+            this.count = count;
+            return this;
+        }
+
+        public Builder nextCursor(RecordCursor nextCursor){
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
         public ExpenseRecordsContainer build(){
             return new ExpenseRecordsContainer(this);
         }
     }
 
-    public List<ExpenseRecord> getRecords() {
+    public List<ExpenseRecordView> getRecords() {
         return records;
     }
 
-    public double getTotal() {
+    public long getTotal() {
         return total;
     }
 
-    public Double getFilteredTotal() {
+    public Long getFilteredTotal() {
         return filteredTotal;
     }
 
@@ -76,7 +106,23 @@ public class ExpenseRecordsContainer {
         return filteredTotal != null;
     }
 
-    public Double getAverageTotal() {
+    public Long getFilteredAverageTotal() {
+        return filteredAverageTotal;
+    }
+
+    public boolean hasFilteredAverageTotal() {
+        return filteredAverageTotal != null;
+    }
+
+    public Long getFilteredCount() {
+        return filteredCount;
+    }
+
+    public boolean hasFilteredCount() {
+        return filteredCount != null;
+    }
+
+    public Long getAverageTotal() {
         return averageTotal;
     }
 
@@ -84,11 +130,23 @@ public class ExpenseRecordsContainer {
         return averageTotal != null;
     }
 
-    public Double getMonthTotal() {
+    public Long getMonthTotal() {
         return monthTotal;
     }
 
     public boolean hasMonthTotal() {
         return monthTotal != null;
     }
+
+    public long getCount() {
+        return count;
+    }
+
+    public RecordCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNextCursor() {
+        return nextCursor != null;
+    }
 }
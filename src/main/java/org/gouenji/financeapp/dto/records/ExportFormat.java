@@ -0,0 +1,28 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV(new MediaType("text", "csv")),
+    JSON(MediaType.APPLICATION_JSON);
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ExportFormat parse(String value) {
+        return value == null || value.isEmpty() ? CSV : valueOf(value.toUpperCase(Locale.ROOT));
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileName() {
+        return "ledger." + name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,6 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.springframework.data.domain.Window;
+
+public record FilteredRecords<V>(Window<V> window, long total, long count) {
+}
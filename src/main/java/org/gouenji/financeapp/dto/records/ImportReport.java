@@ -0,0 +1,13 @@
+package org.gouenji.financeapp.dto.records;
+
+import java.util.List;
+
+public record ImportReport(long imported, long rejected, List<RowError> errors) {
+
+    public boolean hasMoreErrors() {
+        return rejected > errors.size();
+    }
+
+    public record RowError(long line, String message) {
+    }
+}
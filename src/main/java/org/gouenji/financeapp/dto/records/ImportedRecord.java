@@ -0,0 +1,6 @@
+package org.gouenji.financeapp.dto.records;
+
+import java.time.LocalDate;
+
+public record ImportedRecord(Enum<?> category, long amount, LocalDate date, String description) {
+}
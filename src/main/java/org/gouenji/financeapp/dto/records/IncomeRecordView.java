@@ -0,0 +1,77 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.records.Record;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class IncomeRecordView implements Record {
+    private final int id;
+    private final IncomeCategory category;
+    private final long amount;
+    private final LocalDate date;
+    private final String description;
+
+    public IncomeRecordView(int id,
+                            IncomeCategory category,
+                            long amount,
+                            LocalDate date,
+                            String description) {
+        this.id = id;
+        this.category = category;
+        this.amount = amount;
+        this.date = date;
+        this.description = description;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getType() {
+        return "INCOME";
+    }
+
+    @Override
+    public IncomeCategory getCategory() {
+        return category;
+    }
+
+    @Override
+    public long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o){
+            return true;
+        }
+        if(!(o instanceof IncomeRecordView that)){
+            return false;
+        }
+        return id == that.id
+                && amount == that.amount
+                && category == that.category
+                && Objects.equals(date, that.date)
+                && Objects.equals(description, that.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, category, amount, date, description);
+    }
+}
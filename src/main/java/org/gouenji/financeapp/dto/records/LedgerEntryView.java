@@ -0,0 +1,90 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.records.Record;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class LedgerEntryView implements Record {
+    private final int id;
+    private final RecordKind kind;
+    private final Enum<?> category;
+    private final long amount;
+    private final LocalDate date;
+    private final String description;
+
+    public LedgerEntryView(int id,
+                           RecordKind kind,
+                           String categoryName,
+                           long amount,
+                           LocalDate date,
+                           String description) {
+        this.id = id;
+        this.kind = kind;
+        this.category = switch(kind){
+            case INCOME -> IncomeCategory.valueOf(categoryName);
+            case EXPENSE -> ExpenseCategory.valueOf(categoryName);
+        };
+        this.amount = amount;
+        this.date = date;
+        this.description = description;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getType() {
+        return kind.name();
+    }
+
+    public RecordKind getKind() {
+        return kind;
+    }
+
+    @Override
+    public Enum<?> getCategory() {
+        return category;
+    }
+
+    @Override
+    public long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o){
+            return true;
+        }
+        if(!(o instanceof LedgerEntryView that)){
+            return false;
+        }
+        return id == that.id
+                && amount == that.amount
+                && kind == that.kind
+                && category == that.category
+                && Objects.equals(date, that.date)
+                && Objects.equals(description, that.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, kind, category, amount, date, description);
+    }
+}
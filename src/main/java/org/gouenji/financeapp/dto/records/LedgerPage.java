@@ -0,0 +1,12 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.gouenji.financeapp.entity.records.Record;
+
+import java.util.List;
+
+public record LedgerPage(List<Record> records, RecordCursor nextCursor) {
+
+    public boolean hasNextCursor() {
+        return nextCursor != null;
+    }
+}
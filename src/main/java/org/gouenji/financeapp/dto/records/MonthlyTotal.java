@@ -0,0 +1,4 @@
+package org.gouenji.financeapp.dto.records;
+
+public record MonthlyTotal(int userId, Enum<?> category, int year, int month, long total, long count) {
+}
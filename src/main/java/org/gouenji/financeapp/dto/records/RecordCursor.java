@@ -0,0 +1,45 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.gouenji.financeapp.entity.records.Record;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+public record RecordCursor(LocalDate date, int id) {
+
+    private static final char SEPARATOR = ':';
+
+    public static RecordCursor of(Record record) {
+        return new RecordCursor(record.getDate(), record.getId());
+    }
+
+    public static RecordCursor parse(String value) {
+        if(value == null || value.isBlank()){
+            return null;
+        }
+        int separatorIndex = value.indexOf(SEPARATOR);
+        if(separatorIndex < 0){
+            throw new IllegalArgumentException("Invalid record cursor: " + value);
+        }
+        try {
+            return new RecordCursor(
+                    LocalDate.parse(value.substring(0, separatorIndex)),
+                    Integer.parseInt(value.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid record cursor: " + value, e);
+        }
+    }
+
+    public static ScrollPosition toScrollPosition(RecordCursor cursor) {
+        if(cursor == null){
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of("date", cursor.date(), "id", cursor.id()));
+    }
+
+    public String encode() {
+        return date.toString() + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,26 @@
+package org.gouenji.financeapp.dto.records;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.gouenji.financeapp.entity.records.Record;
+import org.gouenji.financeapp.util.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RecordDto(int id,
+                        String type,
+                        String category,
+                        BigDecimal amount,
+                        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+                        String description) {
+
+    public static RecordDto of(Record record) {
+        return new RecordDto(
+                record.getId(),
+                record.getType(),
+                record.getCategory().name(),
+                Money.toMajor(record.getAmount()),
+                record.getDate(),
+                record.getDescription());
+    }
+}
@@ -0,0 +1,59 @@
+package org.gouenji.financeapp.dto.records;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Field selection for API responses (?fields=id,amount,date): only the listed fields are written, in this order.
+public final class RecordFields {
+    private static final List<String> NAMES = List.of("id", "type", "category", "amount", "date", "description");
+
+    public static final RecordFields ALL = new RecordFields(NAMES);
+
+    private final List<String> names;
+
+    private RecordFields(List<String> names) {
+        this.names = names;
+    }
+
+    public static RecordFields parse(String value) {
+        if(value == null || value.isBlank()){
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for(String name : value.split(",")){
+            String field = name.trim();
+            if(!NAMES.contains(field)){
+                throw new IllegalArgumentException("Unknown record field: " + field + ", expected any of " + NAMES);
+            }
+            selected.add(field);
+        }
+        return new RecordFields(NAMES.stream().filter(selected::contains).toList());
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public Map<String, Object> select(RecordDto record) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for(String name : names){
+            fields.put(name, switch(name){
+                case "id" -> record.id();
+                case "type" -> record.type();
+                case "category" -> record.category();
+                case "amount" -> record.amount();
+                case "date" -> record.date().toString();
+                case "description" -> record.description();
+                default -> throw new IllegalStateException("Unexpected record field: " + name);
+            });
+        }
+        return fields;
+    }
+
+    public SelectedRecordsPage select(RecordsPage page) {
+        return new SelectedRecordsPage(page.records().stream().map(this::select).toList(), page.nextCursor());
+    }
+}
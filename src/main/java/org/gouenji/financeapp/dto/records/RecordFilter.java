@@ -0,0 +1,71 @@
+package org.gouenji.financeapp.dto.records;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+public record RecordFilter<C extends Enum<C>>(Set<C> categories,
+                                             LocalDate from,
+                                             LocalDate to,
+                                             Long minAmount,
+                                             Long maxAmount) {
+
+    public RecordFilter {
+        categories = categoriesOf(categories);
+        if(from != null && to != null && from.isAfter(to)){
+            throw new IllegalArgumentException("Invalid record filter: from " + from + " is after to " + to);
+        }
+        if(minAmount != null && maxAmount != null && minAmount > maxAmount){
+            throw new IllegalArgumentException("Invalid record filter: min amount " + minAmount
+                    + " is greater than max amount " + maxAmount);
+        }
+    }
+
+    public static <C extends Enum<C>> RecordFilter<C> all() {
+        return new RecordFilter<>(Set.<C>of(), null, null, null, null);
+    }
+
+    public static <C extends Enum<C>> RecordFilter<C> of(C category) {
+        return new RecordFilter<>(category == null ? Set.<C>of() : Set.of(category), null, null, null, null);
+    }
+
+    public static <C extends Enum<C>> C parseCategory(Class<C> type, String value) {
+        if(value == null || value.isEmpty()){
+            return null;
+        }
+        for(C category : type.getEnumConstants()){
+            if(category.name().equals(value)){
+                return category;
+            }
+        }
+        return null;
+    }
+
+    public boolean isUnfiltered() {
+        return categories.isEmpty() && isCategoryOnly();
+    }
+
+    public boolean isCategoryOnly() {
+        return from == null && to == null && minAmount == null && maxAmount == null;
+    }
+
+    public long categoryMask() {
+        if(categories.isEmpty()){
+            return -1L;
+        }
+        long mask = 0;
+        for(C category : categories){
+            mask |= 1L << category.ordinal();
+        }
+        return mask;
+    }
+
+    private static <C extends Enum<C>> Set<C> categoriesOf(Set<C> categories) {
+        if(categories == null || categories.isEmpty()){
+            return Set.of();
+        }
+        EnumSet<C> selected = EnumSet.copyOf(categories);
+        return EnumSet.complementOf(selected).isEmpty() ? Set.of() : Collections.unmodifiableSet(selected);
+    }
+}
@@ -0,0 +1,40 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.gouenji.financeapp.util.Money;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.BindParam;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+public record RecordFilterForm(@BindParam("category") List<String> categories,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               BigDecimal minAmount,
+                               BigDecimal maxAmount) {
+
+    public RecordFilterForm {
+        categories = categories == null ? List.of() : List.copyOf(categories);
+    }
+
+    public RecordFilterForm withoutRanges() {
+        return new RecordFilterForm(categories, null, null, null, null);
+    }
+
+    public <C extends Enum<C>> RecordFilter<C> toFilter(Class<C> type) {
+        EnumSet<C> selected = EnumSet.noneOf(type);
+        for(String category : categories){
+            C parsed = RecordFilter.parseCategory(type, category);
+            if(parsed != null){
+                selected.add(parsed);
+            }
+        }
+        return new RecordFilter<>(selected,
+                from,
+                to,
+                minAmount == null ? null : Money.ofMajor(minAmount),
+                maxAmount == null ? null : Money.ofMajor(maxAmount));
+    }
+}
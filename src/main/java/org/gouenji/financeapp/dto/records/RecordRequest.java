@@ -0,0 +1,34 @@
+package org.gouenji.financeapp.dto.records;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.gouenji.financeapp.util.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RecordRequest<C extends Enum<C>>(C category,
+                                              BigDecimal amount,
+                                              @JsonFormat(pattern = "yyyy-MM-dd") LocalDate date,
+                                              String description) {
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+
+    public RecordRequest {
+        if(category == null){
+            throw new IllegalArgumentException("Record category is required");
+        }
+        if(amount == null || amount.signum() <= 0){
+            throw new IllegalArgumentException("Record amount must be positive");
+        }
+        if(date == null){
+            throw new IllegalArgumentException("Record date is required");
+        }
+        if(description != null && description.length() > MAX_DESCRIPTION_LENGTH){
+            throw new IllegalArgumentException("Record description is longer than "
+                    + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+    }
+
+    public long minorAmount() {
+        return Money.ofMajor(amount);
+    }
+}
@@ -0,0 +1,6 @@
+package org.gouenji.financeapp.dto.records;
+
+import java.util.List;
+
+public record RecordsPage(List<RecordDto> records, String nextCursor) {
+}
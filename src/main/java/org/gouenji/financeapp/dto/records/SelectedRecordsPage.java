@@ -0,0 +1,7 @@
+package org.gouenji.financeapp.dto.records;
+
+import java.util.List;
+import java.util.Map;
+
+public record SelectedRecordsPage(List<Map<String, Object>> records, String nextCursor) {
+}
@@ -0,0 +1,25 @@
+package org.gouenji.financeapp.dto.records;
+
+import org.gouenji.financeapp.util.Money;
+
+import java.math.BigDecimal;
+
+public record SummaryDto(Totals income, Totals expense, BigDecimal balance) {
+
+    public static SummaryDto of(IncomeRecordsContainer income, ExpenseRecordsContainer expense) {
+        return new SummaryDto(
+                new Totals(income.getTotal(), income.getMonthTotal(), income.getAverageTotal(), income.getCount()),
+                new Totals(expense.getTotal(), expense.getMonthTotal(), expense.getAverageTotal(), expense.getCount()),
+                Money.toMajor(income.getTotal() - expense.getTotal()));
+    }
+
+    public record Totals(BigDecimal total, BigDecimal monthTotal, BigDecimal monthAverage, long count) {
+
+        Totals(long total, Long monthTotal, Long monthAverage, long count) {
+            this(Money.toMajor(total),
+                    Money.toMajor(monthTotal == null ? 0 : monthTotal),
+                    Money.toMajor(monthAverage == null ? 0 : monthAverage),
+                    count);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.gouenji.financeapp.dto.users;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+public class AuthenticatedUser extends User {
+    private final int id;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(int id,
+                             String email,
+                             String password,
+                             int tokenVersion,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
@@ -0,0 +1,30 @@
+package org.gouenji.financeapp.dto.users;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JwtClaims(String subject,
+                        Integer userId,
+                        int tokenVersion,
+                        List<String> roles,
+                        Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public AuthenticatedUser toPrincipal() {
+        if(userId == null){
+            return null;
+        }
+        return new AuthenticatedUser(
+                userId,
+                subject,
+                "",
+                tokenVersion,
+                roles.stream().map(SimpleGrantedAuthority::new).toList()
+        );
+    }
+}
@@ -2,6 +2,7 @@ package org.gouenji.financeapp.entity;
 
 import jakarta.persistence.*;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "users")
@@ -25,6 +26,15 @@ public class User {
     @Column(name = "role", nullable = false, length = 30)
     private UserRole userRole;
 
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    // Only changed by UserRepository.incrementLedgerVersion, so a saved user never writes back a stale version
+    @ColumnDefault("0")
+    @Column(name = "ledger_version", nullable = false, updatable = false)
+    private long ledgerVersion;
+
     public User() {
     }
 
@@ -74,4 +84,16 @@ public class User {
     public void setUserRole(UserRole userRole) {
         this.userRole = userRole;
     }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public long getLedgerVersion() {
+        return ledgerVersion;
+    }
 }
@@ -0,0 +1,6 @@
+package org.gouenji.financeapp.entity.enums.records;
+
+public enum RecordKind {
+    INCOME,
+    EXPENSE
+}
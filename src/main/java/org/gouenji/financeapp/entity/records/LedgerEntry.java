@@ -0,0 +1,110 @@
+package org.gouenji.financeapp.entity.records;
+
+import jakarta.persistence.*;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_user_date", columnList = "user_id, date, id"),
+        @Index(name = "idx_ledger_entries_user_kind_date", columnList = "user_id, kind, date, id"),
+        @Index(name = "idx_ledger_entries_user_kind_category_date", columnList = "user_id, kind, category, date, id")
+})
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "kind", length = 10)
+public abstract class LedgerEntry implements Record {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private int id;
+
+    // Read-only views of the discriminator and of the subclass category column, so that queries over
+    // both kinds can project rows without loading entities.
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "kind", insertable = false, updatable = false)
+    private RecordKind kind;
+
+    @Column(name = "category", insertable = false, updatable = false)
+    private String categoryName;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "description", length = 100)
+    private String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // Read-only view of the owner column: derived queries such as findByUserId... bind to it instead of
+    // user.id, which Spring Data turns into an outer join to users and a predicate no index on this table serves.
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Integer userId;
+
+    protected LedgerEntry() {
+    }
+
+    protected LedgerEntry(long amount,
+                          LocalDate date,
+                          String description,
+                          User user) {
+        this.amount = amount;
+        this.date = date;
+        this.description = description;
+        this.user = user;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+}
@@ -0,0 +1,83 @@
+package org.gouenji.financeapp.entity.records;
+
+import jakarta.persistence.*;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "monthly_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_monthly_summary_user_kind_category_month",
+                columnNames = {"user_id", "kind", "category", "year_month"})
+})
+public class MonthlySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private int id;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 10)
+    private RecordKind kind;
+
+    @Column(name = "category", nullable = false, length = 35)
+    private String category;
+
+    @Column(name = "year_month", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    public MonthlySummary() {
+    }
+
+    public MonthlySummary(int userId,
+                          RecordKind kind,
+                          String category,
+                          LocalDate month,
+                          long total,
+                          long recordCount) {
+        this.userId = userId;
+        this.kind = kind;
+        this.category = category;
+        this.month = month;
+        this.total = total;
+        this.recordCount = recordCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public RecordKind getKind() {
+        return kind;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+}
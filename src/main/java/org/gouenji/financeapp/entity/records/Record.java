@@ -1,8 +1,19 @@
 package org.gouenji.financeapp.entity.records;
 
+import org.gouenji.financeapp.util.Money;
+
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public interface Record {
+    int getId();
     String getType();
+    Enum<?> getCategory();
+    long getAmount();
     LocalDate getDate();
+    String getDescription();
+
+    default BigDecimal getDisplayAmount() {
+        return Money.toMajor(getAmount());
+    }
 }
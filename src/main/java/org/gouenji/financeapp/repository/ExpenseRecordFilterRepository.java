@@ -0,0 +1,21 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.springframework.data.domain.Window;
+
+public interface ExpenseRecordFilterRepository {
+
+    FilteredRecords<ExpenseRecordView> findFiltered(int userId,
+                                                  RecordFilter<ExpenseCategory> filter,
+                                                  RecordCursor cursor,
+                                                  int limit);
+
+    Window<ExpenseRecordView> scrollFiltered(int userId,
+                                           RecordFilter<ExpenseCategory> filter,
+                                           RecordCursor cursor,
+                                           int limit);
+}
@@ -0,0 +1,41 @@
+package org.gouenji.financeapp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+
+public class ExpenseRecordFilterRepositoryImpl implements ExpenseRecordFilterRepository {
+    private static final FilteredRecordQuery<ExpenseRecordView> QUERY = new FilteredRecordQuery<>("ExpenseRecord",
+            row -> new ExpenseRecordView((Integer) row[0], (ExpenseCategory) row[1], (Long) row[2],
+                    (LocalDate) row[3], (String) row[4]));
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ExpenseRecordFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public FilteredRecords<ExpenseRecordView> findFiltered(int userId,
+                                                         RecordFilter<ExpenseCategory> filter,
+                                                         RecordCursor cursor,
+                                                         int limit) {
+        return QUERY.findWithTotals(entityManager, userId, filter, cursor, limit);
+    }
+
+    @Override
+    public Window<ExpenseRecordView> scrollFiltered(int userId,
+                                                  RecordFilter<ExpenseCategory> filter,
+                                                  RecordCursor cursor,
+                                                  int limit) {
+        return QUERY.scroll(entityManager, userId, filter, cursor, limit);
+    }
+}
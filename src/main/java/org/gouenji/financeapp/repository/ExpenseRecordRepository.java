@@ -1,22 +1,65 @@
 package org.gouenji.financeapp.repository;
 
-import org.gouenji.financeapp.entity.User;
+import jakarta.persistence.LockModeType;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.MonthlyTotal;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
 import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
-public interface ExpenseRecordRepository extends JpaRepository<ExpenseRecord, Integer> {
+public interface ExpenseRecordRepository extends JpaRepository<ExpenseRecord, Integer>, ExpenseRecordFilterRepository {
 
-    @Query("SELECT i FROM ExpenseRecord i WHERE YEAR(i.date) = :year AND MONTH(i.date) = :month AND i.user = :user")
-    List<ExpenseRecord> findAllByYearAndMonthAndUser(@Param("year") int year,
-                                                     @Param("month") int month,
-                                                     @Param("user")User user);
+    @Query("SELECT new org.gouenji.financeapp.dto.records.MonthlyTotal(i.user.id, i.category, " +
+            "EXTRACT(YEAR FROM i.date), EXTRACT(MONTH FROM i.date), SUM(i.amount), COUNT(i)) " +
+            "FROM ExpenseRecord i GROUP BY i.user.id, i.category, EXTRACT(YEAR FROM i.date), EXTRACT(MONTH FROM i.date)")
+    List<MonthlyTotal> sumAmountGroupedByUserAndCategoryAndMonth();
 
-    List<ExpenseRecord> findAllByUserIdOrderByDateDesc(int userId);
+    Window<ExpenseRecordView> findByUserIdOrderByDateDescIdDesc(int userId, ScrollPosition position, Limit limit);
+
+    List<ExpenseRecordView> findAllByUserIdOrderByDateDescIdDesc(int userId, Limit limit);
+
+    Optional<ExpenseRecord> findByIdAndUserId(int id, int userId);
+
+    // Locks the row until the transaction ends, so the values the monthly summary is adjusted by cannot change
+    // before the following updateOwned or deleteOwned
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new org.gouenji.financeapp.dto.records.ExpenseRecordView(i.id, i.category, i.amount, i.date, " +
+            "i.description) FROM ExpenseRecord i WHERE i.id = :id AND i.user.id = :userId")
+    Optional<ExpenseRecordView> findViewByIdAndUserId(@Param("id") int id, @Param("userId") int userId);
+
+    // Both statements match the row only if it belongs to the user, so a foreign id changes 0 rows
+    @Modifying
+    @Query("UPDATE ExpenseRecord i SET i.category = :category, i.amount = :amount, i.date = :date, " +
+            "i.description = :description WHERE i.id = :id AND i.user.id = :userId")
+    int updateOwned(@Param("id") int id,
+                    @Param("userId") int userId,
+                    @Param("category") ExpenseCategory category,
+                    @Param("amount") long amount,
+                    @Param("date") LocalDate date,
+                    @Param("description") String description);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseRecord i WHERE i.id = :id AND i.user.id = :userId")
+    int deleteOwned(@Param("id") int id, @Param("userId") int userId);
+
+    @Modifying
+    @Query("UPDATE ExpenseRecord i SET i.category = :category WHERE i.user.id = :userId AND i.id IN :ids")
+    int updateCategoryOwned(@Param("userId") int userId,
+                            @Param("ids") Collection<Integer> ids,
+                            @Param("category") ExpenseCategory category);
 }
@@ -0,0 +1,128 @@
+package org.gouenji.financeapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+final class FilteredRecordQuery<V> {
+    private static final String CURSOR_CONDITION =
+            "(r.date < :cursorDate or (r.date = :cursorDate and r.id < :cursorId))";
+
+    private final String entityName;
+    private final Function<Object[], V> rowMapper;
+
+    FilteredRecordQuery(String entityName, Function<Object[], V> rowMapper) {
+        this.entityName = entityName;
+        this.rowMapper = rowMapper;
+    }
+
+    FilteredRecords<V> findWithTotals(EntityManager entityManager,
+                                      int userId,
+                                      RecordFilter<?> filter,
+                                      RecordCursor cursor,
+                                      int limit) {
+        String hql = "select r.id, r.category, r.amount, r.date, r.description, r.total, r.matched from ("
+                + "select e.id as id, e.category as category, e.amount as amount, e.date as date, "
+                + "e.description as description, sum(e.amount) over () as total, count(e.id) over () as matched "
+                + "from " + entityName + " e where " + conditionsOf("e", filter) + ") r"
+                + (cursor == null ? "" : " where " + CURSOR_CONDITION)
+                + " order by r.date desc, r.id desc";
+        List<Object[]> rows = page(entityManager.createQuery(hql, Object[].class), userId, filter, cursor, limit);
+        if(rows.isEmpty()){
+            return cursor == null
+                    ? new FilteredRecords<>(Window.from(List.of(), ScrollPosition::offset), 0, 0)
+                    : totalsOnly(entityManager, userId, filter);
+        }
+        Object[] first = rows.getFirst();
+        return new FilteredRecords<>(toWindow(rows, limit), (Long) first[5], (Long) first[6]);
+    }
+
+    Window<V> scroll(EntityManager entityManager,
+                     int userId,
+                     RecordFilter<?> filter,
+                     RecordCursor cursor,
+                     int limit) {
+        String hql = "select r.id, r.category, r.amount, r.date, r.description from " + entityName + " r where "
+                + conditionsOf("r", filter)
+                + (cursor == null ? "" : " and " + CURSOR_CONDITION)
+                + " order by r.date desc, r.id desc";
+        return toWindow(page(entityManager.createQuery(hql, Object[].class), userId, filter, cursor, limit), limit);
+    }
+
+    private FilteredRecords<V> totalsOnly(EntityManager entityManager, int userId, RecordFilter<?> filter) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "select coalesce(sum(e.amount), 0), count(e.id) from " + entityName + " e where " + conditionsOf("e", filter),
+                Object[].class);
+        Object[] totals = bind(query, userId, filter).getSingleResult();
+        return new FilteredRecords<>(Window.from(List.of(), ScrollPosition::offset), (Long) totals[0], (Long) totals[1]);
+    }
+
+    private List<Object[]> page(TypedQuery<Object[]> query,
+                                int userId,
+                                RecordFilter<?> filter,
+                                RecordCursor cursor,
+                                int limit) {
+        bind(query, userId, filter);
+        if(cursor != null){
+            query.setParameter("cursorDate", cursor.date());
+            query.setParameter("cursorId", cursor.id());
+        }
+        return query.setMaxResults(limit + 1).getResultList();
+    }
+
+    private Window<V> toWindow(List<Object[]> rows, int limit) {
+        List<V> records = new ArrayList<>(Math.min(rows.size(), limit));
+        for(int i = 0; i < rows.size() && i < limit; i++){
+            records.add(rowMapper.apply(rows.get(i)));
+        }
+        return Window.from(records, ScrollPosition::offset, rows.size() > limit);
+    }
+
+    private static String conditionsOf(String alias, RecordFilter<?> filter) {
+        StringBuilder conditions = new StringBuilder(alias).append(".user.id = :userId");
+        if(!filter.categories().isEmpty()){
+            conditions.append(" and ").append(alias).append(".category in :categories");
+        }
+        if(filter.from() != null){
+            conditions.append(" and ").append(alias).append(".date >= :from");
+        }
+        if(filter.to() != null){
+            conditions.append(" and ").append(alias).append(".date <= :to");
+        }
+        if(filter.minAmount() != null){
+            conditions.append(" and ").append(alias).append(".amount >= :minAmount");
+        }
+        if(filter.maxAmount() != null){
+            conditions.append(" and ").append(alias).append(".amount <= :maxAmount");
+        }
+        return conditions.toString();
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, int userId, RecordFilter<?> filter) {
+        query.setParameter("userId", userId);
+        if(!filter.categories().isEmpty()){
+            query.setParameter("categories", filter.categories());
+        }
+        if(filter.from() != null){
+            query.setParameter("from", filter.from());
+        }
+        if(filter.to() != null){
+            query.setParameter("to", filter.to());
+        }
+        if(filter.minAmount() != null){
+            query.setParameter("minAmount", filter.minAmount());
+        }
+        if(filter.maxAmount() != null){
+            query.setParameter("maxAmount", filter.maxAmount());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,21 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.springframework.data.domain.Window;
+
+public interface IncomeRecordFilterRepository {
+
+    FilteredRecords<IncomeRecordView> findFiltered(int userId,
+                                                  RecordFilter<IncomeCategory> filter,
+                                                  RecordCursor cursor,
+                                                  int limit);
+
+    Window<IncomeRecordView> scrollFiltered(int userId,
+                                           RecordFilter<IncomeCategory> filter,
+                                           RecordCursor cursor,
+                                           int limit);
+}
@@ -0,0 +1,41 @@
+package org.gouenji.financeapp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+
+public class IncomeRecordFilterRepositoryImpl implements IncomeRecordFilterRepository {
+    private static final FilteredRecordQuery<IncomeRecordView> QUERY = new FilteredRecordQuery<>("IncomeRecord",
+            row -> new IncomeRecordView((Integer) row[0], (IncomeCategory) row[1], (Long) row[2],
+                    (LocalDate) row[3], (String) row[4]));
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public IncomeRecordFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public FilteredRecords<IncomeRecordView> findFiltered(int userId,
+                                                         RecordFilter<IncomeCategory> filter,
+                                                         RecordCursor cursor,
+                                                         int limit) {
+        return QUERY.findWithTotals(entityManager, userId, filter, cursor, limit);
+    }
+
+    @Override
+    public Window<IncomeRecordView> scrollFiltered(int userId,
+                                                  RecordFilter<IncomeCategory> filter,
+                                                  RecordCursor cursor,
+                                                  int limit) {
+        return QUERY.scroll(entityManager, userId, filter, cursor, limit);
+    }
+}
@@ -0,0 +1,47 @@
+package org.gouenji.financeapp.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.entity.records.LedgerEntry;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Integer> {
+
+    Window<LedgerEntryView> findByUserIdOrderByDateDescIdDesc(int userId, ScrollPosition position, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.gouenji.financeapp.dto.records.LedgerEntryView(e.id, e.kind, e.categoryName, e.amount, e.date, e.description) " +
+            "FROM LedgerEntry e WHERE e.user.id = :userId ORDER BY e.date DESC, e.id DESC")
+    Stream<LedgerEntryView> streamByUserIdOrderByDateDescIdDesc(@Param("userId") int userId);
+
+    // Locks the selected rows until the bulk statement commits, so the monthly summary is adjusted by
+    // exactly the values that statement changes.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new org.gouenji.financeapp.dto.records.LedgerEntryView(e.id, e.kind, e.categoryName, e.amount, e.date, e.description) " +
+            "FROM LedgerEntry e WHERE e.user.id = :userId AND e.id IN :ids")
+    List<LedgerEntryView> lockOwned(@Param("userId") int userId, @Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("DELETE FROM LedgerEntry e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteOwned(@Param("userId") int userId, @Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE LedgerEntry e SET e.date = e.date + :days day WHERE e.user.id = :userId AND e.id IN :ids")
+    int shiftDatesOwned(@Param("userId") int userId, @Param("ids") Collection<Integer> ids, @Param("days") int days);
+}
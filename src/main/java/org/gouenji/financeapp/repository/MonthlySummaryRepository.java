@@ -0,0 +1,23 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.records.MonthlySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MonthlySummaryRepository extends JpaRepository<MonthlySummary, Integer> {
+
+    @Query("SELECT new org.gouenji.financeapp.dto.records.CategorySummary(s.category, SUM(s.total), " +
+            "SUM(s.recordCount), SUM(CASE WHEN s.month = :month THEN s.total ELSE 0L END)) " +
+            "FROM MonthlySummary s WHERE s.userId = :userId AND s.kind = :kind GROUP BY s.category")
+    List<CategorySummary> sumGroupedByCategory(@Param("userId") int userId,
+                                               @Param("kind") RecordKind kind,
+                                               @Param("month") LocalDate month);
+}
@@ -0,0 +1,67 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.time.LocalDate;
+
+@Repository
+public class MonthlySummaryWriter {
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO monthly_summary (user_id, kind, category, year_month, total, record_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, kind, category, year_month) DO UPDATE SET " +
+            "total = monthly_summary.total + EXCLUDED.total, " +
+            "record_count = monthly_summary.record_count + EXCLUDED.record_count";
+    private static final String MERGE =
+            "MERGE INTO monthly_summary s USING (VALUES (CAST(? AS INT), CAST(? AS VARCHAR(10)), " +
+            "CAST(? AS VARCHAR(35)), CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS v (user_id, kind, category, year_month, total, record_count) " +
+            "ON s.user_id = v.user_id AND s.kind = v.kind AND s.category = v.category " +
+            "AND s.year_month = v.year_month " +
+            "WHEN MATCHED THEN UPDATE SET total = s.total + v.total, record_count = s.record_count + v.record_count " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, kind, category, year_month, total, record_count) " +
+            "VALUES (v.user_id, v.kind, v.category, v.year_month, v.total, v.record_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    @Autowired
+    public MonthlySummaryWriter(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    // Two first writes to the same month must not both insert. PostgreSQL settles that inside the single
+    // ON CONFLICT statement. MERGE (H2) does not: the loser waits for the winner's row, fails on the unique
+    // constraint without aborting its transaction, and the repeated MERGE then finds the committed row.
+    public void add(int userId, RecordKind kind, String category, LocalDate month, long amount, long count) {
+        Object[] args = {userId, kind.name(), category, Date.valueOf(month), amount, count};
+        if(postgres){
+            jdbcTemplate.update(POSTGRES_UPSERT, args);
+            return;
+        }
+        try {
+            jdbcTemplate.update(MERGE, args);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(MERGE, args);
+        }
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot detect the database for monthly summary upserts", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.ImportedRecord;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+@Repository
+public class RecordBatchWriter {
+    private static final String INSERT =
+            "INSERT INTO ledger_entries (kind, category, amount, date, description, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RecordBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Record entities use IDENTITY ids, which make Hibernate insert one row per statement,
+    // so imports bypass the persistence context and go through a single batched statement.
+    public void insert(RecordKind kind, int userId, List<ImportedRecord> records) {
+        if(records.isEmpty()){
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, records, records.size(), (statement, record) -> {
+            statement.setString(1, kind.name());
+            statement.setString(2, record.category().name());
+            statement.setLong(3, record.amount());
+            statement.setDate(4, Date.valueOf(record.date()));
+            statement.setString(5, record.description());
+            statement.setInt(6, userId);
+        });
+    }
+}
@@ -2,6 +2,9 @@ package org.gouenji.financeapp.repository;
 
 import org.gouenji.financeapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +13,18 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByEmailIgnoreCase(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") int id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") int id);
+
+    @Query("SELECT u.ledgerVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findLedgerVersionById(@Param("id") int id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.ledgerVersion = u.ledgerVersion + 1 WHERE u.id = :id")
+    int incrementLedgerVersion(@Param("id") int id);
 }
@@ -0,0 +1,53 @@
+package org.gouenji.financeapp.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.gouenji.financeapp.repository.UserRepository;
+import org.gouenji.financeapp.util.AsyncCaches;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+@Service
+public class TokenVersionService {
+    private static final int MAX_CACHED_USERS = 10_000;
+    private static final int UNKNOWN_USER_VERSION = -1;
+
+    private final UserRepository userRepository;
+    private final AsyncCache<Integer, Integer> tokenVersions;
+
+    @Autowired
+    public TokenVersionService(UserRepository userRepository,
+                               @Value("${jwt.revocation-cache-ttl:PT30S}") Duration cacheTtl) {
+        this.userRepository = userRepository;
+        this.tokenVersions = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_USERS)
+                .expireAfterWrite(cacheTtl)
+                .buildAsync();
+    }
+
+    public boolean isCurrent(int userId, int tokenVersion) {
+        return AsyncCaches.get(tokenVersions, userId, id -> userRepository.findTokenVersionById(id)
+                .orElse(UNKNOWN_USER_VERSION)) == tokenVersion;
+    }
+
+    @Transactional
+    public void revoke(int userId) {
+        userRepository.incrementTokenVersion(userId);
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenVersions.synchronous().invalidate(userId);
+                }
+            });
+        }else{
+            tokenVersions.synchronous().invalidate(userId);
+        }
+    }
+}
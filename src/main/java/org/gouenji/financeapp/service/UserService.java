@@ -1,5 +1,6 @@
 package org.gouenji.financeapp.service;
 
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.repository.UserRepository;
 import org.springframework.security.core.Authentication;
@@ -38,21 +39,30 @@ public class UserService implements UserDetailsService {
         Set<SimpleGrantedAuthority> authorities =
                 Collections.singleton(user.getUserRole().toAuthority());
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
+                user.getTokenVersion(),
                 authorities
         );
     }
 
     public User getCurrentUser(){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser){
+            return userRepository.getReferenceById(authenticatedUser.getId());
+        }
         return findByEmail(authentication.getName())
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "User not found with email: " + authentication.getName()));
     }
 
     public int getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser){
+            return authenticatedUser.getId();
+        }
         return getCurrentUser().getId();
     }
 
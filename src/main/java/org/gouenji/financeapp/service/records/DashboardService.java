@@ -0,0 +1,86 @@
+package org.gouenji.financeapp.service.records;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.gouenji.financeapp.dto.records.Dashboard;
+import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Timed("records.service")
+public class DashboardService {
+
+    private final IncomeRecordService incomeRecordService;
+    private final ExpenseRecordService expenseRecordService;
+    private final LedgerService ledgerService;
+    private final ExecutorService fetchPool;
+    private final Executor fetchExecutor;
+
+    @Autowired
+    public DashboardService(IncomeRecordService incomeRecordService,
+                            ExpenseRecordService expenseRecordService,
+                            LedgerService ledgerService,
+                            @Value("${dashboard.fetch-threads:8}") int fetchThreads,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.incomeRecordService = incomeRecordService;
+        this.expenseRecordService = expenseRecordService;
+        this.ledgerService = ledgerService;
+        this.fetchPool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-fetch-", 0).factory())
+                : platformPool(fetchThreads);
+        this.fetchExecutor = new DelegatingSecurityContextExecutor(fetchPool);
+    }
+
+    public Dashboard assemble(RecordCursor cursor) {
+        CompletableFuture<IncomeRecordsContainer> income =
+                CompletableFuture.supplyAsync(incomeRecordService::findSummary, fetchExecutor);
+        CompletableFuture<ExpenseRecordsContainer> expense =
+                CompletableFuture.supplyAsync(expenseRecordService::findSummary, fetchExecutor);
+        CompletableFuture<LedgerPage> recent =
+                CompletableFuture.supplyAsync(() -> ledgerService.findRecent(cursor), fetchExecutor);
+        try {
+            // Waits for every part, so a failed dashboard leaves no query running behind it
+            CompletableFuture.allOf(income, expense, recent).join();
+            return new Dashboard(income.join(), expense.join(), recent.join());
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            if(e.getCause() instanceof Error cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // No queue: when every fetch thread is busy the request thread runs the part itself,
+    // so a burst degrades to the old sequential fetch instead of waiting or failing.
+    private static ExecutorService platformPool(int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                Thread.ofPlatform().name("dashboard-fetch-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdown();
+    }
+}
@@ -1,111 +1,233 @@
 package org.gouenji.financeapp.service.records;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
 import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordsPage;
 import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
-import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
 import org.gouenji.financeapp.repository.ExpenseRecordRepository;
 import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Transactional
+@Timed("records.service")
 public class ExpenseRecordService {
+    public static final int PAGE_SIZE = 20;
+    private static final Limit PAGE_LIMIT = Limit.of(PAGE_SIZE);
+    private static final String FIND_ALL = "expense.findAll";
+    private static final String FIND_SUMMARY = "expense.findSummary";
+    private static final String FIND_PAGE = "expense.findPage";
+
     private final ExpenseRecordRepository expenseRecordRepository;
     private final UserService userService;
+    private final MonthlySummaryService monthlySummaryService;
+    private final LedgerCacheService ledgerCacheService;
+    private final LedgerVersionService ledgerVersionService;
+    private final LedgerQueryCache ledgerQueryCache;
 
     @Autowired
-    public ExpenseRecordService(ExpenseRecordRepository expenseRecordRepository, UserService userService) {
+    public ExpenseRecordService(ExpenseRecordRepository expenseRecordRepository,
+                                UserService userService,
+                                MonthlySummaryService monthlySummaryService,
+                                LedgerCacheService ledgerCacheService,
+                                LedgerVersionService ledgerVersionService,
+                                LedgerQueryCache ledgerQueryCache) {
         this.expenseRecordRepository = expenseRecordRepository;
         this.userService = userService;
+        this.monthlySummaryService = monthlySummaryService;
+        this.ledgerCacheService = ledgerCacheService;
+        this.ledgerVersionService = ledgerVersionService;
+        this.ledgerQueryCache = ledgerQueryCache;
     }
 
     @Transactional(readOnly = true)
-    public ExpenseRecordsContainer findAll(String filterMode) {
-        List<ExpenseRecord> expenseRecords = expenseRecordRepository
-                .findAllByUserIdOrderByDateDesc(userService.getCurrentUserId());
-        double total = expenseRecords.stream()
-                .mapToDouble(ExpenseRecord::getAmount)
-                .sum();
-        double averageTotal = (double) Math.round(total / 12 * 100) / 100;
-        double monthTotal = expenseRecordRepository
-                .findAllByYearAndMonthAndUser(LocalDate.now().getYear(),
-                        LocalDate.now().getMonthValue(), userService.getCurrentUser()).stream()
-                .mapToDouble(ExpenseRecord::getAmount)
-                .sum();
-        if(filterMode == null || filterMode.isEmpty() || filterMode.equals("All categories")){
-            return ExpenseRecordsContainer.builder()
-                    .records(expenseRecords)
-                    .total(total)
-                    .averageTotal(averageTotal)
-                    .monthTotal(monthTotal)
-                    .build();
-        }
-        List<String> allModes = Arrays.stream(ExpenseCategory.values())
-                .map(Enum::name)
-                .toList();
-        if(allModes.contains(filterMode)){
-            List<ExpenseRecord> filteredExpenseRecords = expenseRecords.stream()
-                    .filter(record -> record.getCategory() == ExpenseCategory.valueOf(filterMode))
-                    .toList();
-            double filteredTotal = filteredExpenseRecords.stream()
-                    .mapToDouble(ExpenseRecord::getAmount)
-                    .sum();
-            double filteredAverageTotal = (double) Math.round(filteredTotal / 12 * 100) / 100;
-            return ExpenseRecordsContainer.builder()
-                    .records(filteredExpenseRecords)
-                    .total(total)
-                    .filteredTotal(filteredTotal)
-                    .averageTotal(filteredAverageTotal)
-                    .monthTotal(monthTotal)
-                    .build();
-        }else{
-            return ExpenseRecordsContainer.builder()
-                    .records(expenseRecords)
-                    .total(total)
-                    .averageTotal(averageTotal)
-                    .monthTotal(monthTotal)
+    public ExpenseRecordsContainer findAll(RecordFilter<ExpenseCategory> filter, RecordCursor cursor) {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_ALL, filter, cursor, () -> findAll(userId, filter, cursor));
+    }
+
+    @Transactional(readOnly = true)
+    public ExpenseRecordsContainer findSummary() {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_SUMMARY, null, null, () -> summarize(userId, RecordFilter.all())
+                .records(List.of())
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public RecordsPage findPage(RecordFilter<ExpenseCategory> filter, RecordCursor cursor) {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_PAGE, filter, cursor, () -> findPage(userId, filter, cursor));
+    }
+
+    private ExpenseRecordsContainer findAll(int userId, RecordFilter<ExpenseCategory> filter, RecordCursor cursor) {
+        ExpenseRecordsContainer.Builder summary = summarize(userId, filter);
+        if(filter.isCategoryOnly()){
+            Window<ExpenseRecordView> page = filter.isUnfiltered()
+                    ? findWindow(userId, cursor)
+                    : scrollFiltered(userId, filter, cursor);
+            return summary
+                    .records(page.getContent())
+                    .nextCursor(nextCursorOf(page))
                     .build();
         }
+        FilteredRecords<ExpenseRecordView> filtered = findFiltered(userId, filter, cursor);
+        return summary
+                .filteredTotal(filtered.total())
+                .filteredAverageTotal(averageOf(filtered.total()))
+                .filteredCount(filtered.count())
+                .records(filtered.window().getContent())
+                .nextCursor(nextCursorOf(filtered.window()))
+                .build();
+    }
+
+    private RecordsPage findPage(int userId, RecordFilter<ExpenseCategory> filter, RecordCursor cursor) {
+        Window<ExpenseRecordView> page = filter.isUnfiltered()
+                ? findWindow(userId, cursor)
+                : scrollFiltered(userId, filter, cursor);
+        RecordCursor nextCursor = nextCursorOf(page);
+        return new RecordsPage(
+                page.getContent().stream().map(RecordDto::of).toList(),
+                nextCursor == null ? null : nextCursor.encode());
     }
 
     public ExpenseRecord findRecord(int id){
-        return expenseRecordRepository.findById(id)
+        return expenseRecordRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .orElseThrow(() -> new EntityNotFoundException("Expense record not found with id: " + id));
     }
 
-    public void saveRecord(ExpenseCategory category,
-                           double amount,
-                           LocalDate date,
-                           String description){
-        expenseRecordRepository.save(new ExpenseRecord(category, amount, date, description, userService.getCurrentUser()));
+    public ExpenseRecord saveRecord(ExpenseCategory category,
+                                    long amount,
+                                    LocalDate date,
+                                    String description){
+        User user = userService.getCurrentUser();
+        ExpenseRecord record = new ExpenseRecord(category, amount, date, description, user);
+        expenseRecordRepository.save(record);
+        monthlySummaryService.add(user.getId(), RecordKind.EXPENSE, category, date, amount);
+        ledgerCacheService.put(user.getId(), RecordKind.EXPENSE, record);
+        ledgerVersionService.bump(user.getId());
+        return record;
     }
 
     public void updateRecord(int id,
                              ExpenseCategory category,
-                             double amount,
+                             long amount,
                              LocalDate date,
                              String description){
-        ExpenseRecord record = findRecord(id);
+        int userId = userService.getCurrentUserId();
+        ExpenseRecordView record = expenseRecordRepository.findViewByIdAndUserId(id, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Expense record not found with id: " + id));
+        // the rollup and caches may only follow a row that really changed
+        if(expenseRecordRepository.updateOwned(id, userId, category, amount, date, description) != 1){
+            throw new EntityNotFoundException("Expense record not found with id: " + id);
+        }
+        monthlySummaryService.move(userId, RecordKind.EXPENSE,
+                record.getCategory(), record.getDate(), record.getAmount(),
+                category, date, amount);
+        ledgerCacheService.put(userId, RecordKind.EXPENSE,
+                new ExpenseRecordView(id, category, amount, date, description));
+        ledgerVersionService.bump(userId);
+    }
 
-        record.setCategory(category);
-        record.setAmount(amount);
-        record.setDate(date);
-        record.setDescription(description);
+    public boolean deleteRecord(int id) {
+        int userId = userService.getCurrentUserId();
+        Optional<ExpenseRecordView> found = expenseRecordRepository.findViewByIdAndUserId(id, userId);
+        if(found.isEmpty()){
+            return false;
+        }
+        ExpenseRecordView record = found.get();
+        if(expenseRecordRepository.deleteOwned(id, userId) != 1){
+            return false;
+        }
+        monthlySummaryService.remove(userId, RecordKind.EXPENSE,
+                record.getCategory(), record.getDate(), record.getAmount());
+        ledgerCacheService.remove(userId, RecordKind.EXPENSE, id);
+        ledgerVersionService.bump(userId);
+        return true;
+    }
 
-        expenseRecordRepository.save(record);
+    private ExpenseRecordsContainer.Builder summarize(int userId, RecordFilter<ExpenseCategory> filter) {
+        List<CategorySummary> categorySummaries = ledgerCacheService.isCached(userId, RecordKind.EXPENSE)
+                ? ledgerCacheService.summarize(userId, RecordKind.EXPENSE, YearMonth.now())
+                : monthlySummaryService.findByCategory(userId, RecordKind.EXPENSE, YearMonth.now());
+        long total = 0;
+        long monthTotal = 0;
+        long count = 0;
+        long selectedTotal = 0;
+        long selectedCount = 0;
+        for(CategorySummary categorySummary : categorySummaries){
+            total += categorySummary.total();
+            monthTotal += categorySummary.monthTotal();
+            count += categorySummary.count();
+            if(filter.categories().contains(ExpenseCategory.valueOf(categorySummary.category()))){
+                selectedTotal += categorySummary.total();
+                selectedCount += categorySummary.count();
+            }
+        }
+        ExpenseRecordsContainer.Builder summary = ExpenseRecordsContainer.builder()
+                .total(total)
+                .averageTotal(averageOf(total))
+                .monthTotal(monthTotal)
+                .count(count);
+        if(filter.isCategoryOnly() && !filter.isUnfiltered()){
+            summary.filteredTotal(selectedTotal)
+                    .filteredAverageTotal(averageOf(selectedTotal))
+                    .filteredCount(selectedCount);
+        }
+        return summary;
     }
 
+    private Window<ExpenseRecordView> findWindow(int userId, RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.EXPENSE)){
+            return ledgerCacheService.findExpense(userId, cursor, PAGE_SIZE);
+        }
+        return expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userId, RecordCursor.toScrollPosition(cursor), PAGE_LIMIT);
+    }
+
+    private FilteredRecords<ExpenseRecordView> findFiltered(int userId,
+                                                            RecordFilter<ExpenseCategory> filter,
+                                                            RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.EXPENSE)){
+            return ledgerCacheService.filterExpense(userId, filter, cursor, PAGE_SIZE);
+        }
+        return expenseRecordRepository.findFiltered(userId, filter, cursor, PAGE_SIZE);
+    }
+
+    private Window<ExpenseRecordView> scrollFiltered(int userId,
+                                                     RecordFilter<ExpenseCategory> filter,
+                                                     RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.EXPENSE)){
+            return ledgerCacheService.filterExpense(userId, filter, cursor, PAGE_SIZE).window();
+        }
+        return expenseRecordRepository.scrollFiltered(userId, filter, cursor, PAGE_SIZE);
+    }
+
+    private static RecordCursor nextCursorOf(Window<ExpenseRecordView> page) {
+        return page.hasNext() ? RecordCursor.of(page.getContent().getLast()) : null;
+    }
 
-    public void deleteRecord(int id) {
-        expenseRecordRepository.deleteById(id);
+    private static long averageOf(long total) {
+        return Money.divide(total, 12);
     }
 }
@@ -1,108 +1,233 @@
 package org.gouenji.financeapp.service.records;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
 import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordsPage;
+import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
 import org.gouenji.financeapp.repository.IncomeRecordRepository;
 import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Transactional
+@Timed("records.service")
 public class IncomeRecordService {
+    public static final int PAGE_SIZE = 20;
+    private static final Limit PAGE_LIMIT = Limit.of(PAGE_SIZE);
+    private static final String FIND_ALL = "income.findAll";
+    private static final String FIND_SUMMARY = "income.findSummary";
+    private static final String FIND_PAGE = "income.findPage";
+
     private final IncomeRecordRepository incomeRecordRepository;
     private final UserService userService;
+    private final MonthlySummaryService monthlySummaryService;
+    private final LedgerCacheService ledgerCacheService;
+    private final LedgerVersionService ledgerVersionService;
+    private final LedgerQueryCache ledgerQueryCache;
 
     @Autowired
-    public IncomeRecordService(IncomeRecordRepository incomeRecordRepository, UserService userService) {
+    public IncomeRecordService(IncomeRecordRepository incomeRecordRepository,
+                               UserService userService,
+                               MonthlySummaryService monthlySummaryService,
+                               LedgerCacheService ledgerCacheService,
+                               LedgerVersionService ledgerVersionService,
+                               LedgerQueryCache ledgerQueryCache) {
         this.incomeRecordRepository = incomeRecordRepository;
         this.userService = userService;
+        this.monthlySummaryService = monthlySummaryService;
+        this.ledgerCacheService = ledgerCacheService;
+        this.ledgerVersionService = ledgerVersionService;
+        this.ledgerQueryCache = ledgerQueryCache;
     }
 
     @Transactional(readOnly = true)
-    public IncomeRecordsContainer findAll(String filterMode) {
-        List<IncomeRecord> incomeRecords = incomeRecordRepository
-                .findAllByUserIdOrderByDateDesc(userService.getCurrentUserId());
-        double total = incomeRecords.stream()
-                .mapToDouble(IncomeRecord::getAmount)
-                .sum();
-        double averageTotal = (double) Math.round( total / 12 * 100) / 100;
-        double monthTotal = incomeRecordRepository
-                .findAllByYearAndMonthAndUser(LocalDate.now().getYear(),
-                        LocalDate.now().getMonthValue(), userService.getCurrentUser()).stream()
-                .mapToDouble(IncomeRecord::getAmount)
-                .sum();
-        if(filterMode == null || filterMode.isEmpty() || filterMode.equals("All categories")) {
-            return IncomeRecordsContainer.builder()
-                    .records(incomeRecords)
-                    .total(total)
-                    .averageTotal(averageTotal)
-                    .monthTotal(monthTotal)
-                    .build();
-        }
-        List<String> allModes = Arrays.stream(IncomeCategory.values())
-                .map(Enum::name)
-                .toList();
-        if(allModes.contains(filterMode)) {
-            List<IncomeRecord> filteredIncomeRecords =  incomeRecords.stream()
-                    .filter(record -> record.getCategory() == IncomeCategory.valueOf(filterMode))
-                    .toList();
-            double filteredTotal = filteredIncomeRecords.stream()
-                    .mapToDouble(IncomeRecord::getAmount)
-                    .sum();
-            double filteredAverageTotal = (double) Math.round( filteredTotal / 12 * 100) / 100;
-            return IncomeRecordsContainer.builder()
-                    .records(filteredIncomeRecords)
-                    .total(total)
-                    .filteredTotal(filteredTotal)
-                    .averageTotal(filteredAverageTotal)
-                    .monthTotal(monthTotal)
-                    .build();
-        }else{
-            return IncomeRecordsContainer.builder()
-                    .records(incomeRecords)
-                    .total(total)
-                    .averageTotal(averageTotal)
-                    .monthTotal(monthTotal)
+    public IncomeRecordsContainer findAll(RecordFilter<IncomeCategory> filter, RecordCursor cursor) {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_ALL, filter, cursor, () -> findAll(userId, filter, cursor));
+    }
+
+    @Transactional(readOnly = true)
+    public IncomeRecordsContainer findSummary() {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_SUMMARY, null, null, () -> summarize(userId, RecordFilter.all())
+                .records(List.of())
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public RecordsPage findPage(RecordFilter<IncomeCategory> filter, RecordCursor cursor) {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_PAGE, filter, cursor, () -> findPage(userId, filter, cursor));
+    }
+
+    private IncomeRecordsContainer findAll(int userId, RecordFilter<IncomeCategory> filter, RecordCursor cursor) {
+        IncomeRecordsContainer.Builder summary = summarize(userId, filter);
+        if(filter.isCategoryOnly()){
+            Window<IncomeRecordView> page = filter.isUnfiltered()
+                    ? findWindow(userId, cursor)
+                    : scrollFiltered(userId, filter, cursor);
+            return summary
+                    .records(page.getContent())
+                    .nextCursor(nextCursorOf(page))
                     .build();
         }
+        FilteredRecords<IncomeRecordView> filtered = findFiltered(userId, filter, cursor);
+        return summary
+                .filteredTotal(filtered.total())
+                .filteredAverageTotal(averageOf(filtered.total()))
+                .filteredCount(filtered.count())
+                .records(filtered.window().getContent())
+                .nextCursor(nextCursorOf(filtered.window()))
+                .build();
+    }
+
+    private RecordsPage findPage(int userId, RecordFilter<IncomeCategory> filter, RecordCursor cursor) {
+        Window<IncomeRecordView> page = filter.isUnfiltered()
+                ? findWindow(userId, cursor)
+                : scrollFiltered(userId, filter, cursor);
+        RecordCursor nextCursor = nextCursorOf(page);
+        return new RecordsPage(
+                page.getContent().stream().map(RecordDto::of).toList(),
+                nextCursor == null ? null : nextCursor.encode());
     }
 
     public IncomeRecord findRecord(int id){
-        return incomeRecordRepository.findById(id)
+        return incomeRecordRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .orElseThrow(() -> new EntityNotFoundException("Income record not found with id: " + id));
     }
 
-    public void saveRecord(IncomeCategory category,
-                           double amount,
-                           LocalDate date,
-                           String description) {
-        incomeRecordRepository.save(new IncomeRecord(category, amount, date, description, userService.getCurrentUser()));
+    public IncomeRecord saveRecord(IncomeCategory category,
+                                   long amount,
+                                   LocalDate date,
+                                   String description) {
+        User user = userService.getCurrentUser();
+        IncomeRecord record = new IncomeRecord(category, amount, date, description, user);
+        incomeRecordRepository.save(record);
+        monthlySummaryService.add(user.getId(), RecordKind.INCOME, category, date, amount);
+        ledgerCacheService.put(user.getId(), RecordKind.INCOME, record);
+        ledgerVersionService.bump(user.getId());
+        return record;
     }
 
     public void updateRecord(int id,
                              IncomeCategory category,
-                             double amount,
+                             long amount,
                              LocalDate date,
                              String description){
-        IncomeRecord record = findRecord(id);
+        int userId = userService.getCurrentUserId();
+        IncomeRecordView record = incomeRecordRepository.findViewByIdAndUserId(id, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Income record not found with id: " + id));
+        // the rollup and caches may only follow a row that really changed
+        if(incomeRecordRepository.updateOwned(id, userId, category, amount, date, description) != 1){
+            throw new EntityNotFoundException("Income record not found with id: " + id);
+        }
+        monthlySummaryService.move(userId, RecordKind.INCOME,
+                record.getCategory(), record.getDate(), record.getAmount(),
+                category, date, amount);
+        ledgerCacheService.put(userId, RecordKind.INCOME,
+                new IncomeRecordView(id, category, amount, date, description));
+        ledgerVersionService.bump(userId);
+    }
 
-        record.setCategory(category);
-        record.setAmount(amount);
-        record.setDate(date);
-        record.setDescription(description);
+    public boolean deleteRecord(int id) {
+        int userId = userService.getCurrentUserId();
+        Optional<IncomeRecordView> found = incomeRecordRepository.findViewByIdAndUserId(id, userId);
+        if(found.isEmpty()){
+            return false;
+        }
+        IncomeRecordView record = found.get();
+        if(incomeRecordRepository.deleteOwned(id, userId) != 1){
+            return false;
+        }
+        monthlySummaryService.remove(userId, RecordKind.INCOME,
+                record.getCategory(), record.getDate(), record.getAmount());
+        ledgerCacheService.remove(userId, RecordKind.INCOME, id);
+        ledgerVersionService.bump(userId);
+        return true;
+    }
 
-        incomeRecordRepository.save(record);
+    private IncomeRecordsContainer.Builder summarize(int userId, RecordFilter<IncomeCategory> filter) {
+        List<CategorySummary> categorySummaries = ledgerCacheService.isCached(userId, RecordKind.INCOME)
+                ? ledgerCacheService.summarize(userId, RecordKind.INCOME, YearMonth.now())
+                : monthlySummaryService.findByCategory(userId, RecordKind.INCOME, YearMonth.now());
+        long total = 0;
+        long monthTotal = 0;
+        long count = 0;
+        long selectedTotal = 0;
+        long selectedCount = 0;
+        for(CategorySummary categorySummary : categorySummaries){
+            total += categorySummary.total();
+            monthTotal += categorySummary.monthTotal();
+            count += categorySummary.count();
+            if(filter.categories().contains(IncomeCategory.valueOf(categorySummary.category()))){
+                selectedTotal += categorySummary.total();
+                selectedCount += categorySummary.count();
+            }
+        }
+        IncomeRecordsContainer.Builder summary = IncomeRecordsContainer.builder()
+                .total(total)
+                .averageTotal(averageOf(total))
+                .monthTotal(monthTotal)
+                .count(count);
+        if(filter.isCategoryOnly() && !filter.isUnfiltered()){
+            summary.filteredTotal(selectedTotal)
+                    .filteredAverageTotal(averageOf(selectedTotal))
+                    .filteredCount(selectedCount);
+        }
+        return summary;
+    }
+
+    private Window<IncomeRecordView> findWindow(int userId, RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.INCOME)){
+            return ledgerCacheService.findIncome(userId, cursor, PAGE_SIZE);
+        }
+        return incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userId, RecordCursor.toScrollPosition(cursor), PAGE_LIMIT);
+    }
+
+    private FilteredRecords<IncomeRecordView> findFiltered(int userId,
+                                                           RecordFilter<IncomeCategory> filter,
+                                                           RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.INCOME)){
+            return ledgerCacheService.filterIncome(userId, filter, cursor, PAGE_SIZE);
+        }
+        return incomeRecordRepository.findFiltered(userId, filter, cursor, PAGE_SIZE);
+    }
+
+    private Window<IncomeRecordView> scrollFiltered(int userId,
+                                                    RecordFilter<IncomeCategory> filter,
+                                                    RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.INCOME)){
+            return ledgerCacheService.filterIncome(userId, filter, cursor, PAGE_SIZE).window();
+        }
+        return incomeRecordRepository.scrollFiltered(userId, filter, cursor, PAGE_SIZE);
+    }
+
+    private static RecordCursor nextCursorOf(Window<IncomeRecordView> page) {
+        return page.hasNext() ? RecordCursor.of(page.getContent().getLast()) : null;
     }
 
-    public void deleteRecord(int id) {
-        incomeRecordRepository.deleteById(id);
+    private static long averageOf(long total) {
+        return Money.divide(total, 12);
     }
 }
@@ -0,0 +1,160 @@
+package org.gouenji.financeapp.service.records;
+
+import io.micrometer.core.annotation.Timed;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.gouenji.financeapp.repository.LedgerEntryRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+@Service
+@Transactional
+@Timed("records.service")
+public class LedgerBulkService {
+    public static final int MAX_IDS = 1000;
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final IncomeRecordRepository incomeRecordRepository;
+    private final ExpenseRecordRepository expenseRecordRepository;
+    private final MonthlySummaryService monthlySummaryService;
+    private final LedgerCacheService ledgerCacheService;
+    private final LedgerVersionService ledgerVersionService;
+    private final UserService userService;
+
+    @Autowired
+    public LedgerBulkService(LedgerEntryRepository ledgerEntryRepository,
+                             IncomeRecordRepository incomeRecordRepository,
+                             ExpenseRecordRepository expenseRecordRepository,
+                             MonthlySummaryService monthlySummaryService,
+                             LedgerCacheService ledgerCacheService,
+                             LedgerVersionService ledgerVersionService,
+                             UserService userService) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.incomeRecordRepository = incomeRecordRepository;
+        this.expenseRecordRepository = expenseRecordRepository;
+        this.monthlySummaryService = monthlySummaryService;
+        this.ledgerCacheService = ledgerCacheService;
+        this.ledgerVersionService = ledgerVersionService;
+        this.userService = userService;
+    }
+
+    // kind == null selects records of both kinds
+    public int delete(RecordKind kind, Collection<Integer> ids) {
+        return change(kind, ids,
+                (userId, locked) -> ledgerEntryRepository.deleteOwned(userId, idsOf(locked)),
+                (entry, summary) -> summary.remove(entry));
+    }
+
+    public int recategorize(Collection<Integer> ids, IncomeCategory category) {
+        return change(RecordKind.INCOME, ids,
+                (userId, locked) -> incomeRecordRepository.updateCategoryOwned(userId, idsOf(locked), category),
+                (entry, summary) -> summary.move(entry, category, entry.getDate()));
+    }
+
+    public int recategorize(Collection<Integer> ids, ExpenseCategory category) {
+        return change(RecordKind.EXPENSE, ids,
+                (userId, locked) -> expenseRecordRepository.updateCategoryOwned(userId, idsOf(locked), category),
+                (entry, summary) -> summary.move(entry, category, entry.getDate()));
+    }
+
+    public int shiftDates(RecordKind kind, Collection<Integer> ids, int days) {
+        if(days == 0){
+            return 0;
+        }
+        return change(kind, ids,
+                (userId, locked) -> ledgerEntryRepository.shiftDatesOwned(userId, idsOf(locked), days),
+                (entry, summary) -> summary.move(entry, entry.getCategory(), entry.getDate().plusDays(days)));
+    }
+
+    // One locking read of the owned rows, one set-based statement over them, then the monthly summary is
+    // adjusted once per category and month instead of once per record.
+    private int change(RecordKind kind,
+                       Collection<Integer> ids,
+                       Statement statement,
+                       BiConsumer<LedgerEntryView, SummaryDelta> summaryChange) {
+        Set<Integer> distinctIds = ids == null ? Set.of() : new LinkedHashSet<>(ids);
+        if(distinctIds.isEmpty()){
+            return 0;
+        }
+        if(distinctIds.size() > MAX_IDS){
+            throw new IllegalArgumentException("Cannot change more than " + MAX_IDS + " records at once");
+        }
+        int userId = userService.getCurrentUserId();
+        List<LedgerEntryView> locked = ledgerEntryRepository.lockOwned(userId, distinctIds).stream()
+                .filter(entry -> kind == null || entry.getKind() == kind)
+                .toList();
+        if(locked.isEmpty()){
+            return 0;
+        }
+        int changed = statement.execute(userId, locked);
+        SummaryDelta summary = new SummaryDelta();
+        locked.forEach(entry -> summaryChange.accept(entry, summary));
+        summary.applyTo(userId, monthlySummaryService);
+        for(RecordKind changedKind : summary.kinds()){
+            ledgerCacheService.invalidate(userId, changedKind);
+        }
+        ledgerVersionService.bump(userId);
+        return changed;
+    }
+
+    private static List<Integer> idsOf(List<LedgerEntryView> entries) {
+        return entries.stream().map(LedgerEntryView::getId).toList();
+    }
+
+    private interface Statement {
+        int execute(int userId, List<LedgerEntryView> locked);
+    }
+
+    private static final class SummaryDelta {
+        private final Map<SummaryKey, long[]> totals = new HashMap<>();
+        private final Set<RecordKind> kinds = EnumSet.noneOf(RecordKind.class);
+
+        void remove(LedgerEntryView entry) {
+            add(entry.getKind(), entry.getCategory(), entry.getDate(), -entry.getAmount(), -1);
+        }
+
+        void move(LedgerEntryView entry, Enum<?> category, LocalDate date) {
+            remove(entry);
+            add(entry.getKind(), category, date, entry.getAmount(), 1);
+        }
+
+        Set<RecordKind> kinds() {
+            return kinds;
+        }
+
+        void applyTo(int userId, MonthlySummaryService monthlySummaryService) {
+            totals.forEach((key, total) -> {
+                if(total[0] != 0 || total[1] != 0){
+                    monthlySummaryService.addAll(userId, key.kind(), key.category(), key.month(), total[0], total[1]);
+                }
+            });
+        }
+
+        private void add(RecordKind kind, Enum<?> category, LocalDate date, long amount, long count) {
+            long[] total = totals.computeIfAbsent(new SummaryKey(kind, category, date.withDayOfMonth(1)),
+                    key -> new long[2]);
+            total[0] += amount;
+            total[1] += count;
+            kinds.add(kind);
+        }
+    }
+
+    private record SummaryKey(RecordKind kind, Enum<?> category, LocalDate month) {
+    }
+}
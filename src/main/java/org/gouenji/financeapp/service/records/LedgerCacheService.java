@@ -0,0 +1,204 @@
+package org.gouenji.financeapp.service.records;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.records.Record;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.gouenji.financeapp.util.AsyncCaches;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Predicate;
+
+@Service
+public class LedgerCacheService {
+    private static final int MAX_OVERSIZED_LEDGERS = 10_000;
+    private static final IncomeCategory[] INCOME_CATEGORIES = IncomeCategory.values();
+    private static final ExpenseCategory[] EXPENSE_CATEGORIES = ExpenseCategory.values();
+
+    private final IncomeRecordRepository incomeRecordRepository;
+    private final ExpenseRecordRepository expenseRecordRepository;
+    private final AsyncCache<LedgerKey, RecordColumns> ledgers;
+    // Ledgers found over maxUserRecords: they are answered from SQL and monthly_summary and not loaded again
+    // until the mark expires
+    private final Cache<LedgerKey, Boolean> oversized;
+    private final int maxUserRecords;
+
+    // The cache is local to this instance and only writes made here update it, so it is off by default and
+    // must stay off when several instances share the database
+    @Autowired
+    public LedgerCacheService(IncomeRecordRepository incomeRecordRepository,
+                              ExpenseRecordRepository expenseRecordRepository,
+                              @Value("${ledger.cache.max-records:0}") long maxRecords,
+                              @Value("${ledger.cache.max-user-records:50000}") int maxUserRecords,
+                              @Value("${ledger.cache.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.incomeRecordRepository = incomeRecordRepository;
+        this.expenseRecordRepository = expenseRecordRepository;
+        // a single ledger heavier than the whole cache would be evicted as soon as it loads
+        this.maxUserRecords = (int) Math.min(maxUserRecords, maxRecords);
+        this.ledgers = maxRecords <= 0 || maxUserRecords <= 0 ? null : Caffeine.newBuilder()
+                .maximumWeight(maxRecords)
+                .weigher((LedgerKey key, RecordColumns columns) -> Math.max(1, columns.size()))
+                .expireAfterAccess(idleTimeout)
+                .buildAsync();
+        this.oversized = Caffeine.newBuilder()
+                .maximumSize(MAX_OVERSIZED_LEDGERS)
+                .expireAfterWrite(idleTimeout)
+                .build();
+    }
+
+    // Whether reads of this ledger are served from the cache; loads it on the first call. False when the cache
+    // is off or the ledger has more than max-user-records rows, and the caller then falls back to SQL.
+    public boolean isCached(int userId, RecordKind kind) {
+        if(ledgers == null){
+            return false;
+        }
+        LedgerKey key = new LedgerKey(userId, kind);
+        return oversized.getIfPresent(key) == null && AsyncCaches.get(ledgers, key, this::load) != null;
+    }
+
+    public List<CategorySummary> summarize(int userId, RecordKind kind, YearMonth month) {
+        return columns(userId, kind).summarize(month);
+    }
+
+    public Window<IncomeRecordView> findIncome(int userId, RecordCursor cursor, int limit) {
+        return columns(userId, RecordKind.INCOME).window(cursor, limit, LedgerCacheService::incomeView);
+    }
+
+    public Window<ExpenseRecordView> findExpense(int userId, RecordCursor cursor, int limit) {
+        return columns(userId, RecordKind.EXPENSE).window(cursor, limit, LedgerCacheService::expenseView);
+    }
+
+    public FilteredRecords<IncomeRecordView> filterIncome(int userId,
+                                                          RecordFilter<IncomeCategory> filter,
+                                                          RecordCursor cursor,
+                                                          int limit) {
+        return columns(userId, RecordKind.INCOME).filter(filter, cursor, limit, LedgerCacheService::incomeView);
+    }
+
+    public FilteredRecords<ExpenseRecordView> filterExpense(int userId,
+                                                            RecordFilter<ExpenseCategory> filter,
+                                                            RecordCursor cursor,
+                                                            int limit) {
+        return columns(userId, RecordKind.EXPENSE).filter(filter, cursor, limit, LedgerCacheService::expenseView);
+    }
+
+    public void put(int userId, RecordKind kind, Record record) {
+        if(ledgers == null){
+            return;
+        }
+        int id = record.getId();
+        Enum<?> category = record.getCategory();
+        long amount = record.getAmount();
+        LocalDate date = record.getDate();
+        String description = record.getDescription();
+        LedgerKey key = new LedgerKey(userId, kind);
+        afterCommit(key, columns -> {
+            columns.put(id, category, amount, date, description);
+            if(columns.size() > maxUserRecords){
+                oversized.put(key, Boolean.TRUE);
+                return false;
+            }
+            return true;
+        });
+    }
+
+    public void remove(int userId, RecordKind kind, int id) {
+        if(ledgers == null){
+            return;
+        }
+        afterCommit(new LedgerKey(userId, kind), columns -> {
+            columns.remove(id);
+            return true;
+        });
+    }
+
+    public void invalidate(int userId, RecordKind kind) {
+        if(ledgers == null){
+            return;
+        }
+        LedgerKey key = new LedgerKey(userId, kind);
+        runAfterCommit(() -> ledgers.synchronous().invalidate(key));
+    }
+
+    // Callers check isCached first; if the ledger has since been evicted and grew over the cap on reload, this
+    // one read is answered from the full history without caching it
+    private RecordColumns columns(int userId, RecordKind kind) {
+        LedgerKey key = new LedgerKey(userId, kind);
+        RecordColumns columns = AsyncCaches.get(ledgers, key, this::load);
+        return columns != null ? columns : columnsOf(key, Limit.unlimited());
+    }
+
+    // Reads at most one row over the cap, so an oversized ledger costs one bounded query per idle timeout
+    private RecordColumns load(LedgerKey key) {
+        RecordColumns columns = columnsOf(key, Limit.of(maxUserRecords + 1));
+        if(columns.size() > maxUserRecords){
+            oversized.put(key, Boolean.TRUE);
+            return null;
+        }
+        return columns;
+    }
+
+    private RecordColumns columnsOf(LedgerKey key, Limit limit) {
+        return switch(key.kind()){
+            case INCOME -> RecordColumns.of(
+                    incomeRecordRepository.findAllByUserIdOrderByDateDescIdDesc(key.userId(), limit),
+                    INCOME_CATEGORIES);
+            case EXPENSE -> RecordColumns.of(
+                    expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(key.userId(), limit),
+                    EXPENSE_CATEGORIES);
+        };
+    }
+
+    private static IncomeRecordView incomeView(int id, int category, long amount, LocalDate date, String description) {
+        return new IncomeRecordView(id, INCOME_CATEGORIES[category], amount, date, description);
+    }
+
+    private static ExpenseRecordView expenseView(int id, int category, long amount, LocalDate date, String description) {
+        return new ExpenseRecordView(id, EXPENSE_CATEGORIES[category], amount, date, description);
+    }
+
+    // A change is chained onto the (possibly still loading) ledger future, so changes apply in commit order
+    // once the load finishes; put/remove are idempotent, so a change the load already saw is not applied twice.
+    // A change returning false drops the ledger: Caffeine removes an entry whose future completes with null.
+    private void afterCommit(LedgerKey key, Predicate<RecordColumns> change) {
+        runAfterCommit(() -> ledgers.asMap().computeIfPresent(key, (ledgerKey, columns) ->
+                columns.thenApply(loaded -> loaded != null && change.test(loaded) ? loaded : null)));
+    }
+
+    private static void runAfterCommit(Runnable apply) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        }else{
+            apply.run();
+        }
+    }
+
+    private record LedgerKey(int userId, RecordKind kind) {
+    }
+}
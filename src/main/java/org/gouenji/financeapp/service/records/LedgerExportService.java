@@ -0,0 +1,94 @@
+package org.gouenji.financeapp.service.records;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.gouenji.financeapp.dto.records.ExportFormat;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.entity.records.Record;
+import org.gouenji.financeapp.repository.LedgerEntryRepository;
+import org.gouenji.financeapp.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class LedgerExportService {
+    private static final String CSV_HEADER = "date,type,category,amount,description";
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter recordWriter;
+
+    @Autowired
+    public LedgerExportService(LedgerEntryRepository ledgerEntryRepository,
+                               ObjectMapper objectMapper) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.objectMapper = objectMapper;
+        this.recordWriter = objectMapper.writerFor(RecordDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(int userId, ExportFormat format, OutputStream out) throws IOException {
+        try(Stream<LedgerEntryView> entries = ledgerEntryRepository.streamByUserIdOrderByDateDescIdDesc(userId)){
+            Iterator<? extends Record> records = entries.iterator();
+            switch(format){
+                case CSV -> writeCsv(records, out);
+                case JSON -> writeJson(records, out);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<? extends Record> records, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while(records.hasNext()){
+            Record record = records.next();
+            writer.write(record.getDate().toString());
+            writer.write(',');
+            writer.write(record.getType());
+            writer.write(',');
+            writer.write(record.getCategory().name());
+            writer.write(',');
+            writer.write(Money.toMajor(record.getAmount()).toPlainString());
+            writer.write(',');
+            writer.write(csvField(record.getDescription()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Iterator<? extends Record> records, OutputStream out) throws IOException {
+        try(JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)){
+            generator.writeStartArray();
+            while(records.hasNext()){
+                recordWriter.writeValue(generator, RecordDto.of(records.next()));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static String csvField(String value) {
+        if(value == null || value.isEmpty()){
+            return "";
+        }
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0){
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,176 @@
+package org.gouenji.financeapp.service.records;
+
+import io.micrometer.core.annotation.Timed;
+import org.gouenji.financeapp.dto.records.ImportReport;
+import org.gouenji.financeapp.dto.records.ImportedRecord;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.repository.RecordBatchWriter;
+import org.gouenji.financeapp.util.CsvReader;
+import org.gouenji.financeapp.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@Timed("records.service")
+public class LedgerImportService {
+    public static final int BATCH_SIZE = 1000;
+    public static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+
+    private final RecordBatchWriter recordBatchWriter;
+    private final MonthlySummaryService monthlySummaryService;
+    private final LedgerCacheService ledgerCacheService;
+    private final LedgerVersionService ledgerVersionService;
+
+    @Autowired
+    public LedgerImportService(RecordBatchWriter recordBatchWriter,
+                               MonthlySummaryService monthlySummaryService,
+                               LedgerCacheService ledgerCacheService,
+                               LedgerVersionService ledgerVersionService) {
+        this.recordBatchWriter = recordBatchWriter;
+        this.monthlySummaryService = monthlySummaryService;
+        this.ledgerCacheService = ledgerCacheService;
+        this.ledgerVersionService = ledgerVersionService;
+    }
+
+    @Transactional(rollbackFor = IOException.class)
+    public ImportReport importCsv(int userId, InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        Map<RecordKind, List<ImportedRecord>> batches = new EnumMap<>(RecordKind.class);
+        Map<SummaryKey, long[]> monthTotals = new HashMap<>();
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        long imported = 0;
+        long rejected = 0;
+        List<String> fields;
+        while((fields = reader.readRecord()) != null){
+            if(reader.getLine() == 1 && isHeader(fields)){
+                continue;
+            }
+            String error = reader.hasUnterminatedQuote() ? "Unterminated quoted field" : null;
+            RecordKind kind = null;
+            ImportedRecord record = null;
+            if(error == null){
+                try {
+                    kind = parseKind(fields);
+                    record = parseRecord(kind, fields);
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if(error != null){
+                rejected++;
+                if(errors.size() < MAX_REPORTED_ERRORS){
+                    errors.add(new ImportReport.RowError(reader.getLine(), error));
+                }
+                continue;
+            }
+            List<ImportedRecord> batch = batches.computeIfAbsent(kind, k -> new ArrayList<>(BATCH_SIZE));
+            batch.add(record);
+            if(batch.size() == BATCH_SIZE){
+                recordBatchWriter.insert(kind, userId, batch);
+                batches.put(kind, new ArrayList<>(BATCH_SIZE));
+            }
+            long[] total = monthTotals.computeIfAbsent(
+                    new SummaryKey(kind, record.category(), record.date().withDayOfMonth(1)), key -> new long[2]);
+            total[0] += record.amount();
+            total[1]++;
+            imported++;
+        }
+        batches.forEach((kind, batch) -> recordBatchWriter.insert(kind, userId, batch));
+        monthTotals.forEach((key, total) ->
+                monthlySummaryService.addAll(userId, key.kind(), key.category(), key.month(), total[0], total[1]));
+        for(RecordKind kind : batches.keySet()){
+            ledgerCacheService.invalidate(userId, kind);
+        }
+        if(imported > 0){
+            ledgerVersionService.bump(userId);
+        }
+        return new ImportReport(imported, rejected, List.copyOf(errors));
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields.getFirst().trim().equalsIgnoreCase("date");
+    }
+
+    private static RecordKind parseKind(List<String> fields) {
+        if(fields.size() < 4 || fields.size() > 5){
+            throw new IllegalArgumentException("Expected 4 or 5 columns but found " + fields.size());
+        }
+        String type = fields.get(1).trim().toUpperCase(Locale.ROOT);
+        for(RecordKind kind : RecordKind.values()){
+            if(kind.name().equals(type)){
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown type: " + fields.get(1));
+    }
+
+    private static ImportedRecord parseRecord(RecordKind kind, List<String> fields) {
+        LocalDate date = parseDate(fields.get(0).trim());
+        String categoryName = fields.get(2).trim().toUpperCase(Locale.ROOT);
+        Enum<?> category = switch(kind){
+            case INCOME -> RecordFilter.parseCategory(IncomeCategory.class, categoryName);
+            case EXPENSE -> RecordFilter.parseCategory(ExpenseCategory.class, categoryName);
+        };
+        if(category == null){
+            throw new IllegalArgumentException("Unknown " + kind.name().toLowerCase(Locale.ROOT)
+                    + " category: " + fields.get(2));
+        }
+        long amount = parseAmount(fields.get(3).trim());
+        String description = fields.size() == 5 ? fields.get(4).trim() : "";
+        if(description.length() > MAX_DESCRIPTION_LENGTH){
+            throw new IllegalArgumentException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        return new ImportedRecord(category, amount, date, description.isEmpty() ? null : description);
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static long parseAmount(String value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+        if(amount.signum() <= 0){
+            throw new IllegalArgumentException("Amount must be positive: " + value);
+        }
+        if(amount.stripTrailingZeros().scale() > Money.SCALE){
+            throw new IllegalArgumentException("Amount has more than " + Money.SCALE + " decimal places: " + value);
+        }
+        try {
+            return Money.ofMajor(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large: " + value);
+        }
+    }
+
+    private record SummaryKey(RecordKind kind, Enum<?> category, LocalDate month) {
+    }
+}
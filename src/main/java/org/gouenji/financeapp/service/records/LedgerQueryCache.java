@@ -0,0 +1,65 @@
+package org.gouenji.financeapp.service.records;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.util.AsyncCaches;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Results of read queries keyed by the user's ledger version: any write bumps the version, so a cached result
+// is never served after it and is simply left to age out.
+@Service
+public class LedgerQueryCache implements MeterBinder {
+
+    private final LedgerVersionService ledgerVersionService;
+    private final AsyncCache<QueryKey, Object> results;
+
+    @Autowired
+    public LedgerQueryCache(LedgerVersionService ledgerVersionService,
+                            @Value("${ledger.query-cache.max-entries:10000}") long maxEntries,
+                            @Value("${ledger.query-cache.ttl:PT5M}") Duration ttl) {
+        this.ledgerVersionService = ledgerVersionService;
+        this.results = maxEntries <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // query names the result type: every call site passes its own constant
+    @SuppressWarnings("unchecked")
+    public <T> T get(int userId, String query, Object filter, RecordCursor cursor, Supplier<T> loader) {
+        if(results == null){
+            return loader.get();
+        }
+        Long version = ledgerVersionService.currentVersion(userId);
+        if(version == null){
+            return loader.get();
+        }
+        return (T) AsyncCaches.get(results, new QueryKey(userId, version, query, filter, cursor), key -> loader.get());
+    }
+
+    // Hits, misses, evictions and size as cache.* meters tagged cache=ledger.query
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        if(results != null){
+            CaffeineCacheMetrics.monitor(meterRegistry, results, "ledger.query");
+        }
+    }
+
+    public CacheStats stats() {
+        return results == null ? CacheStats.empty() : results.synchronous().stats();
+    }
+
+    private record QueryKey(int userId, long version, String query, Object filter, RecordCursor cursor) {
+    }
+}
@@ -0,0 +1,101 @@
+package org.gouenji.financeapp.service.records;
+
+import io.micrometer.core.annotation.Timed;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordsPage;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.records.Record;
+import org.gouenji.financeapp.repository.LedgerEntryRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+@Timed("records.service")
+public class LedgerService {
+    public static final int PAGE_SIZE = 20;
+    private static final Limit PAGE_LIMIT = Limit.of(PAGE_SIZE);
+    private static final String FIND_RECENT = "ledger.findRecent";
+    private static final Comparator<Record> NEWEST_FIRST = Comparator.comparing(Record::getDate)
+            .thenComparing(Record::getId)
+            .reversed();
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final UserService userService;
+    private final LedgerCacheService ledgerCacheService;
+    private final LedgerQueryCache ledgerQueryCache;
+
+    @Autowired
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         UserService userService,
+                         LedgerCacheService ledgerCacheService,
+                         LedgerQueryCache ledgerQueryCache) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.userService = userService;
+        this.ledgerCacheService = ledgerCacheService;
+        this.ledgerQueryCache = ledgerQueryCache;
+    }
+
+    public LedgerPage findRecent(RecordCursor cursor) {
+        int userId = userService.getCurrentUserId();
+        return ledgerQueryCache.get(userId, FIND_RECENT, null, cursor, () -> findRecent(userId, cursor));
+    }
+
+    public RecordsPage findPage(RecordCursor cursor) {
+        LedgerPage page = findRecent(cursor);
+        return new RecordsPage(
+                page.records().stream().map(RecordDto::of).toList(),
+                page.hasNextCursor() ? page.nextCursor().encode() : null);
+    }
+
+    private LedgerPage findRecent(int userId, RecordCursor cursor) {
+        if(ledgerCacheService.isCached(userId, RecordKind.INCOME)
+                && ledgerCacheService.isCached(userId, RecordKind.EXPENSE)){
+            return mergeCached(userId, cursor);
+        }
+        Window<LedgerEntryView> window = ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(
+                userId, RecordCursor.toScrollPosition(cursor), PAGE_LIMIT);
+        List<Record> records = List.copyOf(window.getContent());
+        return new LedgerPage(records, window.hasNext() ? RecordCursor.of(records.getLast()) : null);
+    }
+
+    // Record ids come from one sequence shared by both kinds, so the position of the last shown
+    // record is a valid cursor into the cached income and expense ledgers alike.
+    private LedgerPage mergeCached(int userId, RecordCursor cursor) {
+        Window<IncomeRecordView> incomeWindow = ledgerCacheService.findIncome(userId, cursor, PAGE_SIZE);
+        Window<ExpenseRecordView> expenseWindow = ledgerCacheService.findExpense(userId, cursor, PAGE_SIZE);
+        List<IncomeRecordView> incomeRecords = incomeWindow.getContent();
+        List<ExpenseRecordView> expenseRecords = expenseWindow.getContent();
+
+        List<Record> records = new ArrayList<>(PAGE_SIZE);
+        int incomeIndex = 0;
+        int expenseIndex = 0;
+        while(records.size() < PAGE_SIZE
+                && (incomeIndex < incomeRecords.size() || expenseIndex < expenseRecords.size())){
+            if(expenseIndex == expenseRecords.size()
+                    || (incomeIndex < incomeRecords.size()
+                        && NEWEST_FIRST.compare(incomeRecords.get(incomeIndex), expenseRecords.get(expenseIndex)) <= 0)){
+                records.add(incomeRecords.get(incomeIndex++));
+            }else{
+                records.add(expenseRecords.get(expenseIndex++));
+            }
+        }
+
+        boolean hasNext = incomeIndex < incomeRecords.size() || incomeWindow.hasNext()
+                || expenseIndex < expenseRecords.size() || expenseWindow.hasNext();
+        return new LedgerPage(records, hasNext ? RecordCursor.of(records.getLast()) : null);
+    }
+}
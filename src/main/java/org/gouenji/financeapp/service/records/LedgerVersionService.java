@@ -0,0 +1,103 @@
+package org.gouenji.financeapp.service.records;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.gouenji.financeapp.repository.UserRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.util.AsyncCaches;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class LedgerVersionService {
+    private static final int MAX_CACHED_USERS = 10_000;
+    private static final long UNKNOWN_USER_VERSION = -1;
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final AsyncCache<Integer, Long> versions;
+    // Users with a bumped version whose transaction has not completed yet, i.e. whose ledger cache may still
+    // lag behind the committed version.
+    private final Map<Integer, Integer> pendingWrites = new ConcurrentHashMap<>();
+    // Rendered pages also depend on the templates, so a redeploy must not revalidate a page of the old build
+    private final String build = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    // The cache is only cleared by writes on this instance, so it stays off (PT0S) unless a single instance runs:
+    // with several, a version cached here would keep serving results and 304s older than another instance's write.
+    @Autowired
+    public LedgerVersionService(UserRepository userRepository,
+                                UserService userService,
+                                @Value("${ledger.version-cache-ttl:PT0S}") Duration cacheTtl) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.versions = cacheTtl.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_USERS)
+                .expireAfterWrite(cacheTtl)
+                .buildAsync();
+    }
+
+    // Called by every write to the user's records, in the same transaction, so the version commits with them
+    @Transactional
+    public void bump(int userId) {
+        userRepository.incrementLedgerVersion(userId);
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            pendingWrites.merge(userId, 1, Integer::sum);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(userId);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    pendingWrites.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1);
+                }
+            });
+        }else{
+            forget(userId);
+        }
+    }
+
+    // Version of the user's ledger, or null when nothing read now may be cached under it. The version is read
+    // before the pending check: a version committed by a write that is still updating the ledger cache must
+    // not label a result built from the old cache.
+    public Long currentVersion(int userId) {
+        long version = versions == null
+                ? loadVersion(userId)
+                : AsyncCaches.get(versions, userId, this::loadVersion);
+        if(version == UNKNOWN_USER_VERSION || pendingWrites.containsKey(userId)){
+            return null;
+        }
+        return version;
+    }
+
+    // Entity tag of everything rendered from the current user's ledger, or null when it cannot be tagged now
+    public String currentETag() {
+        int userId = userService.getCurrentUserId();
+        Long version = currentVersion(userId);
+        if(version == null){
+            return null;
+        }
+        // month totals roll over with the calendar, not with a write
+        return userId + "-" + version + "-" + YearMonth.now() + "-" + build;
+    }
+
+    private long loadVersion(int userId) {
+        return userRepository.findLedgerVersionById(userId).orElse(UNKNOWN_USER_VERSION);
+    }
+
+    private void forget(int userId) {
+        if(versions != null){
+            versions.synchronous().invalidate(userId);
+        }
+    }
+}
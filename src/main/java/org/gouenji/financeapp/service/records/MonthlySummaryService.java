@@ -0,0 +1,96 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.MonthlyTotal;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.records.MonthlySummary;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.gouenji.financeapp.repository.MonthlySummaryRepository;
+import org.gouenji.financeapp.repository.MonthlySummaryWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional
+public class MonthlySummaryService {
+
+    private final MonthlySummaryRepository monthlySummaryRepository;
+    private final MonthlySummaryWriter monthlySummaryWriter;
+    private final IncomeRecordRepository incomeRecordRepository;
+    private final ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    public MonthlySummaryService(MonthlySummaryRepository monthlySummaryRepository,
+                                 MonthlySummaryWriter monthlySummaryWriter,
+                                 IncomeRecordRepository incomeRecordRepository,
+                                 ExpenseRecordRepository expenseRecordRepository) {
+        this.monthlySummaryRepository = monthlySummaryRepository;
+        this.monthlySummaryWriter = monthlySummaryWriter;
+        this.incomeRecordRepository = incomeRecordRepository;
+        this.expenseRecordRepository = expenseRecordRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySummary> findByCategory(int userId, RecordKind kind, YearMonth month) {
+        return monthlySummaryRepository.sumGroupedByCategory(userId, kind, month.atDay(1));
+    }
+
+    public void add(int userId, RecordKind kind, Enum<?> category, LocalDate date, long amount) {
+        apply(userId, kind, category, date, amount, 1);
+    }
+
+    public void addAll(int userId, RecordKind kind, Enum<?> category, LocalDate date, long amount, long count) {
+        apply(userId, kind, category, date, amount, count);
+    }
+
+    public void remove(int userId, RecordKind kind, Enum<?> category, LocalDate date, long amount) {
+        apply(userId, kind, category, date, -amount, -1);
+    }
+
+    public void move(int userId,
+                     RecordKind kind,
+                     Enum<?> oldCategory,
+                     LocalDate oldDate,
+                     long oldAmount,
+                     Enum<?> category,
+                     LocalDate date,
+                     long amount) {
+        if(oldCategory == category && YearMonth.from(oldDate).equals(YearMonth.from(date))){
+            if(oldAmount != amount){
+                apply(userId, kind, category, date, amount - oldAmount, 0);
+            }
+            return;
+        }
+        remove(userId, kind, oldCategory, oldDate, oldAmount);
+        add(userId, kind, category, date, amount);
+    }
+
+    public int rebuild() {
+        monthlySummaryRepository.deleteAllInBatch();
+        List<MonthlySummary> summaries = new ArrayList<>();
+        for(MonthlyTotal total : incomeRecordRepository.sumAmountGroupedByUserAndCategoryAndMonth()){
+            summaries.add(summaryOf(RecordKind.INCOME, total));
+        }
+        for(MonthlyTotal total : expenseRecordRepository.sumAmountGroupedByUserAndCategoryAndMonth()){
+            summaries.add(summaryOf(RecordKind.EXPENSE, total));
+        }
+        monthlySummaryRepository.saveAll(summaries);
+        return summaries.size();
+    }
+
+    private void apply(int userId, RecordKind kind, Enum<?> category, LocalDate date, long amount, long count) {
+        monthlySummaryWriter.add(userId, kind, category.name(), date.withDayOfMonth(1), amount, count);
+    }
+
+    private static MonthlySummary summaryOf(RecordKind kind, MonthlyTotal total) {
+        return new MonthlySummary(total.userId(), kind, total.category().name(),
+                LocalDate.of(total.year(), total.month(), 1), total.total(), total.count());
+    }
+}
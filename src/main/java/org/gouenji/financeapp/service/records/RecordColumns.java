@@ -0,0 +1,200 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.records.Record;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class RecordColumns {
+    private static final int MIN_CAPACITY = 16;
+
+    private final Enum<?>[] categoryValues;
+    private int[] ids;
+    private int[] days;
+    private long[] amounts;
+    private byte[] categories;
+    private String[] descriptions;
+    private int size;
+
+    private RecordColumns(Enum<?>[] categoryValues, int capacity) {
+        if(categoryValues.length > Byte.MAX_VALUE){
+            throw new IllegalArgumentException("Too many categories for a byte column: " + categoryValues.length);
+        }
+        this.categoryValues = categoryValues;
+        this.ids = new int[capacity];
+        this.days = new int[capacity];
+        this.amounts = new long[capacity];
+        this.categories = new byte[capacity];
+        this.descriptions = new String[capacity];
+    }
+
+    public static RecordColumns empty(Enum<?>[] categoryValues) {
+        return new RecordColumns(categoryValues, MIN_CAPACITY);
+    }
+
+    public static RecordColumns of(List<? extends Record> newestFirst, Enum<?>[] categoryValues) {
+        RecordColumns columns = new RecordColumns(categoryValues, Math.max(MIN_CAPACITY, newestFirst.size()));
+        for(Record record : newestFirst){
+            int index = columns.size++;
+            columns.ids[index] = record.getId();
+            columns.days[index] = (int) record.getDate().toEpochDay();
+            columns.amounts[index] = record.getAmount();
+            columns.categories[index] = (byte) record.getCategory().ordinal();
+            columns.descriptions[index] = record.getDescription();
+        }
+        return columns;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void put(int id, Enum<?> category, long amount, LocalDate date, String description) {
+        remove(id);
+        int day = (int) date.toEpochDay();
+        int index = firstOlderThan(day, id);
+        if(size == ids.length){
+            grow();
+        }
+        int tail = size - index;
+        System.arraycopy(ids, index, ids, index + 1, tail);
+        System.arraycopy(days, index, days, index + 1, tail);
+        System.arraycopy(amounts, index, amounts, index + 1, tail);
+        System.arraycopy(categories, index, categories, index + 1, tail);
+        System.arraycopy(descriptions, index, descriptions, index + 1, tail);
+        ids[index] = id;
+        days[index] = day;
+        amounts[index] = amount;
+        categories[index] = (byte) category.ordinal();
+        descriptions[index] = description;
+        size++;
+    }
+
+    public synchronized boolean remove(int id) {
+        for(int index = 0; index < size; index++){
+            if(ids[index] == id){
+                int tail = size - index - 1;
+                System.arraycopy(ids, index + 1, ids, index, tail);
+                System.arraycopy(days, index + 1, days, index, tail);
+                System.arraycopy(amounts, index + 1, amounts, index, tail);
+                System.arraycopy(categories, index + 1, categories, index, tail);
+                System.arraycopy(descriptions, index + 1, descriptions, index, tail);
+                descriptions[--size] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized List<CategorySummary> summarize(YearMonth month) {
+        int monthStart = (int) month.atDay(1).toEpochDay();
+        int monthEnd = (int) month.plusMonths(1).atDay(1).toEpochDay();
+        long[] totals = new long[categoryValues.length];
+        long[] counts = new long[categoryValues.length];
+        long[] monthTotals = new long[categoryValues.length];
+        for(int index = 0; index < size; index++){
+            int category = categories[index];
+            long amount = amounts[index];
+            totals[category] += amount;
+            counts[category]++;
+            if(days[index] >= monthStart && days[index] < monthEnd){
+                monthTotals[category] += amount;
+            }
+        }
+
+        List<CategorySummary> summaries = new ArrayList<>();
+        for(int category = 0; category < categoryValues.length; category++){
+            if(counts[category] > 0){
+                summaries.add(new CategorySummary(categoryValues[category].name(),
+                        totals[category], counts[category], monthTotals[category]));
+            }
+        }
+        return summaries;
+    }
+
+    public synchronized <V> Window<V> window(RecordCursor cursor, int limit, RowReader<V> reader) {
+        int index = cursor == null ? 0 : firstOlderThan((int) cursor.date().toEpochDay(), cursor.id());
+        int end = Math.min(size, index + limit);
+        List<V> rows = new ArrayList<>(end - index);
+        for(; index < end; index++){
+            rows.add(readRow(index, reader));
+        }
+        return Window.from(rows, ScrollPosition::offset, end < size);
+    }
+
+    public synchronized <V> FilteredRecords<V> filter(RecordFilter<?> filter,
+                                                      RecordCursor cursor,
+                                                      int limit,
+                                                      RowReader<V> reader) {
+        long categoryMask = filter.categoryMask();
+        long minAmount = filter.minAmount() == null ? Long.MIN_VALUE : filter.minAmount();
+        long maxAmount = filter.maxAmount() == null ? Long.MAX_VALUE : filter.maxAmount();
+        int start = filter.to() == null ? 0 : firstOlderThan((int) filter.to().toEpochDay(), Integer.MAX_VALUE);
+        int end = filter.from() == null ? size : firstOlderThan((int) filter.from().toEpochDay(), Integer.MIN_VALUE);
+        int pageStart = cursor == null ? start
+                : Math.max(start, firstOlderThan((int) cursor.date().toEpochDay(), cursor.id()));
+
+        List<V> rows = new ArrayList<>(limit);
+        boolean hasNext = false;
+        long total = 0;
+        long count = 0;
+        for(int index = start; index < end; index++){
+            long amount = amounts[index];
+            if((categoryMask >>> categories[index] & 1L) == 0 || amount < minAmount || amount > maxAmount){
+                continue;
+            }
+            total += amount;
+            count++;
+            if(index >= pageStart){
+                if(rows.size() < limit){
+                    rows.add(readRow(index, reader));
+                }else{
+                    hasNext = true;
+                }
+            }
+        }
+        return new FilteredRecords<>(Window.from(rows, ScrollPosition::offset, hasNext), total, count);
+    }
+
+    private <V> V readRow(int index, RowReader<V> reader) {
+        return reader.read(ids[index], categories[index], amounts[index],
+                LocalDate.ofEpochDay(days[index]), descriptions[index]);
+    }
+
+    private int firstOlderThan(int day, int id) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(days[middle] > day || (days[middle] == day && ids[middle] >= id)){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    @FunctionalInterface
+    public interface RowReader<V> {
+        V read(int id, int category, long amount, LocalDate date, String description);
+    }
+}
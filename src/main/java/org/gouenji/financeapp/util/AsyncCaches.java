@@ -0,0 +1,38 @@
+package org.gouenji.financeapp.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+public final class AsyncCaches {
+
+    private AsyncCaches() {
+    }
+
+    // Cache.get(key, loader) runs the loader inside ConcurrentHashMap.compute, i.e. inside a synchronized
+    // block, which pins a virtual thread to its carrier for the whole query. Here only an empty future is
+    // published under the lock; the caller that published it loads outside, and concurrent callers park on
+    // the future instead of the map bin.
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> cached = cache.get(key, (ignoredKey, executor) -> loading);
+        if(cached == loading){
+            try {
+                loading.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.gouenji.financeapp.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+public final class ConditionalRequests {
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalRequests() {
+    }
+
+    // Tags the response with etag and tells the browser to keep it but revalidate on every use; true means the
+    // browser's copy is current and a 304 has been prepared, so the handler must return without rendering.
+    // A null etag leaves the response untagged (and uncached, by Spring Security's default headers).
+    public static boolean isNotModified(ServletWebRequest request, String etag) {
+        if(etag == null){
+            return false;
+        }
+        if(request.getResponse() != null){
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,109 @@
+package org.gouenji.financeapp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader {
+    private static final int BYTE_ORDER_MARK = 0xFEFF;
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int lookahead = NONE;
+    private boolean started;
+    private long line = 1;
+    private long recordLine;
+    private boolean unterminatedQuote;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if(!started){
+            started = true;
+            if(c == BYTE_ORDER_MARK){
+                c = read();
+            }
+        }
+        while(c == '\n' || c == '\r'){
+            endLine(c);
+            c = read();
+        }
+        if(c == -1){
+            return null;
+        }
+        recordLine = line;
+        unterminatedQuote = false;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while(true){
+            if(quoted){
+                if(c == -1){
+                    unterminatedQuote = true;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if(c == '"'){
+                    c = read();
+                    if(c == '"'){
+                        field.append('"');
+                        c = read();
+                    }else{
+                        quoted = false;
+                    }
+                    continue;
+                }
+                if(c == '\n'){
+                    line++;
+                }
+                field.append((char) c);
+            }else if(c == -1 || c == '\n' || c == '\r'){
+                fields.add(field.toString());
+                if(c != -1){
+                    endLine(c);
+                }
+                return fields;
+            }else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+            }else if(c == '"' && field.isEmpty()){
+                quoted = true;
+            }else{
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    public long getLine() {
+        return recordLine;
+    }
+
+    public boolean hasUnterminatedQuote() {
+        return unterminatedQuote;
+    }
+
+    private int read() throws IOException {
+        if(lookahead != NONE){
+            int c = lookahead;
+            lookahead = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void endLine(int c) throws IOException {
+        line++;
+        if(c == '\r'){
+            int next = read();
+            if(next != '\n'){
+                lookahead = next;
+            }
+        }
+    }
+}
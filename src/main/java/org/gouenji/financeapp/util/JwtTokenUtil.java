@@ -1,8 +1,17 @@
 package org.gouenji.financeapp.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.dto.users.JwtClaims;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,19 +19,38 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtTokenUtil {
-    @Value("${jwt.secret}")
-    private String secret;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final Duration lifetime;
+    private final Cache<String, JwtClaims> verifiedTokens;
 
-    @Value("${jwt.lifetime}")
-    private Duration lifetime;
+    @Autowired
+    public JwtTokenUtil(@Value("${jwt.secret}") String secret,
+                        @Value("${jwt.lifetime}") Duration lifetime,
+                        @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.signInKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        this.lifetime = lifetime;
+        this.verifiedTokens = verifiedCacheSize > 0 ? Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .build() : null;
+    }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
@@ -30,6 +58,10 @@ public class JwtTokenUtil {
                 .map(GrantedAuthority::getAuthority)
                 .toList();
         claims.put("roles", rolesList);
+        if(userDetails instanceof AuthenticatedUser authenticatedUser){
+            claims.put("uid", authenticatedUser.getId());
+            claims.put("ver", authenticatedUser.getTokenVersion());
+        }
 
         Date issuedDate = new Date();
         Date expirationDate = new Date(issuedDate.getTime() + lifetime.toMillis());
@@ -39,48 +71,103 @@ public class JwtTokenUtil {
                 .subject(userDetails.getUsername())
                 .issuedAt(issuedDate)
                 .expiration(expirationDate)
-                .signWith(getSignInKey(), Jwts.SIG.HS256)
+                .signWith(signInKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSignInKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+    public Optional<JwtClaims> verify(String token) {
+        if(token == null || token.isBlank()){
+            return Optional.empty();
+        }
+        if(verifiedTokens == null){
+            return parse(token);
         }
+        String tokenHash = hash(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(tokenHash);
+        if(cached != null && !cached.isExpired(Instant.now())){
+            return Optional.of(cached);
+        }
+        Optional<JwtClaims> claims = parse(token);
+        claims.ifPresent(verified -> verifiedTokens.put(tokenHash, verified));
+        return claims;
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = getAllClaimsFromToken(token).getExpiration();
-        return expiration.before(new Date());
+    // Tells a token rejected by verify that was correctly signed but has run out from any other rejected one.
+    // Parses again, so only call it for tokens that failed verification.
+    public boolean isExpired(String token) {
+        if(token == null || token.isBlank()){
+            return false;
+        }
+        try {
+            parser.parseSignedClaims(token);
+            return false;
+        } catch (ExpiredJwtException e) {
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     public String getUsername(String token) {
-        return getAllClaimsFromToken(token).getSubject();
+        return verify(token).map(JwtClaims::subject).orElse(null);
     }
 
     public List<String> getRoles(String token) {
-        return  getAllClaimsFromToken(token).get("roles", List.class);
-    }
-
-    private SecretKey getSignInKey() {
-         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return verify(token).map(JwtClaims::roles).orElse(List.of());
     }
 
     public Duration getLifetime() {
         return lifetime;
     }
+
+    private Optional<JwtClaims> parse(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if(claims.getExpiration() == null){
+                return Optional.empty();
+            }
+            Integer tokenVersion = claims.get("ver", Integer.class);
+            List<?> roles = claims.get("roles", List.class);
+            return Optional.of(new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("uid", Integer.class),
+                    tokenVersion == null ? 0 : tokenVersion,
+                    roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                    claims.getExpiration().toInstant()
+            ));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
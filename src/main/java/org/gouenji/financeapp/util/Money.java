@@ -0,0 +1,23 @@
+package org.gouenji.financeapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long ofMajor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toMajor(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static long divide(long minorUnits, int divisor) {
+        return Math.floorDiv(minorUnits * 2 + divisor, divisor * 2L);
+    }
+}
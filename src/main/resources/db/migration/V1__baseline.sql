@@ -0,0 +1,35 @@
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(40) NOT NULL,
+    email VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    role VARCHAR(30) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS income_records (
+    id SERIAL PRIMARY KEY,
+    category VARCHAR(35) NOT NULL,
+    amount DOUBLE PRECISION NOT NULL,
+    date DATE NOT NULL,
+    description VARCHAR(100),
+    user_id INTEGER NOT NULL,
+
+    CONSTRAINT fk_income_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS expense_records (
+    id SERIAL PRIMARY KEY,
+    category VARCHAR(35) NOT NULL,
+    amount DOUBLE PRECISION NOT NULL,
+    date DATE NOT NULL,
+    description VARCHAR(100),
+    user_id INTEGER NOT NULL,
+
+    CONSTRAINT fk_expense_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
@@ -0,0 +1,11 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_income_records_user_date
+    ON income_records (user_id, date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_income_records_user_category_date
+    ON income_records (user_id, category, date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expense_records_user_date
+    ON expense_records (user_id, date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expense_records_user_category_date
+    ON expense_records (user_id, category, date, id);
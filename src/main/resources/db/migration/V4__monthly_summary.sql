@@ -0,0 +1,27 @@
+CREATE TABLE IF NOT EXISTS monthly_summary (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    kind VARCHAR(10) NOT NULL,
+    category VARCHAR(35) NOT NULL,
+    year_month DATE NOT NULL,
+    total DOUBLE PRECISION NOT NULL,
+    record_count BIGINT NOT NULL,
+
+    CONSTRAINT uq_monthly_summary_user_kind_category_month
+        UNIQUE (user_id, kind, category, year_month),
+
+    CONSTRAINT fk_monthly_summary_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
+
+INSERT INTO monthly_summary (user_id, kind, category, year_month, total, record_count)
+SELECT user_id, 'INCOME', category, date_trunc('month', date)::date, SUM(amount), COUNT(*)
+FROM income_records
+GROUP BY user_id, category, date_trunc('month', date);
+
+INSERT INTO monthly_summary (user_id, kind, category, year_month, total, record_count)
+SELECT user_id, 'EXPENSE', category, date_trunc('month', date)::date, SUM(amount), COUNT(*)
+FROM expense_records
+GROUP BY user_id, category, date_trunc('month', date);
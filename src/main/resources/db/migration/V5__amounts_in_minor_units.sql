@@ -0,0 +1,20 @@
+ALTER TABLE income_records
+    ALTER COLUMN amount TYPE BIGINT USING (ROUND(amount::NUMERIC, 2) * 100)::BIGINT;
+
+ALTER TABLE expense_records
+    ALTER COLUMN amount TYPE BIGINT USING (ROUND(amount::NUMERIC, 2) * 100)::BIGINT;
+
+DELETE FROM monthly_summary;
+
+ALTER TABLE monthly_summary
+    ALTER COLUMN total TYPE BIGINT;
+
+INSERT INTO monthly_summary (user_id, kind, category, year_month, total, record_count)
+SELECT user_id, 'INCOME', category, date_trunc('month', date)::date, SUM(amount), COUNT(*)
+FROM income_records
+GROUP BY user_id, category, date_trunc('month', date);
+
+INSERT INTO monthly_summary (user_id, kind, category, year_month, total, record_count)
+SELECT user_id, 'EXPENSE', category, date_trunc('month', date)::date, SUM(amount), COUNT(*)
+FROM expense_records
+GROUP BY user_id, category, date_trunc('month', date);
@@ -0,0 +1,35 @@
+CREATE TABLE IF NOT EXISTS ledger_entries (
+    id SERIAL PRIMARY KEY,
+    kind VARCHAR(10) NOT NULL,
+    category VARCHAR(35) NOT NULL,
+    amount BIGINT NOT NULL,
+    date DATE NOT NULL,
+    description VARCHAR(100),
+    user_id INTEGER NOT NULL,
+
+    CONSTRAINT fk_ledger_entries_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
+
+INSERT INTO ledger_entries (kind, category, amount, date, description, user_id)
+SELECT kind, category, amount, date, description, user_id
+FROM (
+    SELECT 'INCOME' AS kind, id, category, amount, date, description, user_id FROM income_records
+    UNION ALL
+    SELECT 'EXPENSE' AS kind, id, category, amount, date, description, user_id FROM expense_records
+) records
+ORDER BY date, kind, id;
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_user_date
+    ON ledger_entries (user_id, date, id);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_user_kind_date
+    ON ledger_entries (user_id, kind, date, id);
+
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_user_kind_category_date
+    ON ledger_entries (user_id, kind, category, date, id);
+
+DROP TABLE income_records;
+DROP TABLE expense_records;
@@ -0,0 +1,70 @@
+package org.gouenji.financeapp.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PermitGatedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private PermitGatedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new PermitGatedDataSource(target, 2, 50);
+    }
+
+    @Test
+    void getConnection_ShouldTimeOut_WhenAllPermitsAreHeld() throws Exception {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("50ms");
+
+        first.close();
+        assertThat(dataSource.getConnection()).isNotNull();
+        verify(target, times(3)).getConnection();
+    }
+
+    @Test
+    void close_ShouldReturnPermitOnlyOnce() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        Connection gated = dataSource.getConnection();
+
+        gated.close();
+        gated.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+        verify(connection, times(2)).close();
+        assertThat(gated).isEqualTo(gated).isNotEqualTo(connection);
+    }
+
+    @Test
+    void getConnection_ShouldReturnPermit_WhenPoolFails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("Pool is closed"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("Pool is closed");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,48 @@
+package org.gouenji.financeapp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TimedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder target;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new TimedPasswordEncoder(target, meterRegistry);
+    }
+
+    @Test
+    void matches_ShouldDelegateAndRecordDuration() {
+        when(target.matches("1234", "hash")).thenReturn(true, false);
+
+        assertThat(passwordEncoder.matches("1234", "hash")).isTrue();
+        assertThat(passwordEncoder.matches("1234", "hash")).isFalse();
+
+        assertThat(meterRegistry.get("auth.password").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.password").tag("operation", "encode").timer().count()).isZero();
+    }
+
+    @Test
+    void encode_ShouldDelegateAndRecordDuration() {
+        when(target.encode("1234")).thenReturn("hash");
+
+        assertThat(passwordEncoder.encode("1234")).isEqualTo("hash");
+
+        assertThat(meterRegistry.get("auth.password").tag("operation", "encode").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,186 @@
+package org.gouenji.financeapp.config.filter;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.dto.users.JwtClaims;
+import org.gouenji.financeapp.service.TokenVersionService;
+import org.gouenji.financeapp.util.JwtTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private JwtClaims claims;
+    private AuthenticatedUser loadedUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("jwt_token", TOKEN));
+        response = new MockHttpServletResponse();
+        claims = new JwtClaims("test@gmail.com", 1, 3, List.of("ROLE_USER"), Instant.now().plusSeconds(60));
+        loadedUser = new AuthenticatedUser(
+                1,
+                "test@gmail.com",
+                "1234",
+                3,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldBuildPrincipalFromClaims_WhenStateless() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.of(claims));
+
+        filter(true, false).doFilter(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).getId()).isEqualTo(1);
+        assertThat(authentication.getName()).isEqualTo("test@gmail.com");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService, tokenVersionService);
+        verify(filterChain).doFilter(request, response);
+        assertThat(authentications("valid")).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_ShouldLoadUser_WhenTokenHasNoUserIdClaim() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.of(
+                new JwtClaims("test@gmail.com", null, 0, List.of("ROLE_USER"), claims.expiresAt())));
+        when(userDetailsService.loadUserByUsername("test@gmail.com")).thenReturn(loadedUser);
+
+        filter(true, false).doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(loadedUser);
+        verify(userDetailsService).loadUserByUsername("test@gmail.com");
+    }
+
+    @Test
+    void doFilter_ShouldLoadUser_WhenStatelessModeIsDisabled() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.of(claims));
+        when(userDetailsService.loadUserByUsername("test@gmail.com")).thenReturn(loadedUser);
+
+        filter(false, false).doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(loadedUser);
+        verify(userDetailsService).loadUserByUsername("test@gmail.com");
+    }
+
+    @Test
+    void doFilter_ShouldAuthenticate_WhenTokenVersionIsCurrent() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.of(claims));
+        when(tokenVersionService.isCurrent(1, 3)).thenReturn(true);
+
+        filter(true, true).doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test@gmail.com");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_ShouldNotAuthenticate_WhenTokenIsRevoked() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.of(claims));
+        when(tokenVersionService.isCurrent(1, 3)).thenReturn(false);
+
+        filter(true, true).doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+        assertThat(authentications("revoked")).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_ShouldNotAuthenticate_WhenTokenIsInvalid() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.empty());
+
+        filter(true, true).doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(tokenVersionService, never()).isCurrent(anyInt(), anyInt());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertThat(authentications("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_ShouldCountExpiredToken() throws Exception {
+        when(jwtTokenUtil.verify(TOKEN)).thenReturn(Optional.empty());
+        when(jwtTokenUtil.isExpired(TOKEN)).thenReturn(true);
+
+        filter(true, false).doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(authentications("expired")).isEqualTo(1);
+        assertThat(authentications("invalid")).isZero();
+    }
+
+    @Test
+    void doFilter_ShouldNotCheckExpiry_WhenThereIsNoToken() throws Exception {
+        request.setCookies();
+
+        filter(true, false).doFilter(request, response, filterChain);
+
+        verify(jwtTokenUtil, never()).isExpired(any());
+        assertThat(authentications("none")).isEqualTo(1);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private long authentications(String outcome) {
+        Timer timer = meterRegistry.find("auth.jwt").tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private JwtAuthenticationFilter filter(boolean stateless, boolean revocationCheck) {
+        return new JwtAuthenticationFilter(jwtTokenUtil, userDetailsService, tokenVersionService, meterRegistry,
+                stateless, revocationCheck);
+    }
+}
@@ -0,0 +1,314 @@
+package org.gouenji.financeapp.controller.api;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordsPage;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.service.records.ExpenseRecordService;
+import org.gouenji.financeapp.service.records.IncomeRecordService;
+import org.gouenji.financeapp.service.records.LedgerService;
+import org.gouenji.financeapp.service.records.LedgerVersionService;
+import org.gouenji.financeapp.util.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class RecordsApiControllerTest {
+
+    @Mock
+    private IncomeRecordService incomeRecordService;
+
+    @Mock
+    private ExpenseRecordService expenseRecordService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    private MockMvc mockMvc;
+
+    private User userTest;
+    private RecordDto salary;
+    private RecordDto food;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new RecordsApiController(incomeRecordService, expenseRecordService,
+                        ledgerService, ledgerVersionService))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+        userTest = new User("Ivan", "test@gmail.com", "1234", UserRole.USER);
+        userTest.setId(1);
+        salary = new RecordDto(2, "INCOME", "SALARY", Money.toMajor(100000),
+                LocalDate.of(2025, 3, 1), "Зарплата");
+        food = new RecordDto(1, "EXPENSE", "FOOD", Money.toMajor(550),
+                LocalDate.of(2025, 2, 28), null);
+    }
+
+    @Test
+    void getSummary_ShouldReturnTotalsOfBothKindsAndBalance() throws Exception {
+        when(incomeRecordService.findSummary()).thenReturn(IncomeRecordsContainer.builder()
+                .records(List.of()).total(100000).monthTotal(100000L).averageTotal(50000L).count(2).build());
+        when(expenseRecordService.findSummary()).thenReturn(ExpenseRecordsContainer.builder()
+                .records(List.of()).total(2550).count(3).build());
+
+        mockMvc.perform(get("/api/v1/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.income.total").value(1000.00))
+                .andExpect(jsonPath("$.income.monthAverage").value(500.00))
+                .andExpect(jsonPath("$.income.count").value(2))
+                .andExpect(jsonPath("$.expense.total").value(25.50))
+                .andExpect(jsonPath("$.expense.monthTotal").value(0))
+                .andExpect(jsonPath("$.balance").value(974.50));
+    }
+
+    @Test
+    void getSummary_ShouldReturnNotModifiedWithoutReadingSummaries_WhenLedgerVersionIsUnchanged() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-5-2025-03-abc");
+
+        mockMvc.perform(get("/api/v1/summary").header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5-2025-03-abc\""));
+
+        verifyNoInteractions(incomeRecordService, expenseRecordService);
+    }
+
+    @Test
+    void getLedger_ShouldReturnAllFieldsAndNextCursor() throws Exception {
+        RecordCursor cursor = new RecordCursor(LocalDate.of(2025, 3, 5), 9);
+        when(ledgerService.findPage(cursor)).thenReturn(new RecordsPage(List.of(salary, food), "2025-02-28:1"));
+
+        mockMvc.perform(get("/api/v1/ledger").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0].id").value(2))
+                .andExpect(jsonPath("$.records[0].type").value("INCOME"))
+                .andExpect(jsonPath("$.records[0].category").value("SALARY"))
+                .andExpect(jsonPath("$.records[0].amount").value(1000.00))
+                .andExpect(jsonPath("$.records[0].date").value("2025-03-01"))
+                .andExpect(jsonPath("$.records[0].description").value("Зарплата"))
+                .andExpect(jsonPath("$.records[1].description").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("2025-02-28:1"));
+    }
+
+    @Test
+    void getLedger_ShouldWriteOnlySelectedFields() throws Exception {
+        when(ledgerService.findPage(null)).thenReturn(new RecordsPage(List.of(salary, food), null));
+
+        mockMvc.perform(get("/api/v1/ledger").param("fields", "date, amount,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0]", aMapWithSize(3)))
+                .andExpect(jsonPath("$.records[0].id").value(2))
+                .andExpect(jsonPath("$.records[0].amount").value(1000.00))
+                .andExpect(jsonPath("$.records[0].date").value("2025-03-01"))
+                .andExpect(jsonPath("$.records[0].category").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getLedger_ShouldReturnBadRequest_WhenFieldIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/v1/ledger").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Unknown record field: password, "
+                        + "expected any of [id, type, category, amount, date, description]"));
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    void getLedger_ShouldTagPageAndReturnNotModifiedForSameVersion() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-5-2025-03-abc", "1-5-2025-03-abc", "1-6-2025-03-abc");
+        when(ledgerService.findPage(null)).thenReturn(new RecordsPage(List.of(salary), null));
+
+        mockMvc.perform(get("/api/v1/ledger"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5-2025-03-abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        mockMvc.perform(get("/api/v1/ledger").header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/ledger").header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0].id").value(2));
+
+        verify(ledgerService, times(2)).findPage(null);
+    }
+
+    @Test
+    void getLedger_ShouldReturnBadRequest_WhenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/api/v1/ledger").param("cursor", "yesterday"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    void getIncomeRecords_ShouldApplyFilterAndCursor() throws Exception {
+        RecordFilter<IncomeCategory> filter = new RecordFilter<>(Set.of(IncomeCategory.SALARY),
+                LocalDate.of(2025, 3, 1), null, Money.ofMajor(new BigDecimal("10")), null);
+        when(incomeRecordService.findPage(filter, null)).thenReturn(new RecordsPage(List.of(salary), null));
+
+        mockMvc.perform(get("/api/v1/income")
+                        .param("category", "SALARY")
+                        .param("from", "2025-03-01")
+                        .param("minAmount", "10")
+                        .param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0]", aMapWithSize(1)))
+                .andExpect(jsonPath("$.records[0].id").value(2));
+    }
+
+    @Test
+    void getExpenseRecords_ShouldApplyFilter() throws Exception {
+        when(expenseRecordService.findPage(RecordFilter.of(ExpenseCategory.FOOD), null))
+                .thenReturn(new RecordsPage(List.of(food), null));
+
+        mockMvc.perform(get("/api/v1/expense").param("category", "FOOD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0].category").value("FOOD"))
+                .andExpect(jsonPath("$.records[0].amount").value(5.50));
+    }
+
+    @Test
+    void getIncomeRecord_ShouldReturnSelectedFieldsOfRecord() throws Exception {
+        IncomeRecord record = new IncomeRecord(IncomeCategory.BONUS, 12500, LocalDate.of(2025, 3, 2),
+                "Премия", userTest);
+        record.setId(7);
+        when(incomeRecordService.findRecord(7)).thenReturn(record);
+
+        mockMvc.perform(get("/api/v1/income/7").param("fields", "category,amount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(2)))
+                .andExpect(jsonPath("$.category").value("BONUS"))
+                .andExpect(jsonPath("$.amount").value(125.00));
+    }
+
+    @Test
+    void getExpenseRecord_ShouldReturnNotFound_WhenRecordIsMissingOrForeign() throws Exception {
+        when(expenseRecordService.findRecord(7))
+                .thenThrow(new EntityNotFoundException("Expense record not found with id: 7"));
+
+        mockMvc.perform(get("/api/v1/expense/7"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Expense record not found with id: 7"));
+    }
+
+    @Test
+    void addIncomeRecord_ShouldSaveRecordAndReturnCreated() throws Exception {
+        IncomeRecord saved = new IncomeRecord(IncomeCategory.SALARY, 100050, LocalDate.of(2025, 3, 1),
+                "Зарплата", userTest);
+        saved.setId(11);
+        when(incomeRecordService.saveRecord(IncomeCategory.SALARY, 100050,
+                LocalDate.of(2025, 3, 1), "Зарплата"))
+                .thenReturn(saved);
+
+        mockMvc.perform(post("/api/v1/income")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"category":"SALARY","amount":1000.50,"date":"2025-03-01","description":"Зарплата"}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/v1/income/11"))
+                .andExpect(jsonPath("$.id").value(11))
+                .andExpect(jsonPath("$.amount").value(1000.50));
+    }
+
+    @Test
+    void addExpenseRecord_ShouldReturnBadRequest_WhenCategoryBelongsToAnotherKind() throws Exception {
+        mockMvc.perform(post("/api/v1/expense")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"category":"SALARY","amount":5,"date":"2025-03-01"}
+                                """))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(expenseRecordService);
+    }
+
+    @Test
+    void addExpenseRecord_ShouldReturnBadRequest_WhenAmountIsNotPositive() throws Exception {
+        mockMvc.perform(post("/api/v1/expense")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"category":"FOOD","amount":0,"date":"2025-03-01"}
+                                """))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(expenseRecordService);
+    }
+
+    @Test
+    void editExpenseRecord_ShouldUpdateRecordAndReturnNoContent() throws Exception {
+        mockMvc.perform(put("/api/v1/expense/3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"category":"FUN","amount":12.3,"date":"2025-03-04","description":"Кино"}
+                                """))
+                .andExpect(status().isNoContent());
+        verify(expenseRecordService).updateRecord(3, ExpenseCategory.FUN, 1230, LocalDate.of(2025, 3, 4), "Кино");
+    }
+
+    @Test
+    void editIncomeRecord_ShouldReturnNotFound_WhenRecordIsMissingOrForeign() throws Exception {
+        doThrow(new EntityNotFoundException("Income record not found with id: 3"))
+                .when(incomeRecordService).updateRecord(any(Integer.class), any(), anyLong(), any(), any());
+
+        mockMvc.perform(put("/api/v1/income/3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"category":"BONUS","amount":1,"date":"2025-03-04"}
+                                """))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteIncomeRecord_ShouldReturnNoContent_WhenRecordWasDeleted() throws Exception {
+        when(incomeRecordService.deleteRecord(5)).thenReturn(true);
+
+        mockMvc.perform(delete("/api/v1/income/5"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void deleteExpenseRecord_ShouldReturnNotFound_WhenNothingWasDeleted() throws Exception {
+        when(expenseRecordService.deleteRecord(5)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/v1/expense/5"))
+                .andExpect(status().isNotFound());
+    }
+}
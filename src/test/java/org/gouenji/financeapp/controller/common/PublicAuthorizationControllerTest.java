@@ -1,7 +1,9 @@
 package org.gouenji.financeapp.controller.common;
 
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.service.TokenVersionService;
 import org.gouenji.financeapp.service.UserService;
 import org.gouenji.financeapp.util.JwtTokenUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,6 +27,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.Duration;
 import java.util.Collections;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -45,6 +49,9 @@ class PublicAuthorizationControllerTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
     @InjectMocks
     private PublicAuthorizationController publicAuthorizationController;
 
@@ -114,7 +121,7 @@ class PublicAuthorizationControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(mockAuthentication);
 
-        when(userService.loadUserByUsername(email)).thenReturn(userTestDetails);
+        when(mockAuthentication.getPrincipal()).thenReturn(userTestDetails);
         when(jwtTokenUtil.generateToken(userTestDetails)).thenReturn(jwtToken);
         when(jwtTokenUtil.getLifetime()).thenReturn(Duration.ofHours(24));
 
@@ -134,7 +141,7 @@ class PublicAuthorizationControllerTest {
 
         verify(authenticationManager, times(1))
                 .authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userService, times(1)).loadUserByUsername(email);
+        verify(userService, never()).loadUserByUsername(anyString());
         verify(jwtTokenUtil, times(1)).generateToken(userTestDetails);
         verify(jwtTokenUtil, times(1)).getLifetime();
     }
@@ -212,5 +219,27 @@ class PublicAuthorizationControllerTest {
                 .andExpect(cookie().httpOnly("jwt_token", true))
                 .andExpect(cookie().secure("jwt_token", false))
                 .andExpect(cookie().path("jwt_token", "/"));
+
+        verify(tokenVersionService, never()).revoke(anyInt());
+    }
+
+    @Test
+    void logout_ShouldRevokeIssuedTokens_WhenUserIsAuthenticated() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(
+                userTest.getId(),
+                userTest.getEmail(),
+                "",
+                0,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        mockMvc.perform(post("/logout"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"));
+
+        verify(tokenVersionService, times(1)).revoke(userTest.getId());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 }
\ No newline at end of file
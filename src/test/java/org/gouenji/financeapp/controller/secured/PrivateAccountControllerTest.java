@@ -1,32 +1,73 @@
 package org.gouenji.financeapp.controller.secured;
 
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
 import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.ExportFormat;
+import org.gouenji.financeapp.dto.records.ImportReport;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
 import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordFilterForm;
+import org.gouenji.financeapp.dto.records.RecordsPage;
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
 import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
 import org.gouenji.financeapp.entity.records.ExpenseRecord;
 import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.service.records.DashboardService;
 import org.gouenji.financeapp.service.records.ExpenseRecordService;
 import org.gouenji.financeapp.service.records.IncomeRecordService;
+import org.gouenji.financeapp.service.records.LedgerBulkService;
+import org.gouenji.financeapp.service.records.LedgerExportService;
+import org.gouenji.financeapp.service.records.LedgerImportService;
+import org.gouenji.financeapp.service.records.LedgerService;
+import org.gouenji.financeapp.service.records.LedgerVersionService;
+import org.gouenji.financeapp.util.Money;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.ui.ExtendedModelMap;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,7 +80,26 @@ public class PrivateAccountControllerTest {
     @Mock
     private ExpenseRecordService expenseRecordService;
 
-    @InjectMocks
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private LedgerBulkService ledgerBulkService;
+
+    @Mock
+    private LedgerExportService ledgerExportService;
+
+    @Mock
+    private LedgerImportService ledgerImportService;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    @Mock
+    private UserService userService;
+
+    private DashboardService dashboardService;
+
     private PrivateAccountController privateAccountController;
 
     private MockMvc mockMvc;
@@ -51,6 +111,10 @@ public class PrivateAccountControllerTest {
 
     @BeforeEach
     void setUp() {
+        dashboardService = new DashboardService(incomeRecordService, expenseRecordService, ledgerService, 4, false);
+        privateAccountController = new PrivateAccountController(incomeRecordService, expenseRecordService,
+                dashboardService, ledgerService, ledgerBulkService, ledgerExportService, ledgerImportService,
+                ledgerVersionService, userService);
         mockMvc = MockMvcBuilders.standaloneSetup(privateAccountController)
                 .build();
         userTest = new User(
@@ -62,97 +126,225 @@ public class PrivateAccountControllerTest {
         userTest.setId(1);
 
 
-        IncomeRecord incomeRecord1 = new IncomeRecord(
+        IncomeRecordView incomeRecord1 = new IncomeRecordView(
+                1,
                 IncomeCategory.SALARY,
-                100.0,
+                10000,
                 LocalDate.of(2025, 1, 10),
-                "Зарплата",
-                userTest
+                "Зарплата"
         );
 
-        IncomeRecord incomeRecord2 = new IncomeRecord(
+        IncomeRecordView incomeRecord2 = new IncomeRecordView(
+                2,
                 IncomeCategory.BONUS,
-                25.0,
+                2500,
                 LocalDate.of(2025, 2, 12),
-                "Премия",
-                userTest
+                "Премия"
         );
 
-        ExpenseRecord expenseRecord1 = new ExpenseRecord(
+        ExpenseRecordView expenseRecord1 = new ExpenseRecordView(
+                1,
                 ExpenseCategory.FOOD,
-                5.0,
+                500,
                 LocalDate.of(2025, 1, 11),
-                "Хот дог",
-                userTest
+                "Хот дог"
         );
 
         incomeRecordsContainer = IncomeRecordsContainer.builder()
                 .records(List.of(incomeRecord1, incomeRecord2))
-                .total(incomeRecord1.getAmount() + incomeRecord2.getAmount()) // 125
-                .averageTotal((double) Math.round((double) (100 + 25) / 12 * 100) / 100) // 10.42
-                .monthTotal(incomeRecord1.getAmount()) // 100
+                .total(incomeRecord1.getAmount() + incomeRecord2.getAmount()) // 125.00
+                .averageTotal(Money.divide(10000 + 2500, 12)) // 10.42
+                .monthTotal(incomeRecord1.getAmount()) // 100.00
+                .count(2)
                 .build();
 
         expenseRecordsContainer = ExpenseRecordsContainer.builder()
                 .records(List.of(expenseRecord1))
-                .total(expenseRecord1.getAmount()) // 5
-                .monthTotal(expenseRecord1.getAmount()) // 5
-                .averageTotal((double) Math.round(expenseRecord1.getAmount() / 12 * 100) / 100) // 5
-                .monthTotal(expenseRecord1.getAmount()) // 5
+                .total(expenseRecord1.getAmount()) // 5.00
+                .monthTotal(expenseRecord1.getAmount()) // 5.00
+                .averageTotal(Money.divide(expenseRecord1.getAmount(), 12)) // 0.42
+                .monthTotal(expenseRecord1.getAmount()) // 5.00
+                .count(1)
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
     // === Тесты для GET /account
 
     @Test
     void getMainPage_ShouldReturnAccountPageWithCorrectModel() throws Exception{
 
-        when(incomeRecordService.findAll(any())).thenReturn(incomeRecordsContainer);
-        when(expenseRecordService.findAll(any())).thenReturn(expenseRecordsContainer);
+        when(incomeRecordService.findSummary()).thenReturn(incomeRecordsContainer);
+        when(expenseRecordService.findSummary()).thenReturn(expenseRecordsContainer);
+        when(ledgerService.findRecent(null)).thenReturn(new LedgerPage(List.of(
+                incomeRecordsContainer.getRecords().get(1),
+                expenseRecordsContainer.getRecords().get(0),
+                incomeRecordsContainer.getRecords().get(0)), null));
 
         mockMvc.perform(get("/account"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("private/account-page"))
-                .andExpect(model().attribute("totalIncome", 125.0))
-                .andExpect(model().attribute("totalExpense", 5.0))
-                .andExpect(model().attribute("totalBalance", 120.0))
-                .andExpect(model().attribute("monthIncome", 100.0))
-                .andExpect(model().attribute("monthExpense", 5.0))
-                .andExpect(model().attribute("recentTransactionsCount", 3))
-                .andExpect(model().attributeExists("recentTransactions"));
+                .andExpect(model().attribute("totalIncome", new BigDecimal("125.00")))
+                .andExpect(model().attribute("totalExpense", new BigDecimal("5.00")))
+                .andExpect(model().attribute("totalBalance", new BigDecimal("120.00")))
+                .andExpect(model().attribute("monthIncome", new BigDecimal("100.00")))
+                .andExpect(model().attribute("monthExpense", new BigDecimal("5.00")))
+                .andExpect(model().attribute("recentTransactionsCount", 3L))
+                .andExpect(model().attribute("recentTransactions", Matchers.hasSize(3)))
+                .andExpect(model().attribute("isFirstPage", true))
+                .andExpect(model().attribute("hasMoreTransactions", false));
     }
 
     @Test
     void getMainPage_ShouldReturnZeroes_WhenNoRecords() throws Exception {
         IncomeRecordsContainer emptyIncome = IncomeRecordsContainer.builder()
                 .records(Collections.emptyList())
-                .total(0.0)
-                .averageTotal(0.0)
-                .monthTotal(0.0)
+                .total(0)
+                .averageTotal(0L)
+                .monthTotal(0L)
                 .build();
 
         ExpenseRecordsContainer emptyExpense = ExpenseRecordsContainer.builder()
                 .records(Collections.emptyList())
-                .total(0.0)
-                .averageTotal(0.0)
-                .monthTotal(0.0)
+                .total(0)
+                .averageTotal(0L)
+                .monthTotal(0L)
                 .build();
 
-        when(incomeRecordService.findAll(any())).thenReturn(emptyIncome);
-        when(expenseRecordService.findAll(any())).thenReturn(emptyExpense);
+        when(incomeRecordService.findSummary()).thenReturn(emptyIncome);
+        when(expenseRecordService.findSummary()).thenReturn(emptyExpense);
+        when(ledgerService.findRecent(null)).thenReturn(new LedgerPage(List.of(), null));
 
         mockMvc.perform(get("/account"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("private/account-page"))
-                .andExpect(model().attribute("totalIncome", 0.0))
-                .andExpect(model().attribute("totalExpense", 0.0))
-                .andExpect(model().attribute("totalBalance", 0.0))
-                .andExpect(model().attribute("monthIncome", 0.0))
-                .andExpect(model().attribute("monthExpense", 0.0))
-                .andExpect(model().attribute("recentTransactionsCount", 0))
+                .andExpect(model().attribute("totalIncome", Money.toMajor(0)))
+                .andExpect(model().attribute("totalExpense", Money.toMajor(0)))
+                .andExpect(model().attribute("totalBalance", Money.toMajor(0)))
+                .andExpect(model().attribute("monthIncome", Money.toMajor(0)))
+                .andExpect(model().attribute("monthExpense", Money.toMajor(0)))
+                .andExpect(model().attribute("recentTransactionsCount", 0L))
                 .andExpect(model().attribute("recentTransactions", Matchers.empty()));
     }
 
+    @Test
+    void getMainPage_ShouldPassCursorAndExposeNextCursor() throws Exception {
+        RecordCursor cursor = new RecordCursor(LocalDate.of(2025, 3, 1), 7);
+        RecordCursor nextCursor = new RecordCursor(LocalDate.of(2025, 1, 10), 1);
+        when(incomeRecordService.findSummary()).thenReturn(incomeRecordsContainer);
+        when(expenseRecordService.findSummary()).thenReturn(expenseRecordsContainer);
+        when(ledgerService.findRecent(cursor)).thenReturn(new LedgerPage(List.of(
+                expenseRecordsContainer.getRecords().get(0),
+                incomeRecordsContainer.getRecords().get(0)), nextCursor));
+
+        mockMvc.perform(get("/account").param("cursor", "2025-03-01:7"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("isFirstPage", false))
+                .andExpect(model().attribute("hasMoreTransactions", true))
+                .andExpect(model().attribute("nextCursor", "2025-01-10:1"))
+                .andExpect(model().attribute("recentTransactions", Matchers.hasSize(2)));
+    }
+
+    @Test
+    void getMainPage_ShouldTagPageWithLedgerVersion() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-5-2025-03-abc");
+        when(incomeRecordService.findSummary()).thenReturn(incomeRecordsContainer);
+        when(expenseRecordService.findSummary()).thenReturn(expenseRecordsContainer);
+        when(ledgerService.findRecent(null)).thenReturn(new LedgerPage(List.of(), null));
+
+        mockMvc.perform(get("/account"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5-2025-03-abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    void getMainPage_ShouldReturnNotModifiedWithoutReadingRecords_WhenLedgerVersionIsUnchanged() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-5-2025-03-abc");
+
+        mockMvc.perform(get("/account").header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5-2025-03-abc\""));
+
+        verifyNoInteractions(incomeRecordService, expenseRecordService, ledgerService);
+    }
+
+    @Test
+    void getMainPage_ShouldRenderPage_WhenLedgerVersionChanged() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-6-2025-03-abc");
+        when(incomeRecordService.findSummary()).thenReturn(incomeRecordsContainer);
+        when(expenseRecordService.findSummary()).thenReturn(expenseRecordsContainer);
+        when(ledgerService.findRecent(null)).thenReturn(new LedgerPage(List.of(), null));
+
+        mockMvc.perform(get("/account").header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isOk())
+                .andExpect(view().name("private/account-page"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-6-2025-03-abc\""));
+    }
+
+    @Test
+    void getMainPage_ShouldKeepModelsOfConcurrentRequestsApart() throws Exception {
+        when(incomeRecordService.findSummary()).thenAnswer(invocation -> IncomeRecordsContainer.builder()
+                .records(List.of())
+                .total(currentUserId() * 1000L)
+                .count(currentUserId())
+                .build());
+        when(expenseRecordService.findSummary()).thenAnswer(invocation -> ExpenseRecordsContainer.builder()
+                .records(List.of())
+                .total(currentUserId() * 100L)
+                .count(currentUserId())
+                .build());
+        when(ledgerService.findRecent(null)).thenAnswer(invocation -> new LedgerPage(List.of(), null));
+        ExecutorService requests = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> mismatches = new ArrayList<>();
+            for(int i = 0; i < 400; i++){
+                int userId = i % 8 + 1;
+                mismatches.add(requests.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            new AuthenticatedUser(userId, "user" + userId + "@gmail.com", "1234", 0, List.of()),
+                            null, List.of()));
+                    try {
+                        ExtendedModelMap model = new ExtendedModelMap();
+                        privateAccountController.getMainPage(model, null, null);
+                        BigDecimal expectedBalance = Money.toMajor(userId * 900L);
+                        return expectedBalance.equals(model.get("totalBalance"))
+                                && Long.valueOf(userId * 2L).equals(model.get("recentTransactionsCount"))
+                                ? null : "user " + userId + " got " + model.get("totalBalance");
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            for(Future<String> mismatch : mismatches){
+                assertThat(mismatch.get(10, TimeUnit.SECONDS)).isNull();
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    void getRecords_ShouldReturnMergedJsonPage() throws Exception {
+        RecordsPage page = new RecordsPage(
+                List.of(new RecordDto(3, "EXPENSE", "FOOD", new BigDecimal("5.00"), LocalDate.of(2025, 1, 11), "Хот дог"),
+                        new RecordDto(1, "INCOME", "SALARY", new BigDecimal("100.00"), LocalDate.of(2025, 1, 10), "Зарплата")),
+                "2025-01-10:1");
+        when(ledgerService.findPage(null)).thenReturn(page);
+
+        mockMvc.perform(get("/account/records"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records.length()").value(2))
+                .andExpect(jsonPath("$.records[0].type").value("EXPENSE"))
+                .andExpect(jsonPath("$.records[1].type").value("INCOME"))
+                .andExpect(jsonPath("$.nextCursor").value("2025-01-10:1"));
+    }
+
     @Test
     void editTransaction_ShouldRedirectToIncomeEdit() throws Exception {
         mockMvc.perform(post("/account/transaction/edit/1")
@@ -204,19 +396,182 @@ public class PrivateAccountControllerTest {
         verifyNoInteractions(incomeRecordService, expenseRecordService);
     }
 
+    @Test
+    void deleteTransactions_ShouldDeleteSelectedRecordsOfBothKindsAndRedirectOnce() throws Exception {
+        mockMvc.perform(post("/account/transaction/bulk/delete")
+                        .param("ids", "1", "2", "3"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account"));
+        verify(ledgerBulkService).delete(null, List.of(1, 2, 3));
+        verifyNoInteractions(incomeRecordService, expenseRecordService);
+    }
+
+    @Test
+    void shiftTransactions_ShouldShiftSelectedRecordsAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/transaction/bulk/shift")
+                        .param("ids", "1", "2")
+                        .param("days", "-3"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account"));
+        verify(ledgerBulkService).shiftDates(null, List.of(1, 2), -3);
+    }
+
+    @Test
+    void exportRecords_ShouldStreamLedgerAsAttachment() throws Exception {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("[]".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(ledgerExportService).export(eq(userTest.getId()), eq(ExportFormat.JSON), any());
+
+        MvcResult result = mockMvc.perform(get("/account/export").param("format", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ledger.json\""))
+                .andExpect(content().string("[]"));
+    }
+
+    @Test
+    void exportRecords_ShouldDefaultToCsv() throws Exception {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+
+        MvcResult result = mockMvc.perform(get("/account/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ledger.csv\""));
+        verify(ledgerExportService).export(eq(userTest.getId()), eq(ExportFormat.CSV), any());
+    }
+
+    @Test
+    void getImportPage_ShouldReturnImportPageWithoutReport() throws Exception {
+        mockMvc.perform(get("/account/import"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("private/import-page"))
+                .andExpect(model().attributeDoesNotExist("report"));
+    }
+
+    @Test
+    void importRecords_ShouldImportUploadedCsvAndShowReport() throws Exception {
+        ImportReport report = new ImportReport(1, 1, List.of(new ImportReport.RowError(3, "Invalid date: 2025-13-01")));
+        MockMultipartFile file = new MockMultipartFile("file", "ledger.csv", "text/csv",
+                "2025-03-10,EXPENSE,FOOD,5.00,Кофе\n2025-13-01,EXPENSE,FOOD,5.00,\n".getBytes(StandardCharsets.UTF_8));
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(ledgerImportService.importCsv(eq(userTest.getId()), any())).thenReturn(report);
+
+        mockMvc.perform(multipart("/account/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(view().name("private/import-page"))
+                .andExpect(model().attribute("report", report));
+        verify(ledgerImportService).importCsv(eq(userTest.getId()), any());
+    }
+
     @Test
     void getIncomePage_ShouldReturnIncomePageWithCorrectModel() throws Exception {
-        when(incomeRecordService.findAll(any())).thenReturn(incomeRecordsContainer);
+        when(incomeRecordService.findAll(any(), any())).thenReturn(incomeRecordsContainer);
 
         mockMvc.perform(get("/account/income"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("private/income/income-page"))
                 .andExpect(model().attribute("incomeRecords", incomeRecordsContainer.getRecords()))
-                .andExpect(model().attribute("totalIncome", incomeRecordsContainer.getTotal()))
-                .andExpect(model().attribute("filteredTotalIncome", incomeRecordsContainer.getTotal()))
+                .andExpect(model().attribute("totalIncome", Money.toMajor(incomeRecordsContainer.getTotal())))
+                .andExpect(model().attribute("filteredTotalIncome", Money.toMajor(incomeRecordsContainer.getTotal())))
                 .andExpect(model().attributeExists("incomeCategories"))
-                .andExpect(model().attribute("averageIncome", incomeRecordsContainer.getAverageTotal()))
-                .andExpect(model().attribute("monthTotal", incomeRecordsContainer.getMonthTotal()));
+                .andExpect(model().attribute("averageIncome", Money.toMajor(incomeRecordsContainer.getAverageTotal())))
+                .andExpect(model().attribute("monthTotal", Money.toMajor(incomeRecordsContainer.getMonthTotal())));
+    }
+
+    @Test
+    void getIncomePage_ShouldPassCursorToService() throws Exception {
+        RecordCursor cursor = new RecordCursor(LocalDate.of(2025, 3, 1), 7);
+        when(incomeRecordService.findAll(RecordFilter.of(IncomeCategory.SALARY), cursor)).thenReturn(incomeRecordsContainer);
+
+        mockMvc.perform(get("/account/income")
+                        .param("category", "SALARY")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("incomeRecordsCount", 2L))
+                .andExpect(model().attribute("isFirstPage", false))
+                .andExpect(model().attribute("nextCursor", Matchers.nullValue()));
+    }
+
+    @Test
+    void getIncomePage_ShouldReturnNotModified_WhenLedgerVersionIsUnchanged() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-5-2025-03-abc");
+
+        mockMvc.perform(get("/account/income")
+                        .param("category", "SALARY")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(incomeRecordService);
+    }
+
+    @Test
+    void getIncomePage_ShouldBindDateAndAmountFilter() throws Exception {
+        RecordFilter<IncomeCategory> filter = new RecordFilter<IncomeCategory>(Set.of(),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), 10000L, 50050L);
+        when(incomeRecordService.findAll(filter, null)).thenReturn(incomeRecordsContainer);
+
+        mockMvc.perform(get("/account/income")
+                        .param("category", "")
+                        .param("from", "2025-03-01")
+                        .param("to", "2025-03-31")
+                        .param("minAmount", "100")
+                        .param("maxAmount", "500.50"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("incomeRecords", incomeRecordsContainer.getRecords()));
+    }
+
+    @Test
+    void getIncomePage_ShouldShowErrorAndKeepForm_WhenDateRangeIsReversed() throws Exception {
+        when(incomeRecordService.findAll(RecordFilter.of(IncomeCategory.SALARY), null)).thenReturn(incomeRecordsContainer);
+
+        mockMvc.perform(get("/account/income")
+                        .param("category", "SALARY")
+                        .param("from", "2025-03-31")
+                        .param("to", "2025-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("private/income/income-page"))
+                .andExpect(model().attribute("filterError", Matchers.containsString("'from' date")))
+                .andExpect(model().attribute("filter", new RecordFilterForm(List.of("SALARY"),
+                        LocalDate.of(2025, 3, 31), LocalDate.of(2025, 3, 1), null, null)))
+                .andExpect(model().attribute("incomeRecords", incomeRecordsContainer.getRecords()));
+    }
+
+    @Test
+    void getIncomePage_ShouldShowError_WhenFilterValueCannotBeRead() throws Exception {
+        when(incomeRecordService.findAll(RecordFilter.all(), null)).thenReturn(incomeRecordsContainer);
+
+        mockMvc.perform(get("/account/income")
+                        .param("from", "not-a-date")
+                        .param("minAmount", "100"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("private/income/income-page"))
+                .andExpect(model().attributeExists("filterError"))
+                .andExpect(model().attribute("filter", new RecordFilterForm(List.of(),
+                        null, null, new BigDecimal("100"), null)));
+    }
+
+    @Test
+    void getIncomeRecords_ShouldReturnJsonPage() throws Exception {
+        RecordsPage page = new RecordsPage(
+                List.of(new RecordDto(1, "INCOME", "SALARY", new BigDecimal("100.00"), LocalDate.of(2025, 1, 10), "Зарплата")),
+                "2025-01-10:1");
+        when(incomeRecordService.findPage(RecordFilter.all(), null)).thenReturn(page);
+
+        mockMvc.perform(get("/account/income/records"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0].id").value(1))
+                .andExpect(jsonPath("$.records[0].category").value("SALARY"))
+                .andExpect(jsonPath("$.records[0].date").value("2025-01-10"))
+                .andExpect(jsonPath("$.nextCursor").value("2025-01-10:1"));
     }
 
     @Test
@@ -230,7 +585,7 @@ public class PrivateAccountControllerTest {
                 .andExpect(redirectedUrl("/account/income"));
 
         verify(incomeRecordService).saveRecord(
-                eq(IncomeCategory.SALARY), eq(200.0),
+                eq(IncomeCategory.SALARY), eq(20000L),
                 eq(LocalDate.of(2025,1,1)), eq("Test"));
     }
     @Test
@@ -240,9 +595,47 @@ public class PrivateAccountControllerTest {
                 .andExpect(redirectedUrl("/account/income"));
         verify(incomeRecordService).deleteRecord(1);
     }
+
+    @Test
+    void deleteIncomeRecords_ShouldDeleteSelectedIncomeAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/income/bulk/delete")
+                        .param("ids", "4", "5"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/income"));
+        verify(ledgerBulkService).delete(RecordKind.INCOME, List.of(4, 5));
+    }
+
+    @Test
+    void deleteIncomeRecords_ShouldPassNoIds_WhenNothingIsSelected() throws Exception {
+        mockMvc.perform(post("/account/income/bulk/delete"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/income"));
+        verify(ledgerBulkService).delete(RecordKind.INCOME, null);
+    }
+
+    @Test
+    void recategorizeIncomeRecords_ShouldChangeCategoryOfSelectedAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/income/bulk/category")
+                        .param("ids", "4", "5")
+                        .param("category", "BONUS"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/income"));
+        verify(ledgerBulkService).recategorize(List.of(4, 5), IncomeCategory.BONUS);
+    }
+
+    @Test
+    void shiftIncomeRecords_ShouldShiftSelectedAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/income/bulk/shift")
+                        .param("ids", "4")
+                        .param("days", "7"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/income"));
+        verify(ledgerBulkService).shiftDates(RecordKind.INCOME, List.of(4), 7);
+    }
+
     @Test
     void getIncomeEditPage_ShouldReturnEditPageWithRecord() throws Exception {
-        IncomeRecord record = new IncomeRecord(IncomeCategory.SALARY, 100.0,
+        IncomeRecord record = new IncomeRecord(IncomeCategory.SALARY, 10000,
                 LocalDate.now(), "desc", userTest);
         when(incomeRecordService.findRecord(1)).thenReturn(record);
 
@@ -263,24 +656,94 @@ public class PrivateAccountControllerTest {
                 .andExpect(redirectedUrl("/account/income"));
 
         verify(incomeRecordService).updateRecord(1,
-                IncomeCategory.SALARY, 300.0,
+                IncomeCategory.SALARY, 30000L,
                 LocalDate.of(2025,2,1),"updated");
     }
 
     @Test
     void getExpensePage_ShouldReturnExpensePageWithCorrectModel() throws Exception {
-        when(expenseRecordService.findAll(any())).thenReturn(expenseRecordsContainer);
+        when(expenseRecordService.findAll(any(), any())).thenReturn(expenseRecordsContainer);
 
         mockMvc.perform(get("/account/expense"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("private/expense/expense-page"))
                 .andExpect(model().attribute("expenseRecords", expenseRecordsContainer.getRecords()))
-                .andExpect(model().attribute("totalExpense", expenseRecordsContainer.getTotal()))
-                .andExpect(model().attribute("filteredTotalExpense", expenseRecordsContainer.getTotal()))
+                .andExpect(model().attribute("totalExpense", Money.toMajor(expenseRecordsContainer.getTotal())))
+                .andExpect(model().attribute("filteredTotalExpense", Money.toMajor(expenseRecordsContainer.getTotal())))
                 .andExpect(model().attributeExists("expenseCategories"))
-                .andExpect(model().attribute("averageExpense", expenseRecordsContainer.getAverageTotal()))
-                .andExpect(model().attribute("monthTotal", expenseRecordsContainer.getMonthTotal()));
+                .andExpect(model().attribute("averageExpense", Money.toMajor(expenseRecordsContainer.getAverageTotal())))
+                .andExpect(model().attribute("monthTotal", Money.toMajor(expenseRecordsContainer.getMonthTotal())));
     }
+
+    @Test
+    void getExpensePage_ShouldFilterBySeveralCategoriesAndShowSubsetTotals() throws Exception {
+        ExpenseRecordsContainer filteredContainer = ExpenseRecordsContainer.builder()
+                .records(List.of())
+                .total(10000)
+                .averageTotal(Money.divide(10000, 12))
+                .monthTotal(10000L)
+                .count(4)
+                .filteredTotal(2500L)
+                .filteredAverageTotal(Money.divide(2500, 12))
+                .filteredCount(3L)
+                .build();
+        when(expenseRecordService.findAll(
+                new RecordFilter<>(EnumSet.of(ExpenseCategory.FOOD, ExpenseCategory.FUN), null, null, null, null), null))
+                .thenReturn(filteredContainer);
+
+        mockMvc.perform(get("/account/expense")
+                        .param("category", "FOOD", "FUN", "UNKNOWN"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("selectedCategories", List.of("FOOD", "FUN", "UNKNOWN")))
+                .andExpect(model().attribute("totalExpense", Money.toMajor(10000)))
+                .andExpect(model().attribute("filteredTotalExpense", Money.toMajor(2500)))
+                .andExpect(model().attribute("averageExpense", Money.toMajor(Money.divide(2500, 12))))
+                .andExpect(model().attribute("expenseRecordsCount", 3L));
+    }
+
+    @Test
+    void getExpensePage_ShouldShowErrorAndKeepForm_WhenAmountRangeIsReversed() throws Exception {
+        when(expenseRecordService.findAll(RecordFilter.all(), null)).thenReturn(expenseRecordsContainer);
+
+        mockMvc.perform(get("/account/expense")
+                        .param("minAmount", "500")
+                        .param("maxAmount", "100"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("private/expense/expense-page"))
+                .andExpect(model().attribute("filterError", Matchers.containsString("minimum amount")))
+                .andExpect(model().attribute("filter", new RecordFilterForm(List.of(),
+                        null, null, new BigDecimal("500"), new BigDecimal("100"))))
+                .andExpect(model().attribute("expenseRecords", expenseRecordsContainer.getRecords()));
+    }
+
+    @Test
+    void getExpenseRecords_ShouldReturnJsonPage() throws Exception {
+        RecordCursor cursor = new RecordCursor(LocalDate.of(2025, 3, 1), 7);
+        RecordsPage page = new RecordsPage(
+                List.of(new RecordDto(2, "EXPENSE", "FOOD", new BigDecimal("5.00"), LocalDate.of(2025, 1, 11), "Хот дог")),
+                null);
+        when(expenseRecordService.findPage(RecordFilter.of(ExpenseCategory.FOOD), cursor)).thenReturn(page);
+
+        mockMvc.perform(get("/account/expense/records")
+                        .param("category", "FOOD")
+                        .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records[0].type").value("EXPENSE"))
+                .andExpect(jsonPath("$.records[0].amount").value(5.0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getExpenseRecords_ShouldReturnNotModified_WhenLedgerVersionIsUnchanged() throws Exception {
+        when(ledgerVersionService.currentETag()).thenReturn("1-5-2025-03-abc");
+
+        mockMvc.perform(get("/account/expense/records").header(HttpHeaders.IF_NONE_MATCH, "\"1-5-2025-03-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(expenseRecordService);
+    }
+
     @Test
     void getExpenseAddPage_ShouldReturnAddPageWithCategories() throws Exception {
         mockMvc.perform(get("/account/expense/add"))
@@ -299,9 +762,22 @@ public class PrivateAccountControllerTest {
                 .andExpect(redirectedUrl("/account/expense"));
 
         verify(expenseRecordService).saveRecord(
-                eq(ExpenseCategory.FOOD), eq(50.0),
+                eq(ExpenseCategory.FOOD), eq(5000L),
                 eq(LocalDate.of(2025,3,1)), eq("Test expense"));
     }
+
+    @Test
+    void addExpenseRecord_ShouldConvertAmountToCentsExactly() throws Exception {
+        mockMvc.perform(post("/account/expense/add")
+                        .param("category", ExpenseCategory.FOOD.name())
+                        .param("amount", "0.29")
+                        .param("date", "2025-03-01"))
+                .andExpect(status().is3xxRedirection());
+
+        verify(expenseRecordService).saveRecord(
+                eq(ExpenseCategory.FOOD), eq(29L),
+                eq(LocalDate.of(2025,3,1)), any());
+    }
     @Test
     void deleteExpenseRecord_ShouldDeleteAndRedirect() throws Exception {
         mockMvc.perform(post("/account/expense/delete/1"))
@@ -309,9 +785,39 @@ public class PrivateAccountControllerTest {
                 .andExpect(redirectedUrl("/account/expense"));
         verify(expenseRecordService).deleteRecord(1);
     }
+
+    @Test
+    void deleteExpenseRecords_ShouldDeleteSelectedExpenseAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/expense/bulk/delete")
+                        .param("ids", "6", "7"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/expense"));
+        verify(ledgerBulkService).delete(RecordKind.EXPENSE, List.of(6, 7));
+    }
+
+    @Test
+    void recategorizeExpenseRecords_ShouldChangeCategoryOfSelectedAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/expense/bulk/category")
+                        .param("ids", "6", "7")
+                        .param("category", "TRANSPORT"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/expense"));
+        verify(ledgerBulkService).recategorize(List.of(6, 7), ExpenseCategory.TRANSPORT);
+    }
+
+    @Test
+    void shiftExpenseRecords_ShouldShiftSelectedAndRedirect() throws Exception {
+        mockMvc.perform(post("/account/expense/bulk/shift")
+                        .param("ids", "6")
+                        .param("days", "-1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/account/expense"));
+        verify(ledgerBulkService).shiftDates(RecordKind.EXPENSE, List.of(6), -1);
+    }
+
     @Test
     void getExpenseEditPage_ShouldReturnEditPageWithRecord() throws Exception {
-        ExpenseRecord record = new ExpenseRecord(ExpenseCategory.FOOD, 10.0,
+        ExpenseRecord record = new ExpenseRecord(ExpenseCategory.FOOD, 1000,
                 LocalDate.now(), "desc", userTest);
         when(expenseRecordService.findRecord(1)).thenReturn(record);
 
@@ -332,9 +838,11 @@ public class PrivateAccountControllerTest {
                 .andExpect(redirectedUrl("/account/expense"));
 
         verify(expenseRecordService).updateRecord(1,
-                ExpenseCategory.FOOD, 15.0,
+                ExpenseCategory.FOOD, 1500L,
                 LocalDate.of(2025,3,15),"updated expense");
     }
 
-
+    private static int currentUserId() {
+        return ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId();
+    }
 }
@@ -0,0 +1,212 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.MonthlyTotal;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ExpenseRecordRepositoryTest {
+
+    private static final String OWN_DESCRIPTION = "Парк";
+    private static final ExpenseCategory OTHER_CATEGORY = ExpenseCategory.TRANSPORT;
+
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User userTest;
+    private User anotherUser;
+    private ExpenseRecord ownRecord;
+    private ExpenseRecord foreignRecord;
+
+    @BeforeEach
+    void setUp() {
+        userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+        anotherUser = userRepository.save(new User("Petr", "another@gmail.com", "1234", UserRole.USER));
+
+        List<ExpenseRecord> saved = expenseRecordRepository.saveAll(List.of(
+                new ExpenseRecord(ExpenseCategory.FUN, 1500, LocalDate.of(2025, 3, 10), "Парк", userTest),
+                new ExpenseRecord(ExpenseCategory.FUN, 3000, LocalDate.of(2025, 3, 1), "Прогулка", userTest),
+                new ExpenseRecord(ExpenseCategory.FOOD, 500, LocalDate.of(2025, 2, 28), "Хот дог", userTest),
+                new ExpenseRecord(ExpenseCategory.FOOD, 10000, LocalDate.of(2025, 3, 5), "Ресторан", anotherUser)
+        ));
+        ownRecord = saved.getFirst();
+        foreignRecord = saved.getLast();
+    }
+
+    @Test
+    void sumAmountGroupedByUserAndCategoryAndMonth_ShouldSplitTotalsByUserCategoryAndMonth() {
+        List<MonthlyTotal> totals = expenseRecordRepository.sumAmountGroupedByUserAndCategoryAndMonth();
+
+        assertThat(totals).containsExactlyInAnyOrder(
+                new MonthlyTotal(userTest.getId(), ExpenseCategory.FUN, 2025, 3, 4500, 2),
+                new MonthlyTotal(userTest.getId(), ExpenseCategory.FOOD, 2025, 2, 500, 1),
+                new MonthlyTotal(anotherUser.getId(), ExpenseCategory.FOOD, 2025, 3, 10000, 1)
+        );
+    }
+
+    @Test
+    void findByUserIdOrderByDateDescIdDesc_ShouldSeekPastCursor() {
+        Window<ExpenseRecordView> firstPage = expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), ScrollPosition.keyset(), Limit.of(2));
+
+        assertThat(firstPage.getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Парк", "Прогулка");
+        assertThat(firstPage.hasNext()).isTrue();
+
+        RecordCursor cursor = RecordCursor.of(firstPage.getContent().getLast());
+        Window<ExpenseRecordView> secondPage = expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), RecordCursor.toScrollPosition(cursor), Limit.of(2));
+
+        assertThat(secondPage.getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Хот дог");
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void findFiltered_ShouldReturnMatchingRowsAndTheirTotals() {
+        FilteredRecords<ExpenseRecordView> filtered = expenseRecordRepository.findFiltered(
+                userTest.getId(), RecordFilter.of(ExpenseCategory.FUN), null, 20);
+
+        assertThat(filtered.window().getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Парк", "Прогулка");
+        assertThat(filtered.window().hasNext()).isFalse();
+        assertThat(filtered.total()).isEqualTo(4500);
+        assertThat(filtered.count()).isEqualTo(2);
+    }
+
+    @Test
+    void findFiltered_ShouldMatchAnyOfSeveralCategories() {
+        FilteredRecords<ExpenseRecordView> filtered = expenseRecordRepository.findFiltered(userTest.getId(),
+                new RecordFilter<>(EnumSet.of(ExpenseCategory.FOOD, ExpenseCategory.FUN), null, null, null, null), null, 20);
+
+        assertThat(filtered.window().getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Парк", "Прогулка", "Хот дог");
+        assertThat(filtered.total()).isEqualTo(5000);
+        assertThat(filtered.count()).isEqualTo(3);
+    }
+
+    @Test
+    void findFiltered_ShouldApplyInclusiveDateAndAmountBounds() {
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<ExpenseCategory>(Set.of(),
+                LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 1), 500L, 3000L);
+
+        FilteredRecords<ExpenseRecordView> filtered = expenseRecordRepository.findFiltered(
+                userTest.getId(), filter, null, 20);
+
+        assertThat(filtered.window().getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Прогулка", "Хот дог");
+        assertThat(filtered.total()).isEqualTo(3500);
+        assertThat(filtered.count()).isEqualTo(2);
+    }
+
+    @Test
+    void findFiltered_ShouldKeepTotalsOfWholeFilter_WhenPagingPastCursor() {
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<ExpenseCategory>(Set.of(), null, null, 1000L, null);
+
+        FilteredRecords<ExpenseRecordView> firstPage = expenseRecordRepository.findFiltered(
+                userTest.getId(), filter, null, 1);
+        RecordCursor cursor = RecordCursor.of(firstPage.window().getContent().getLast());
+        FilteredRecords<ExpenseRecordView> secondPage = expenseRecordRepository.findFiltered(
+                userTest.getId(), filter, cursor, 1);
+        FilteredRecords<ExpenseRecordView> pastEnd = expenseRecordRepository.findFiltered(
+                userTest.getId(), filter, RecordCursor.of(secondPage.window().getContent().getLast()), 1);
+
+        assertThat(firstPage.window().getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Парк");
+        assertThat(firstPage.window().hasNext()).isTrue();
+        assertThat(secondPage.window().getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Прогулка");
+        assertThat(secondPage.window().hasNext()).isFalse();
+        assertThat(pastEnd.window().getContent()).isEmpty();
+        assertThat(List.of(firstPage.total(), secondPage.total(), pastEnd.total())).containsOnly(4500L);
+        assertThat(List.of(firstPage.count(), secondPage.count(), pastEnd.count())).containsOnly(2L);
+    }
+
+    @Test
+    void scrollFiltered_ShouldSeekPastCursorWithinFilter() {
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<ExpenseCategory>(Set.of(), null, LocalDate.of(2025, 3, 5), null, null);
+
+        Window<ExpenseRecordView> firstPage = expenseRecordRepository.scrollFiltered(
+                userTest.getId(), filter, null, 1);
+        Window<ExpenseRecordView> secondPage = expenseRecordRepository.scrollFiltered(
+                userTest.getId(), filter, RecordCursor.of(firstPage.getContent().getLast()), 1);
+
+        assertThat(firstPage.getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Прогулка");
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent())
+                .extracting(ExpenseRecordView::getDescription)
+                .containsExactly("Хот дог");
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void findViewByIdAndUserId_ShouldNotReturnRecordOfAnotherUser() {
+        assertThat(expenseRecordRepository.findViewByIdAndUserId(foreignRecord.getId(), userTest.getId())).isEmpty();
+        assertThat(expenseRecordRepository.findViewByIdAndUserId(ownRecord.getId(), userTest.getId()))
+                .map(ExpenseRecordView::getDescription)
+                .contains(OWN_DESCRIPTION);
+    }
+
+    @Test
+    void updateOwned_ShouldChangeOnlyRecordOfUser() {
+        int foreign = expenseRecordRepository.updateOwned(foreignRecord.getId(), userTest.getId(),
+                OTHER_CATEGORY, 1, LocalDate.of(2025, 1, 1), "Чужая");
+        int owned = expenseRecordRepository.updateOwned(ownRecord.getId(), userTest.getId(),
+                OTHER_CATEGORY, 1, LocalDate.of(2025, 1, 1), "Изменена");
+
+        assertThat(List.of(foreign, owned)).containsExactly(0, 1);
+        assertThat(expenseRecordRepository.findViewByIdAndUserId(ownRecord.getId(), userTest.getId()))
+                .contains(new ExpenseRecordView(ownRecord.getId(), OTHER_CATEGORY, 1, LocalDate.of(2025, 1, 1),
+                        "Изменена"));
+        assertThat(expenseRecordRepository.findViewByIdAndUserId(foreignRecord.getId(), anotherUser.getId()))
+                .map(ExpenseRecordView::getAmount)
+                .contains(foreignRecord.getAmount());
+    }
+
+    @Test
+    void deleteOwned_ShouldRemoveOnlyRecordOfUser() {
+        int foreign = expenseRecordRepository.deleteOwned(foreignRecord.getId(), userTest.getId());
+        int owned = expenseRecordRepository.deleteOwned(ownRecord.getId(), userTest.getId());
+
+        assertThat(List.of(foreign, owned)).containsExactly(0, 1);
+        assertThat(expenseRecordRepository.findViewByIdAndUserId(ownRecord.getId(), userTest.getId())).isEmpty();
+        assertThat(expenseRecordRepository.findViewByIdAndUserId(foreignRecord.getId(), anotherUser.getId()))
+                .isPresent();
+    }
+}
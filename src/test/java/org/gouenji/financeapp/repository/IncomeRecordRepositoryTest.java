@@ -0,0 +1,212 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.MonthlyTotal;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class IncomeRecordRepositoryTest {
+
+    private static final String OWN_DESCRIPTION = "Зарплата";
+    private static final IncomeCategory OTHER_CATEGORY = IncomeCategory.INVESTMENT;
+
+    @Autowired
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User userTest;
+    private User anotherUser;
+    private IncomeRecord ownRecord;
+    private IncomeRecord foreignRecord;
+
+    @BeforeEach
+    void setUp() {
+        userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+        anotherUser = userRepository.save(new User("Petr", "another@gmail.com", "1234", UserRole.USER));
+
+        List<IncomeRecord> saved = incomeRecordRepository.saveAll(List.of(
+                new IncomeRecord(IncomeCategory.SALARY, 1500, LocalDate.of(2025, 3, 10), "Зарплата", userTest),
+                new IncomeRecord(IncomeCategory.SALARY, 3000, LocalDate.of(2025, 3, 1), "Аванс", userTest),
+                new IncomeRecord(IncomeCategory.BONUS, 500, LocalDate.of(2025, 2, 28), "Премия", userTest),
+                new IncomeRecord(IncomeCategory.BONUS, 10000, LocalDate.of(2025, 3, 5), "Зп", anotherUser)
+        ));
+        ownRecord = saved.getFirst();
+        foreignRecord = saved.getLast();
+    }
+
+    @Test
+    void sumAmountGroupedByUserAndCategoryAndMonth_ShouldSplitTotalsByUserCategoryAndMonth() {
+        List<MonthlyTotal> totals = incomeRecordRepository.sumAmountGroupedByUserAndCategoryAndMonth();
+
+        assertThat(totals).containsExactlyInAnyOrder(
+                new MonthlyTotal(userTest.getId(), IncomeCategory.SALARY, 2025, 3, 4500, 2),
+                new MonthlyTotal(userTest.getId(), IncomeCategory.BONUS, 2025, 2, 500, 1),
+                new MonthlyTotal(anotherUser.getId(), IncomeCategory.BONUS, 2025, 3, 10000, 1)
+        );
+    }
+
+    @Test
+    void findByUserIdOrderByDateDescIdDesc_ShouldSeekPastCursor() {
+        Window<IncomeRecordView> firstPage = incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), ScrollPosition.keyset(), Limit.of(2));
+
+        assertThat(firstPage.getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Зарплата", "Аванс");
+        assertThat(firstPage.hasNext()).isTrue();
+
+        RecordCursor cursor = RecordCursor.of(firstPage.getContent().getLast());
+        Window<IncomeRecordView> secondPage = incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), RecordCursor.toScrollPosition(cursor), Limit.of(2));
+
+        assertThat(secondPage.getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Премия");
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void findFiltered_ShouldReturnMatchingRowsAndTheirTotals() {
+        FilteredRecords<IncomeRecordView> filtered = incomeRecordRepository.findFiltered(
+                userTest.getId(), RecordFilter.of(IncomeCategory.SALARY), null, 20);
+
+        assertThat(filtered.window().getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Зарплата", "Аванс");
+        assertThat(filtered.window().hasNext()).isFalse();
+        assertThat(filtered.total()).isEqualTo(4500);
+        assertThat(filtered.count()).isEqualTo(2);
+    }
+
+    @Test
+    void findFiltered_ShouldMatchAnyOfSeveralCategories() {
+        FilteredRecords<IncomeRecordView> filtered = incomeRecordRepository.findFiltered(userTest.getId(),
+                new RecordFilter<>(EnumSet.of(IncomeCategory.SALARY, IncomeCategory.BONUS), null, null, null, null), null, 20);
+
+        assertThat(filtered.window().getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Зарплата", "Аванс", "Премия");
+        assertThat(filtered.total()).isEqualTo(5000);
+        assertThat(filtered.count()).isEqualTo(3);
+    }
+
+    @Test
+    void findFiltered_ShouldApplyInclusiveDateAndAmountBounds() {
+        RecordFilter<IncomeCategory> filter = new RecordFilter<IncomeCategory>(Set.of(),
+                LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 1), 500L, 3000L);
+
+        FilteredRecords<IncomeRecordView> filtered = incomeRecordRepository.findFiltered(
+                userTest.getId(), filter, null, 20);
+
+        assertThat(filtered.window().getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Аванс", "Премия");
+        assertThat(filtered.total()).isEqualTo(3500);
+        assertThat(filtered.count()).isEqualTo(2);
+    }
+
+    @Test
+    void findFiltered_ShouldKeepTotalsOfWholeFilter_WhenPagingPastCursor() {
+        RecordFilter<IncomeCategory> filter = new RecordFilter<IncomeCategory>(Set.of(), null, null, 1000L, null);
+
+        FilteredRecords<IncomeRecordView> firstPage = incomeRecordRepository.findFiltered(
+                userTest.getId(), filter, null, 1);
+        RecordCursor cursor = RecordCursor.of(firstPage.window().getContent().getLast());
+        FilteredRecords<IncomeRecordView> secondPage = incomeRecordRepository.findFiltered(
+                userTest.getId(), filter, cursor, 1);
+        FilteredRecords<IncomeRecordView> pastEnd = incomeRecordRepository.findFiltered(
+                userTest.getId(), filter, RecordCursor.of(secondPage.window().getContent().getLast()), 1);
+
+        assertThat(firstPage.window().getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Зарплата");
+        assertThat(firstPage.window().hasNext()).isTrue();
+        assertThat(secondPage.window().getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Аванс");
+        assertThat(secondPage.window().hasNext()).isFalse();
+        assertThat(pastEnd.window().getContent()).isEmpty();
+        assertThat(List.of(firstPage.total(), secondPage.total(), pastEnd.total())).containsOnly(4500L);
+        assertThat(List.of(firstPage.count(), secondPage.count(), pastEnd.count())).containsOnly(2L);
+    }
+
+    @Test
+    void scrollFiltered_ShouldSeekPastCursorWithinFilter() {
+        RecordFilter<IncomeCategory> filter = new RecordFilter<IncomeCategory>(Set.of(), null, LocalDate.of(2025, 3, 5), null, null);
+
+        Window<IncomeRecordView> firstPage = incomeRecordRepository.scrollFiltered(
+                userTest.getId(), filter, null, 1);
+        Window<IncomeRecordView> secondPage = incomeRecordRepository.scrollFiltered(
+                userTest.getId(), filter, RecordCursor.of(firstPage.getContent().getLast()), 1);
+
+        assertThat(firstPage.getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Аванс");
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent())
+                .extracting(IncomeRecordView::getDescription)
+                .containsExactly("Премия");
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void findViewByIdAndUserId_ShouldNotReturnRecordOfAnotherUser() {
+        assertThat(incomeRecordRepository.findViewByIdAndUserId(foreignRecord.getId(), userTest.getId())).isEmpty();
+        assertThat(incomeRecordRepository.findViewByIdAndUserId(ownRecord.getId(), userTest.getId()))
+                .map(IncomeRecordView::getDescription)
+                .contains(OWN_DESCRIPTION);
+    }
+
+    @Test
+    void updateOwned_ShouldChangeOnlyRecordOfUser() {
+        int foreign = incomeRecordRepository.updateOwned(foreignRecord.getId(), userTest.getId(),
+                OTHER_CATEGORY, 1, LocalDate.of(2025, 1, 1), "Чужая");
+        int owned = incomeRecordRepository.updateOwned(ownRecord.getId(), userTest.getId(),
+                OTHER_CATEGORY, 1, LocalDate.of(2025, 1, 1), "Изменена");
+
+        assertThat(List.of(foreign, owned)).containsExactly(0, 1);
+        assertThat(incomeRecordRepository.findViewByIdAndUserId(ownRecord.getId(), userTest.getId()))
+                .contains(new IncomeRecordView(ownRecord.getId(), OTHER_CATEGORY, 1, LocalDate.of(2025, 1, 1),
+                        "Изменена"));
+        assertThat(incomeRecordRepository.findViewByIdAndUserId(foreignRecord.getId(), anotherUser.getId()))
+                .map(IncomeRecordView::getAmount)
+                .contains(foreignRecord.getAmount());
+    }
+
+    @Test
+    void deleteOwned_ShouldRemoveOnlyRecordOfUser() {
+        int foreign = incomeRecordRepository.deleteOwned(foreignRecord.getId(), userTest.getId());
+        int owned = incomeRecordRepository.deleteOwned(ownRecord.getId(), userTest.getId());
+
+        assertThat(List.of(foreign, owned)).containsExactly(0, 1);
+        assertThat(incomeRecordRepository.findViewByIdAndUserId(ownRecord.getId(), userTest.getId())).isEmpty();
+        assertThat(incomeRecordRepository.findViewByIdAndUserId(foreignRecord.getId(), anotherUser.getId()))
+                .isPresent();
+    }
+}
@@ -0,0 +1,149 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class LedgerEntryRepositoryTest {
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User userTest;
+    private User anotherUser;
+
+    @BeforeEach
+    void setUp() {
+        userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+        anotherUser = userRepository.save(new User("Petr", "another@gmail.com", "1234", UserRole.USER));
+
+        incomeRecordRepository.save(new IncomeRecord(IncomeCategory.SALARY, 100000, LocalDate.of(2025, 3, 1), "Зарплата", userTest));
+        expenseRecordRepository.save(new ExpenseRecord(ExpenseCategory.FUN, 1500, LocalDate.of(2025, 3, 10), "Парк", userTest));
+        incomeRecordRepository.save(new IncomeRecord(IncomeCategory.BONUS, 4000, LocalDate.of(2025, 3, 10), "Премия", userTest));
+        expenseRecordRepository.save(new ExpenseRecord(ExpenseCategory.FOOD, 500, LocalDate.of(2025, 2, 28), "Хот дог", userTest));
+        expenseRecordRepository.save(new ExpenseRecord(ExpenseCategory.FOOD, 10000, LocalDate.of(2025, 3, 5), "Ресторан", anotherUser));
+    }
+
+    @Test
+    void findByUserIdOrderByDateDescIdDesc_ShouldPageBothKindsInOneScan() {
+        Window<LedgerEntryView> first = ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), ScrollPosition.keyset(), Limit.of(3));
+        Window<LedgerEntryView> last = ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), RecordCursor.toScrollPosition(RecordCursor.of(first.getContent().getLast())), Limit.of(3));
+
+        assertThat(first.getContent())
+                .extracting(LedgerEntryView::getDescription)
+                .containsExactly("Премия", "Парк", "Зарплата");
+        assertThat(first.getContent())
+                .extracting(LedgerEntryView::getCategory)
+                .containsExactly(IncomeCategory.BONUS, ExpenseCategory.FUN, IncomeCategory.SALARY);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent())
+                .extracting(LedgerEntryView::getType, LedgerEntryView::getDescription)
+                .containsExactly(tuple("EXPENSE", "Хот дог"));
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void streamByUserIdOrderByDateDescIdDesc_ShouldStreamOnlyUsersRecordsNewestFirst() {
+        try(Stream<LedgerEntryView> entries = ledgerEntryRepository.streamByUserIdOrderByDateDescIdDesc(userTest.getId())){
+            assertThat(entries.map(LedgerEntryView::getDescription).toList())
+                    .containsExactly("Премия", "Парк", "Зарплата", "Хот дог");
+        }
+    }
+
+    @Test
+    void kindRepositories_ShouldOnlySeeTheirOwnKind() {
+        assertThat(incomeRecordRepository.findAllByUserIdOrderByDateDescIdDesc(userTest.getId(), Limit.unlimited()))
+                .extracting(IncomeRecordView::getCategory)
+                .containsExactly(IncomeCategory.BONUS, IncomeCategory.SALARY);
+        assertThat(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(userTest.getId(), Limit.unlimited()))
+                .extracting(ExpenseRecordView::getCategory)
+                .containsExactly(ExpenseCategory.FUN, ExpenseCategory.FOOD);
+    }
+
+    @Test
+    void lockOwned_ShouldReturnOnlySelectedRecordsOfUser() {
+        List<Integer> ids = ledgerEntryRepository.findAll().stream().map(entry -> entry.getId()).toList();
+
+        assertThat(ledgerEntryRepository.lockOwned(userTest.getId(), ids))
+                .extracting(LedgerEntryView::getDescription)
+                .containsExactlyInAnyOrder("Зарплата", "Парк", "Премия", "Хот дог");
+        assertThat(ledgerEntryRepository.lockOwned(anotherUser.getId(), ids.subList(0, 4))).isEmpty();
+    }
+
+    @Test
+    void deleteOwned_ShouldDeleteSelectedRecordsOfBothKindsButNotOfAnotherUser() {
+        List<Integer> ids = ledgerEntryRepository.findAll().stream().map(entry -> entry.getId()).toList();
+
+        int deleted = ledgerEntryRepository.deleteOwned(userTest.getId(), List.of(ids.get(0), ids.get(1), ids.get(4)));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(ledgerEntryRepository.findAll())
+                .extracting(entry -> entry.getDescription())
+                .containsExactlyInAnyOrder("Премия", "Хот дог", "Ресторан");
+    }
+
+    @Test
+    void shiftDatesOwned_ShouldMoveSelectedRecordsAcrossMonths() {
+        List<Integer> ids = ledgerEntryRepository.findAll().stream().map(entry -> entry.getId()).toList();
+
+        int shifted = ledgerEntryRepository.shiftDatesOwned(userTest.getId(), List.of(ids.get(3), ids.get(4)), 2);
+
+        assertThat(shifted).isEqualTo(1);
+        assertThat(ledgerEntryRepository.lockOwned(userTest.getId(), List.of(ids.get(3))))
+                .extracting(LedgerEntryView::getDate)
+                .containsExactly(LocalDate.of(2025, 3, 2));
+        assertThat(ledgerEntryRepository.lockOwned(anotherUser.getId(), List.of(ids.get(4))))
+                .extracting(LedgerEntryView::getDate)
+                .containsExactly(LocalDate.of(2025, 3, 5));
+    }
+
+    @Test
+    void updateCategoryOwned_ShouldChangeOnlyRecordsOfItsKind() {
+        List<Integer> ids = ledgerEntryRepository.findAll().stream().map(entry -> entry.getId()).toList();
+
+        int changed = incomeRecordRepository.updateCategoryOwned(userTest.getId(), ids, IncomeCategory.INVESTMENT);
+
+        assertThat(changed).isEqualTo(2);
+        assertThat(ledgerEntryRepository.lockOwned(userTest.getId(), ids))
+                .extracting(LedgerEntryView::getCategory)
+                .containsExactlyInAnyOrder(IncomeCategory.INVESTMENT, IncomeCategory.INVESTMENT,
+                        ExpenseCategory.FUN, ExpenseCategory.FOOD);
+    }
+}
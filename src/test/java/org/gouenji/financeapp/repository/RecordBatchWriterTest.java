@@ -0,0 +1,75 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.ImportedRecord;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RecordBatchWriter.class)
+public class RecordBatchWriterTest {
+
+    @Autowired
+    private RecordBatchWriter recordBatchWriter;
+
+    @Autowired
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User userTest;
+
+    @BeforeEach
+    void setUp() {
+        userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+    }
+
+    @Test
+    void insert_ShouldWriteRecordsOfGivenKindForUser() {
+        recordBatchWriter.insert(RecordKind.EXPENSE, userTest.getId(), List.of(
+                new ImportedRecord(ExpenseCategory.FOOD, 500, LocalDate.of(2025, 3, 10), "Хот дог"),
+                new ImportedRecord(ExpenseCategory.FUN, 1500, LocalDate.of(2025, 3, 11), null)));
+        recordBatchWriter.insert(RecordKind.INCOME, userTest.getId(), List.of(
+                new ImportedRecord(IncomeCategory.SALARY, 100000, LocalDate.of(2025, 3, 1), "Зарплата")));
+
+        assertThat(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(userTest.getId(), Limit.unlimited()))
+                .extracting(ExpenseRecordView::getCategory, ExpenseRecordView::getAmount, ExpenseRecordView::getDescription)
+                .containsExactly(
+                        tuple(ExpenseCategory.FUN, 1500L, null),
+                        tuple(ExpenseCategory.FOOD, 500L, "Хот дог"));
+        assertThat(incomeRecordRepository.findAllByUserIdOrderByDateDescIdDesc(userTest.getId(), Limit.unlimited()))
+                .extracting(IncomeRecordView::getAmount)
+                .containsExactly(100000L);
+    }
+
+    @Test
+    void insert_ShouldDoNothing_WhenBatchIsEmpty() {
+        recordBatchWriter.insert(RecordKind.INCOME, userTest.getId(), List.of());
+
+        assertThat(incomeRecordRepository.findAllByUserIdOrderByDateDescIdDesc(userTest.getId(), Limit.unlimited())).isEmpty();
+    }
+}
@@ -0,0 +1,176 @@
+package org.gouenji.financeapp.repository;
+
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs EXPLAIN on the SQL Hibernate generates for the repository methods, captured by a StatementInspector,
+// so a change to a query that stops it from using an index fails here
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.gouenji.financeapp.repository.RecordIndexPlanTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RecordIndexPlanTest {
+
+    private static final String[] INCOME_CATEGORIES = Arrays.stream(IncomeCategory.values())
+            .map(Enum::name)
+            .toArray(String[]::new);
+    private static final String[] EXPENSE_CATEGORIES = Arrays.stream(ExpenseCategory.values())
+            .map(Enum::name)
+            .toArray(String[]::new);
+    private static final RecordCursor CURSOR = new RecordCursor(LocalDate.of(2025, 6, 1), 500);
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    private MonthlySummaryRepository monthlySummaryRepository;
+
+    private int userId;
+
+    @BeforeAll
+    void setUp() {
+        for(int user = 1; user <= 10; user++){
+            jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, 'USER')",
+                    "User" + user, "plan" + user + "@gmail.com", "1234");
+        }
+        List<Integer> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE 'plan%'", Integer.class);
+        userId = userIds.getFirst();
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        for(int i = 0; i < 2000; i++){
+            int recordUserId = userIds.get(i % userIds.size());
+            LocalDate recordDate = date.plusDays(i % 365);
+            rows.add(new Object[]{"INCOME", INCOME_CATEGORIES[i % INCOME_CATEGORIES.length], 1000, recordDate, recordUserId});
+            rows.add(new Object[]{"EXPENSE", EXPENSE_CATEGORIES[i % EXPENSE_CATEGORIES.length], 1000, recordDate, recordUserId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ledger_entries (kind, category, amount, date, user_id) VALUES (?, ?, ?, ?, ?)",
+                rows);
+        jdbcTemplate.update("INSERT INTO monthly_summary (user_id, kind, category, year_month, total, record_count) "
+                + "SELECT user_id, kind, category, DATE_TRUNC('MONTH', date), SUM(amount), COUNT(*) FROM ledger_entries "
+                + "GROUP BY user_id, kind, category, DATE_TRUNC('MONTH', date)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM monthly_summary");
+        jdbcTemplate.update("DELETE FROM ledger_entries");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'plan%'");
+    }
+
+    // H2 picks among the indexes led by user_id without weighing ORDER BY (PostgreSQL takes
+    // idx_ledger_entries_user_date for it), so this checks that the rows are found by an index lookup on
+    // user_id rather than through a scan or a join to users
+    @Test
+    void ledgerKeysetWindow_ShouldLookUpRowsByUserIndex() {
+        String plan = explainGenerated(() -> ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(
+                userId, RecordCursor.toScrollPosition(CURSOR), Limit.of(PAGE_SIZE + 1)));
+
+        assertThat(plan).containsPattern("/\\* PUBLIC\\.\\S+: USER_ID = \\?1 \\*/")
+                .doesNotContainIgnoringCase("JOIN");
+    }
+
+    @Test
+    void incomeAndExpenseKeysetWindows_ShouldUseUserKindDateIndex() {
+        String incomePlan = explainGenerated(() -> incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userId, RecordCursor.toScrollPosition(CURSOR), Limit.of(PAGE_SIZE + 1)));
+        String expensePlan = explainGenerated(() -> expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userId, RecordCursor.toScrollPosition(CURSOR), Limit.of(PAGE_SIZE + 1)));
+
+        assertThat(incomePlan).containsIgnoringCase("idx_ledger_entries_user_kind_date");
+        assertThat(expensePlan).containsIgnoringCase("idx_ledger_entries_user_kind_date");
+    }
+
+    @Test
+    void filteredCategoryPage_ShouldUseUserKindCategoryDateIndex() {
+        String scrollPlan = explainGenerated(() -> incomeRecordRepository.scrollFiltered(
+                userId, RecordFilter.of(IncomeCategory.SALARY), CURSOR, PAGE_SIZE));
+        String totalsPlan = explainGenerated(() -> expenseRecordRepository.findFiltered(
+                userId, RecordFilter.of(ExpenseCategory.FOOD), null, PAGE_SIZE));
+
+        assertThat(scrollPlan).containsIgnoringCase("idx_ledger_entries_user_kind_category_date");
+        assertThat(totalsPlan).containsIgnoringCase("idx_ledger_entries_user_kind_category_date");
+    }
+
+    @Test
+    void filteredDateRange_ShouldUseUserKindDateIndex() {
+        RecordFilter<IncomeCategory> march = new RecordFilter<>(Set.<IncomeCategory>of(),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), null, null);
+
+        String plan = explainGenerated(() -> incomeRecordRepository.findFiltered(userId, march, null, PAGE_SIZE));
+
+        assertThat(plan).containsIgnoringCase("idx_ledger_entries_user_kind_date");
+    }
+
+    @Test
+    void monthSummaryTotals_ShouldUseMonthlySummaryUniqueIndex() {
+        String plan = explainGenerated(() -> monthlySummaryRepository.sumGroupedByCategory(
+                userId, RecordKind.EXPENSE, LocalDate.of(2025, 3, 1)));
+
+        assertThat(plan).containsIgnoringCase("uq_monthly_summary_user_kind_category_month");
+    }
+
+    // The plan depends on the predicates and the indexes, not on the bound values, so the placeholders are
+    // bound to NULL
+    private String explainGenerated(Runnable repositoryCall) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        repositoryCall.run();
+        List<String> selects = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+                .toList();
+        assertThat(selects).hasSize(1);
+        String sql = selects.getFirst();
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+        assertThat(plan).doesNotContain("tableScan");
+        return plan;
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.gouenji.financeapp.repository;
+
+import jakarta.persistence.EntityManager;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void incrementTokenVersion_ShouldBumpStoredVersion() {
+        User userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+        entityManager.flush();
+
+        assertThat(userRepository.findTokenVersionById(userTest.getId())).contains(0);
+
+        assertThat(userRepository.incrementTokenVersion(userTest.getId())).isEqualTo(1);
+
+        assertThat(userRepository.findTokenVersionById(userTest.getId())).contains(1);
+    }
+
+    @Test
+    void findTokenVersionById_ShouldBeEmpty_WhenUserDoesNotExist() {
+        assertThat(userRepository.findTokenVersionById(-1)).isEmpty();
+    }
+
+    @Test
+    void incrementLedgerVersion_ShouldBumpStoredVersion_AndSurviveLaterUserUpdates() {
+        User userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+        entityManager.flush();
+
+        assertThat(userRepository.findLedgerVersionById(userTest.getId())).contains(0L);
+
+        assertThat(userRepository.incrementLedgerVersion(userTest.getId())).isEqualTo(1);
+        userTest.setName("Ivan Ivanov");
+        userRepository.save(userTest);
+        entityManager.flush();
+
+        assertThat(userRepository.findLedgerVersionById(userTest.getId())).contains(1L);
+    }
+}
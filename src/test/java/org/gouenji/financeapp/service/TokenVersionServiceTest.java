@@ -0,0 +1,56 @@
+package org.gouenji.financeapp.service;
+
+import org.gouenji.financeapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionService(userRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void isCurrent_ShouldCompareWithStoredVersionAndCacheIt() {
+        when(userRepository.findTokenVersionById(1)).thenReturn(Optional.of(2));
+
+        assertThat(tokenVersionService.isCurrent(1, 2)).isTrue();
+        assertThat(tokenVersionService.isCurrent(1, 1)).isFalse();
+        verify(userRepository, times(1)).findTokenVersionById(1);
+    }
+
+    @Test
+    void isCurrent_ShouldReturnFalse_WhenUserDoesNotExist() {
+        when(userRepository.findTokenVersionById(7)).thenReturn(Optional.empty());
+
+        assertThat(tokenVersionService.isCurrent(7, 0)).isFalse();
+    }
+
+    @Test
+    void revoke_ShouldIncrementVersionAndDropCachedValue() {
+        when(userRepository.findTokenVersionById(1)).thenReturn(Optional.of(0), Optional.of(1));
+
+        assertThat(tokenVersionService.isCurrent(1, 0)).isTrue();
+        tokenVersionService.revoke(1);
+
+        assertThat(tokenVersionService.isCurrent(1, 0)).isFalse();
+        verify(userRepository).incrementTokenVersion(1);
+        verify(userRepository, times(2)).findTokenVersionById(1);
+    }
+}
@@ -1,6 +1,7 @@
 package org.gouenji.financeapp.service;
 
 
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
 import org.gouenji.financeapp.repository.UserRepository;
@@ -11,13 +12,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.Collections;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -78,6 +82,8 @@ public class UserServiceTest {
         assertThat(userDetails.getAuthorities())
                 .extracting("authority")
                 .containsExactly("ROLE_USER");
+        assertThat(userDetails).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) userDetails).getId()).isEqualTo(this.userTest.getId());
         verify(userRepository).findByEmailIgnoreCase(this.userTest.getEmail());
     }
 
@@ -158,6 +164,31 @@ public class UserServiceTest {
         verify(userRepository).findByEmailIgnoreCase("another@gmail.com");
     }
 
+    @Test
+    void getCurrentUserId_ShouldReturnPrincipalId_WithoutQueryingRepository() {
+
+        SecurityContextHolder.getContext().setAuthentication(authenticatedAs(this.userTest));
+
+        int id = userService.getCurrentUserId();
+
+        assertThat(id).isEqualTo(1);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getCurrentUser_ShouldReturnReference_WhenPrincipalIsAuthenticatedUser() {
+
+        SecurityContextHolder.getContext().setAuthentication(authenticatedAs(this.userTest));
+
+        when(userRepository.getReferenceById(this.userTest.getId())).thenReturn(this.userTest);
+
+        User currentUser = userService.getCurrentUser();
+
+        assertThat(currentUser).isSameAs(this.userTest);
+        verify(userRepository).getReferenceById(this.userTest.getId());
+        verify(userRepository, never()).findByEmailIgnoreCase(anyString());
+    }
+
     @Test
     void save_ShouldCallRepositorySave(){
         userService.save(userTest);
@@ -165,4 +196,14 @@ public class UserServiceTest {
         verify(userRepository).save(userTest);
     }
 
+    private static UsernamePasswordAuthenticationToken authenticatedAs(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getTokenVersion(),
+                Collections.singleton(user.getUserRole().toAuthority())
+        );
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
 }
@@ -0,0 +1,149 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.Dashboard;
+import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardServiceTest {
+
+    @Mock
+    private IncomeRecordService incomeRecordService;
+
+    @Mock
+    private ExpenseRecordService expenseRecordService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private DashboardService dashboardService;
+
+    private IncomeRecordsContainer income;
+    private ExpenseRecordsContainer expense;
+    private LedgerPage recent;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(incomeRecordService, expenseRecordService, ledgerService, 3, false);
+        income = IncomeRecordsContainer.builder().records(List.of()).total(10000).count(2).build();
+        expense = ExpenseRecordsContainer.builder().records(List.of()).total(2500).count(3).build();
+        recent = new LedgerPage(List.of(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void assemble_ShouldFetchSummariesAndRecentRecordsConcurrently() {
+        // Every part waits for the other two, so a sequential fetch would time out here
+        CyclicBarrier allStarted = new CyclicBarrier(3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        RecordCursor cursor = new RecordCursor(LocalDate.of(2025, 3, 1), 7);
+        when(incomeRecordService.findSummary()).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.await(5, TimeUnit.SECONDS);
+            return income;
+        });
+        when(expenseRecordService.findSummary()).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.await(5, TimeUnit.SECONDS);
+            return expense;
+        });
+        when(ledgerService.findRecent(cursor)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.await(5, TimeUnit.SECONDS);
+            return recent;
+        });
+
+        Dashboard dashboard = dashboardService.assemble(cursor);
+
+        assertThat(dashboard.income()).isSameAs(income);
+        assertThat(dashboard.expense()).isSameAs(expense);
+        assertThat(dashboard.recent()).isSameAs(recent);
+        assertThat(dashboard.getBalance()).isEqualTo(7500);
+        assertThat(dashboard.getRecordsCount()).isEqualTo(5);
+        assertThat(threads).hasSize(3).allMatch(name -> name.startsWith("dashboard-fetch-"));
+    }
+
+    @Test
+    void assemble_ShouldFetchOnVirtualThreads_WhenVirtualThreadsAreEnabled() {
+        dashboardService.shutdown();
+        dashboardService = new DashboardService(incomeRecordService, expenseRecordService, ledgerService, 3, true);
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        when(incomeRecordService.findSummary()).thenAnswer(invocation -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            return income;
+        });
+        when(expenseRecordService.findSummary()).thenAnswer(invocation -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            return expense;
+        });
+        when(ledgerService.findRecent(null)).thenAnswer(invocation -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            return recent;
+        });
+
+        dashboardService.assemble(null);
+
+        assertThat(virtual).containsExactly(true);
+    }
+
+    @Test
+    void assemble_ShouldRunEveryPartWithCallersSecurityContext() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("test@gmail.com", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        Set<Authentication> seen = ConcurrentHashMap.newKeySet();
+        when(incomeRecordService.findSummary()).thenAnswer(invocation -> {
+            seen.add(SecurityContextHolder.getContext().getAuthentication());
+            return income;
+        });
+        when(expenseRecordService.findSummary()).thenAnswer(invocation -> {
+            seen.add(SecurityContextHolder.getContext().getAuthentication());
+            return expense;
+        });
+        when(ledgerService.findRecent(null)).thenAnswer(invocation -> {
+            seen.add(SecurityContextHolder.getContext().getAuthentication());
+            return recent;
+        });
+
+        dashboardService.assemble(null);
+
+        assertThat(seen).containsExactly(authentication);
+    }
+
+    @Test
+    void assemble_ShouldRethrowFailureOfAnyPart() {
+        when(incomeRecordService.findSummary()).thenReturn(income);
+        when(expenseRecordService.findSummary()).thenThrow(new IllegalStateException("Database is down"));
+        when(ledgerService.findRecent(null)).thenReturn(recent);
+
+        assertThatThrownBy(() -> dashboardService.assemble(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Database is down");
+    }
+}
@@ -1,28 +1,52 @@
 package org.gouenji.financeapp.service.records;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
 import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordFilterForm;
+import org.gouenji.financeapp.dto.records.RecordsPage;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
 import org.gouenji.financeapp.entity.records.ExpenseRecord;
 import org.gouenji.financeapp.repository.ExpenseRecordRepository;
 import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.util.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,6 +59,19 @@ public class ExpenseRecordServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private MonthlySummaryService monthlySummaryService;
+
+    @Mock
+    private LedgerCacheService ledgerCacheService;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    // disabled: every read goes straight to the loader
+    @Spy
+    private LedgerQueryCache ledgerQueryCache = new LedgerQueryCache(null, 0, Duration.ZERO);
+
     @InjectMocks
     private ExpenseRecordService expenseRecordService;
 
@@ -55,7 +92,7 @@ public class ExpenseRecordServiceTest {
 
         expenseRecordTest1 = new ExpenseRecord(
                 ExpenseCategory.FUN,
-                15.0,
+                1500,
                 LocalDate.now(),
                 "Парк",
                 userTest
@@ -64,7 +101,7 @@ public class ExpenseRecordServiceTest {
 
         expenseRecordTest2 = new ExpenseRecord(
                 ExpenseCategory.FUN,
-                30.0,
+                3000,
                 LocalDate.now(),
                 "Прогулка",
                 userTest
@@ -73,7 +110,7 @@ public class ExpenseRecordServiceTest {
 
         expenseRecordTest3 = new ExpenseRecord(
                 ExpenseCategory.FOOD,
-                5.0,
+                500,
                 LocalDate.now().minusDays(30),
                 "Хот дог",
                 userTest
@@ -86,24 +123,20 @@ public class ExpenseRecordServiceTest {
         List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
         List<ExpenseRecord> mockMonthRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(expenseRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(expenseRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
+        long expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
 
 
-        ExpenseRecordsContainer container = expenseRecordService.findAll(null);
+        ExpenseRecordsContainer container = expenseRecordService.findAll(RecordFilter.all(), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -115,23 +148,19 @@ public class ExpenseRecordServiceTest {
         List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
         List<ExpenseRecord> mockMonthRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(expenseRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(expenseRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
+        long expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
 
-        ExpenseRecordsContainer container = expenseRecordService.findAll("");
+        ExpenseRecordsContainer container = expenseRecordService.findAll(filterOf(""), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -143,23 +172,19 @@ public class ExpenseRecordServiceTest {
         List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
         List<ExpenseRecord> mockMonthRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(expenseRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(expenseRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
+        long expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
 
-        ExpenseRecordsContainer container = expenseRecordService.findAll("All categories");
+        ExpenseRecordsContainer container = expenseRecordService.findAll(filterOf("All categories"), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -171,33 +196,71 @@ public class ExpenseRecordServiceTest {
         List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
         List<ExpenseRecord> mockMonthRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(expenseRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(expenseRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
 
         List<ExpenseRecord> expectedFilteredRecords = mockAllRecords.stream()
                 .filter(record -> record.getCategory() == ExpenseCategory.FUN)
                 .toList();
-        double expectedFilteredTotal = expectedFilteredRecords.stream()
-                .mapToDouble(ExpenseRecord::getAmount)
+        when(expenseRecordRepository.scrollFiltered(
+                userTest.getId(), RecordFilter.of(ExpenseCategory.FUN), null, ExpenseRecordService.PAGE_SIZE))
+                .thenReturn(lastWindow(expectedFilteredRecords));
+        long expectedFilteredTotal = expectedFilteredRecords.stream()
+                .mapToLong(ExpenseRecord::getAmount)
                 .sum();
-        double expectedFilteredAverageTotal = Math.round(expectedFilteredTotal / 12 * 100) / 100.0;
-        double expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
-        double expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
+        long expectedFilteredAverageTotal = Money.divide(expectedFilteredTotal, 12);
+        long expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
+        long expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
 
-        ExpenseRecordsContainer container = expenseRecordService.findAll("FUN");
+        ExpenseRecordsContainer container = expenseRecordService.findAll(RecordFilter.of(ExpenseCategory.FUN), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(expectedFilteredRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(expectedFilteredRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getFilteredTotal()).isEqualTo(expectedFilteredTotal);
-        assertThat(container.getAverageTotal()).isEqualTo(expectedFilteredAverageTotal);
+        assertThat(container.getFilteredAverageTotal()).isEqualTo(expectedFilteredAverageTotal);
+        assertThat(container.getFilteredCount()).isEqualTo(expectedFilteredRecords.size());
+        assertThat(container.getCount()).isEqualTo(3);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
+        verify(expenseRecordRepository, never()).findFiltered(anyInt(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findAll_ShouldReturnSelectedSubsetTotalsFromSummaries_WhenSeveralCategoriesAreSelected() {
+        List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<>(EnumSet.of(ExpenseCategory.FOOD, ExpenseCategory.FUN),
+                null, null, null, null);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+        when(expenseRecordRepository.scrollFiltered(userTest.getId(), filter, null, ExpenseRecordService.PAGE_SIZE))
+                .thenReturn(lastWindow(mockAllRecords));
+
+        ExpenseRecordsContainer container = expenseRecordService.findAll(filter, null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredCount()).isEqualTo(3);
+        assertThat(container.getCount()).isEqualTo(3);
+        verify(expenseRecordRepository, never()).findFiltered(anyInt(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findAll_ShouldReturnAllExpenseRecordsContainer_WhenEveryCategoryIsSelected() {
+        List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
+
+        ExpenseRecordsContainer container = expenseRecordService.findAll(
+                new RecordFilter<>(EnumSet.allOf(ExpenseCategory.class), null, null, null, null), null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isNull();
+        assertThat(container.getFilteredCount()).isNull();
     }
 
     @Test
@@ -205,23 +268,19 @@ public class ExpenseRecordServiceTest {
         List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
         List<ExpenseRecord> mockMonthRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(expenseRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(expenseRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
+        long expectedTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount() + expenseRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = expenseRecordTest1.getAmount() + expenseRecordTest2.getAmount();
 
-        ExpenseRecordsContainer container = expenseRecordService.findAll("INVALID_CATEGORY");
+        ExpenseRecordsContainer container = expenseRecordService.findAll(filterOf("INVALID_CATEGORY"), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -231,47 +290,152 @@ public class ExpenseRecordServiceTest {
     @Test
     void findAll_ShouldReturnEmptyContainer_WhenNoRecordsExist() {
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(expenseRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(List.of());
-        when(expenseRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(List.of());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(List.of(), List.of()));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(List.of()));
 
-        ExpenseRecordsContainer container = expenseRecordService.findAll(null);
+        ExpenseRecordsContainer container = expenseRecordService.findAll(RecordFilter.all(), null);
 
 
         assertThat(container).isNotNull();
         assertThat(container.getRecords()).isEmpty();
-        assertThat(container.getTotal()).isEqualTo(0.0);
-        assertThat(container.getAverageTotal()).isEqualTo(0.0);
-        assertThat(container.getMonthTotal()).isEqualTo(0.0);
+        assertThat(container.getTotal()).isEqualTo(0);
+        assertThat(container.getAverageTotal()).isEqualTo(0);
+        assertThat(container.getMonthTotal()).isEqualTo(0);
         assertThat(container.getFilteredTotal()).isNull();
     }
 
 
+    @Test
+    void findAll_ShouldReturnNextCursor_WhenMoreRecordsExist() {
+        List<ExpenseRecord> mockPage = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
+        RecordCursor cursor = new RecordCursor(LocalDate.now().plusDays(1), 10);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3), mockPage));
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(),
+                RecordCursor.toScrollPosition(cursor),
+                Limit.of(ExpenseRecordService.PAGE_SIZE)))
+                .thenReturn(Window.from(viewsOf(mockPage), ScrollPosition::offset, true));
+
+        ExpenseRecordsContainer container = expenseRecordService.findAll(RecordFilter.all(), cursor);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockPage));
+        assertThat(container.getCount()).isEqualTo(3);
+        assertThat(container.hasNextCursor()).isTrue();
+        assertThat(container.getNextCursor()).isEqualTo(RecordCursor.of(expenseRecordTest2));
+    }
+
+    @Test
+    void findAll_ShouldReadSummaryAndPageFromLedgerCache_WhenEnabled() {
+        List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
+        List<ExpenseRecord> mockFilteredRecords = List.of(expenseRecordTest3);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(ledgerCacheService.isCached(userTest.getId(), RecordKind.EXPENSE)).thenReturn(true);
+        when(ledgerCacheService.summarize(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+        when(ledgerCacheService.filterExpense(userTest.getId(), RecordFilter.of(ExpenseCategory.FOOD), null, ExpenseRecordService.PAGE_SIZE))
+                .thenReturn(filtered(mockFilteredRecords));
+
+        ExpenseRecordsContainer container = expenseRecordService.findAll(RecordFilter.of(ExpenseCategory.FOOD), null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockFilteredRecords));
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isEqualTo(sumOf(mockFilteredRecords));
+        assertThat(container.getFilteredCount()).isEqualTo(1);
+        assertThat(container.getCount()).isEqualTo(3);
+        verifyNoInteractions(expenseRecordRepository, monthlySummaryService);
+    }
+
+    @Test
+    void findSummary_ShouldReturnTotalsWithoutFetchingRecords() {
+        List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+
+        ExpenseRecordsContainer container = expenseRecordService.findSummary();
+
+        assertThat(container.getRecords()).isEmpty();
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getCount()).isEqualTo(3);
+        assertThat(container.hasNextCursor()).isFalse();
+        verify(expenseRecordRepository, never()).findByUserIdOrderByDateDescIdDesc(anyInt(), any(), any());
+    }
+
+    @Test
+    void findPage_ShouldReturnRecordDtosWithoutNextCursor_WhenLastPage() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(List.of(expenseRecordTest1)));
+
+        RecordsPage page = expenseRecordService.findPage(RecordFilter.all(), null);
+
+        assertThat(page.records()).containsExactly(RecordDto.of(expenseRecordTest1));
+        assertThat(page.records().getFirst().type()).isEqualTo("EXPENSE");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void findAll_ShouldReturnFilteredRowsAndTotalsFromOneQuery_WhenDateAndAmountRangeIsSet() {
+        List<ExpenseRecord> mockAllRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2, expenseRecordTest3);
+        List<ExpenseRecord> mockFilteredRecords = Arrays.asList(expenseRecordTest1, expenseRecordTest2);
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<ExpenseCategory>(Set.of(),
+                LocalDate.now().minusDays(7), LocalDate.now(), 1000L, null);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockFilteredRecords));
+        when(expenseRecordRepository.findFiltered(userTest.getId(), filter, null, ExpenseRecordService.PAGE_SIZE))
+                .thenReturn(filtered(mockFilteredRecords));
+
+        ExpenseRecordsContainer container = expenseRecordService.findAll(filter, null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockFilteredRecords));
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isEqualTo(sumOf(mockFilteredRecords));
+        assertThat(container.getFilteredAverageTotal()).isEqualTo(Money.divide(sumOf(mockFilteredRecords), 12));
+        assertThat(container.getFilteredCount()).isEqualTo(2);
+        assertThat(container.getCount()).isEqualTo(3);
+        verify(expenseRecordRepository, never()).findByUserIdOrderByDateDescIdDesc(anyInt(), any(), any());
+    }
+
+    @Test
+    void findPage_ShouldScrollFilteredRecords_WhenFilterIsSet() {
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<ExpenseCategory>(Set.of(), null, null, null, 20000L);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.scrollFiltered(userTest.getId(), filter, null, ExpenseRecordService.PAGE_SIZE))
+                .thenReturn(Window.from(viewsOf(List.of(expenseRecordTest1)), ScrollPosition::offset, true));
+
+        RecordsPage page = expenseRecordService.findPage(filter, null);
+
+        assertThat(page.records()).containsExactly(RecordDto.of(expenseRecordTest1));
+        assertThat(page.nextCursor()).isEqualTo(RecordCursor.of(expenseRecordTest1).encode());
+    }
+
     @Test
     void findRecord_ShouldReturnExpenseRecord_WhenRecordExists() {
-        when(expenseRecordRepository.findById(expenseRecordTest1.getId()))
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findByIdAndUserId(expenseRecordTest1.getId(), userTest.getId()))
                 .thenReturn(Optional.of(expenseRecordTest1));
 
         ExpenseRecord expenseRecord = expenseRecordService.findRecord(expenseRecordTest1.getId());
 
         assertThat(expenseRecord).isEqualTo(expenseRecordTest1);
-        verify(expenseRecordRepository).findById(expenseRecordTest1.getId());
+        verify(expenseRecordRepository).findByIdAndUserId(expenseRecordTest1.getId(), userTest.getId());
     }
 
     @Test
-    void findRecord_ShouldThrowException_WhenRecordDoesNotExist() {
-        when(expenseRecordRepository.findById(expenseRecordTest2.getId()))
+    void findRecord_ShouldThrowException_WhenRecordDoesNotExistOrBelongsToAnotherUser() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findByIdAndUserId(expenseRecordTest2.getId(), userTest.getId()))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> expenseRecordService.findRecord(expenseRecordTest2.getId()))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("Expense record not found with id: " + expenseRecordTest2.getId());
-        verify(expenseRecordRepository).findById(expenseRecordTest2.getId());
+        verify(expenseRecordRepository).findByIdAndUserId(expenseRecordTest2.getId(), userTest.getId());
     }
 
     @Test
@@ -285,35 +449,45 @@ public class ExpenseRecordServiceTest {
                 expenseRecordTest1.getDescription());
 
         verify(expenseRecordRepository).save(any(ExpenseRecord.class));
+        verify(monthlySummaryService).add(userTest.getId(), RecordKind.EXPENSE, expenseRecordTest1.getCategory(),
+                expenseRecordTest1.getDate(), expenseRecordTest1.getAmount());
+        verify(ledgerCacheService).put(eq(userTest.getId()), eq(RecordKind.EXPENSE), any(ExpenseRecord.class));
+        verify(ledgerVersionService).bump(userTest.getId());
     }
 
     @Test
-    void updateRecord_ShouldUpdateFieldsAndSave_WhenRecordExists() {
-
-        when(expenseRecordRepository.findById(expenseRecordTest1.getId()))
-                .thenReturn(Optional.of(expenseRecordTest1));
+    void updateRecord_ShouldUpdateOwnedRecordInOneStatement_WhenRecordExists() {
+        int id = expenseRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(expenseRecordTest1)));
+        when(expenseRecordRepository.updateOwned(id, userTest.getId(), expenseRecordTest2.getCategory(),
+                expenseRecordTest2.getAmount(), expenseRecordTest2.getDate(), expenseRecordTest2.getDescription())).thenReturn(1);
 
         expenseRecordService.updateRecord(
-                expenseRecordTest1.getId(),
+                id,
                 expenseRecordTest2.getCategory(),
                 expenseRecordTest2.getAmount(),
                 expenseRecordTest2.getDate(),
                 expenseRecordTest2.getDescription()
         );
 
-        assertThat(expenseRecordTest1.getCategory()).isEqualTo(expenseRecordTest2.getCategory());
-        assertThat(expenseRecordTest1.getAmount()).isEqualTo(expenseRecordTest2.getAmount());
-        assertThat(expenseRecordTest1.getDate()).isEqualTo(expenseRecordTest2.getDate());
-        assertThat(expenseRecordTest1.getDescription()).isEqualTo(expenseRecordTest2.getDescription());
-
-        verify(expenseRecordRepository).findById(expenseRecordTest1.getId());
-        verify(expenseRecordRepository).save(expenseRecordTest1);
-
+        verify(expenseRecordRepository).updateOwned(id, userTest.getId(), expenseRecordTest2.getCategory(),
+                expenseRecordTest2.getAmount(), expenseRecordTest2.getDate(), expenseRecordTest2.getDescription());
+        verify(expenseRecordRepository, never()).save(any(ExpenseRecord.class));
+        verify(monthlySummaryService).move(userTest.getId(), RecordKind.EXPENSE,
+                expenseRecordTest1.getCategory(), expenseRecordTest1.getDate(), expenseRecordTest1.getAmount(),
+                expenseRecordTest2.getCategory(), expenseRecordTest2.getDate(), expenseRecordTest2.getAmount());
+        verify(ledgerCacheService).put(userTest.getId(), RecordKind.EXPENSE,
+                new ExpenseRecordView(id, expenseRecordTest2.getCategory(), expenseRecordTest2.getAmount(),
+                        expenseRecordTest2.getDate(), expenseRecordTest2.getDescription()));
+        verify(ledgerVersionService).bump(userTest.getId());
     }
 
     @Test
-    void updateRecord_ShouldThrowException_WhenRecordDoesNotExist() {
-        when(expenseRecordRepository.findById(expenseRecordTest2.getId()))
+    void updateRecord_ShouldThrowException_WhenRecordDoesNotExistOrBelongsToAnotherUser() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findViewByIdAndUserId(expenseRecordTest2.getId(), userTest.getId()))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> expenseRecordService.updateRecord(
@@ -325,15 +499,115 @@ public class ExpenseRecordServiceTest {
         ))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("Expense record not found with id: " + expenseRecordTest2.getId());
-        verify(expenseRecordRepository).findById(expenseRecordTest2.getId());
+        verify(expenseRecordRepository, never()).updateOwned(anyInt(), anyInt(), any(), anyLong(), any(), any());
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
     }
 
     @Test
-    void deleteRecord_ShouldCallIncomeRepository() {
-        expenseRecordService.deleteRecord(expenseRecordTest1.getId());
+    void updateRecord_ShouldThrowAndLeaveSummaryAndCaches_WhenNoRowIsUpdated() {
+        int id = expenseRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(expenseRecordTest1)));
+        when(expenseRecordRepository.updateOwned(id, userTest.getId(), expenseRecordTest2.getCategory(),
+                expenseRecordTest2.getAmount(), expenseRecordTest2.getDate(), expenseRecordTest2.getDescription())).thenReturn(0);
 
-        verify(expenseRecordRepository).deleteById(expenseRecordTest1.getId());
+        assertThatThrownBy(() -> expenseRecordService.updateRecord(
+                id,
+                expenseRecordTest2.getCategory(),
+                expenseRecordTest2.getAmount(),
+                expenseRecordTest2.getDate(),
+                expenseRecordTest2.getDescription()
+        ))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Expense record not found with id: " + id);
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
     }
 
-}
+    @Test
+    void deleteRecord_ShouldDeleteOwnedRecordAndUpdateSummary_WhenRecordExists() {
+        int id = expenseRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(expenseRecordTest1)));
+        when(expenseRecordRepository.deleteOwned(id, userTest.getId())).thenReturn(1);
+
+        assertThat(expenseRecordService.deleteRecord(id)).isTrue();
+
+        verify(expenseRecordRepository).deleteOwned(id, userTest.getId());
+        verify(expenseRecordRepository, never()).delete(any(ExpenseRecord.class));
+        verify(monthlySummaryService).remove(userTest.getId(), RecordKind.EXPENSE, expenseRecordTest1.getCategory(),
+                expenseRecordTest1.getDate(), expenseRecordTest1.getAmount());
+        verify(ledgerCacheService).remove(userTest.getId(), RecordKind.EXPENSE, id);
+        verify(ledgerVersionService).bump(userTest.getId());
+    }
+
+    @Test
+    void deleteRecord_ShouldReturnFalseAndLeaveSummaryAndCaches_WhenNoRowIsDeleted() {
+        int id = expenseRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(expenseRecordTest1)));
+        when(expenseRecordRepository.deleteOwned(id, userTest.getId())).thenReturn(0);
 
+        assertThat(expenseRecordService.deleteRecord(id)).isFalse();
+
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
+    }
+
+    @Test
+    void deleteRecord_ShouldDoNothing_WhenRecordDoesNotExistOrBelongsToAnotherUser() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(expenseRecordRepository.findViewByIdAndUserId(expenseRecordTest1.getId(), userTest.getId()))
+                .thenReturn(Optional.empty());
+
+        assertThat(expenseRecordService.deleteRecord(expenseRecordTest1.getId())).isFalse();
+
+        verify(expenseRecordRepository, never()).deleteOwned(anyInt(), anyInt());
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
+    }
+
+    private static RecordFilter<ExpenseCategory> filterOf(String category) {
+        return new RecordFilterForm(List.of(category), null, null, null, null).toFilter(ExpenseCategory.class);
+    }
+
+    private static FilteredRecords<ExpenseRecordView> filtered(List<ExpenseRecord> records) {
+        return new FilteredRecords<>(lastWindow(records), sumOf(records), records.size());
+    }
+
+    private static Window<ExpenseRecordView> lastWindow(List<ExpenseRecord> records) {
+        return Window.from(viewsOf(records), ScrollPosition::offset);
+    }
+
+    private static ExpenseRecordView viewOf(ExpenseRecord record) {
+        return new ExpenseRecordView(record.getId(), record.getCategory(), record.getAmount(),
+                record.getDate(), record.getDescription());
+    }
+
+    private static List<ExpenseRecordView> viewsOf(List<ExpenseRecord> records) {
+        return records.stream()
+                .map(record -> new ExpenseRecordView(record.getId(), record.getCategory(), record.getAmount(),
+                        record.getDate(), record.getDescription()))
+                .toList();
+    }
+
+    private static List<CategorySummary> categorySummaries(List<ExpenseRecord> records,
+                                                           List<ExpenseRecord> monthRecords) {
+        return records.stream()
+                .collect(Collectors.groupingBy(ExpenseRecord::getCategory))
+                .entrySet().stream()
+                .map(entry -> new CategorySummary(entry.getKey().name(),
+                        sumOf(entry.getValue()),
+                        entry.getValue().size(),
+                        sumOf(monthRecords.stream()
+                                .filter(record -> record.getCategory() == entry.getKey())
+                                .toList())))
+                .toList();
+    }
+
+    private static long sumOf(List<ExpenseRecord> records) {
+        return records.stream()
+                .mapToLong(ExpenseRecord::getAmount)
+                .sum();
+    }
+}
@@ -1,28 +1,52 @@
 package org.gouenji.financeapp.service.records;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
 import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordDto;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.dto.records.RecordFilterForm;
+import org.gouenji.financeapp.dto.records.RecordsPage;
 import org.gouenji.financeapp.entity.User;
 import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
 import org.gouenji.financeapp.entity.enums.users.UserRole;
 import org.gouenji.financeapp.entity.records.IncomeRecord;
 import org.gouenji.financeapp.repository.IncomeRecordRepository;
 import org.gouenji.financeapp.service.UserService;
+import org.gouenji.financeapp.util.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,6 +59,19 @@ public class IncomeRecordServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private MonthlySummaryService monthlySummaryService;
+
+    @Mock
+    private LedgerCacheService ledgerCacheService;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    // disabled: every read goes straight to the loader
+    @Spy
+    private LedgerQueryCache ledgerQueryCache = new LedgerQueryCache(null, 0, Duration.ZERO);
+
     @InjectMocks
     private IncomeRecordService incomeRecordService;
 
@@ -55,7 +92,7 @@ public class IncomeRecordServiceTest {
 
         incomeRecordTest1 = new IncomeRecord(
                 IncomeCategory.BONUS,
-                125.0,
+                12500,
                 LocalDate.now(),
                 "Премия",
                 userTest
@@ -64,7 +101,7 @@ public class IncomeRecordServiceTest {
 
         incomeRecordTest2 = new IncomeRecord(
                 IncomeCategory.SALARY,
-                300.0,
+                30000,
                 LocalDate.now(),
                 "Зп",
                 userTest
@@ -73,7 +110,7 @@ public class IncomeRecordServiceTest {
 
         incomeRecordTest3 = new IncomeRecord(
                 IncomeCategory.SALARY,
-                300.0,
+                30000,
                 LocalDate.now().minusDays(30),
                 "Зп",
                 userTest
@@ -86,24 +123,20 @@ public class IncomeRecordServiceTest {
         List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
         List<IncomeRecord> mockMonthRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(incomeRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(incomeRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
+        long expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
 
 
-        IncomeRecordsContainer container = incomeRecordService.findAll(null);
+        IncomeRecordsContainer container = incomeRecordService.findAll(RecordFilter.all(), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -115,23 +148,19 @@ public class IncomeRecordServiceTest {
         List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
         List<IncomeRecord> mockMonthRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(incomeRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(incomeRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
+        long expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
 
-        IncomeRecordsContainer container = incomeRecordService.findAll("");
+        IncomeRecordsContainer container = incomeRecordService.findAll(filterOf(""), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -143,23 +172,19 @@ public class IncomeRecordServiceTest {
         List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
         List<IncomeRecord> mockMonthRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(incomeRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(incomeRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
+        long expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
 
-        IncomeRecordsContainer container = incomeRecordService.findAll("All categories");
+        IncomeRecordsContainer container = incomeRecordService.findAll(filterOf("All categories"), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -171,33 +196,71 @@ public class IncomeRecordServiceTest {
         List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
         List<IncomeRecord> mockMonthRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(incomeRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(incomeRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
 
         List<IncomeRecord> expectedFilteredRecords = mockAllRecords.stream()
                 .filter(record -> record.getCategory() == IncomeCategory.SALARY)
                 .toList();
-        double expectedFilteredTotal = expectedFilteredRecords.stream()
-                .mapToDouble(IncomeRecord::getAmount)
+        when(incomeRecordRepository.scrollFiltered(
+                userTest.getId(), RecordFilter.of(IncomeCategory.SALARY), null, IncomeRecordService.PAGE_SIZE))
+                .thenReturn(lastWindow(expectedFilteredRecords));
+        long expectedFilteredTotal = expectedFilteredRecords.stream()
+                .mapToLong(IncomeRecord::getAmount)
                 .sum();
-        double expectedFilteredAverageTotal = Math.round(expectedFilteredTotal / 12 * 100) / 100.0;
-        double expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
-        double expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
+        long expectedFilteredAverageTotal = Money.divide(expectedFilteredTotal, 12);
+        long expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
+        long expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
 
-        IncomeRecordsContainer container = incomeRecordService.findAll("SALARY");
+        IncomeRecordsContainer container = incomeRecordService.findAll(RecordFilter.of(IncomeCategory.SALARY), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(expectedFilteredRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(expectedFilteredRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getFilteredTotal()).isEqualTo(expectedFilteredTotal);
-        assertThat(container.getAverageTotal()).isEqualTo(expectedFilteredAverageTotal);
+        assertThat(container.getFilteredAverageTotal()).isEqualTo(expectedFilteredAverageTotal);
+        assertThat(container.getFilteredCount()).isEqualTo(expectedFilteredRecords.size());
+        assertThat(container.getCount()).isEqualTo(3);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
+        verify(incomeRecordRepository, never()).findFiltered(anyInt(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findAll_ShouldReturnSelectedSubsetTotalsFromSummaries_WhenSeveralCategoriesAreSelected() {
+        List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
+        RecordFilter<IncomeCategory> filter = new RecordFilter<>(EnumSet.of(IncomeCategory.SALARY, IncomeCategory.BONUS),
+                null, null, null, null);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+        when(incomeRecordRepository.scrollFiltered(userTest.getId(), filter, null, IncomeRecordService.PAGE_SIZE))
+                .thenReturn(lastWindow(mockAllRecords));
+
+        IncomeRecordsContainer container = incomeRecordService.findAll(filter, null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredCount()).isEqualTo(3);
+        assertThat(container.getCount()).isEqualTo(3);
+        verify(incomeRecordRepository, never()).findFiltered(anyInt(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findAll_ShouldReturnAllIncomeRecordsContainer_WhenEveryCategoryIsSelected() {
+        List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
+
+        IncomeRecordsContainer container = incomeRecordService.findAll(
+                new RecordFilter<>(EnumSet.allOf(IncomeCategory.class), null, null, null, null), null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isNull();
+        assertThat(container.getFilteredCount()).isNull();
     }
 
     @Test
@@ -205,23 +268,19 @@ public class IncomeRecordServiceTest {
         List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
         List<IncomeRecord> mockMonthRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(incomeRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(mockAllRecords);
-        when(incomeRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(mockMonthRecords);
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockMonthRecords));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(mockAllRecords));
 
-        double expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
-        double expectedAverageTotal = (double) Math.round(expectedTotal / 12 * 100) / 100.0;
-        double expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
+        long expectedTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount() + incomeRecordTest3.getAmount();
+        long expectedAverageTotal = Money.divide(expectedTotal, 12);
+        long expectedMonthTotal = incomeRecordTest1.getAmount() + incomeRecordTest2.getAmount();
 
-        IncomeRecordsContainer container = incomeRecordService.findAll("INVALID_CATEGORY");
+        IncomeRecordsContainer container = incomeRecordService.findAll(filterOf("INVALID_CATEGORY"), null);
 
         assertThat(container).isNotNull();
-        assertThat(container.getRecords()).isEqualTo(mockAllRecords);
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockAllRecords));
         assertThat(container.getTotal()).isEqualTo(expectedTotal);
         assertThat(container.getAverageTotal()).isEqualTo(expectedAverageTotal);
         assertThat(container.getMonthTotal()).isEqualTo(expectedMonthTotal);
@@ -231,47 +290,152 @@ public class IncomeRecordServiceTest {
     @Test
     void findAll_ShouldReturnEmptyContainer_WhenNoRecordsExist() {
         when(userService.getCurrentUserId()).thenReturn(userTest.getId());
-        when(userService.getCurrentUser()).thenReturn(userTest);
-        when(incomeRecordRepository.findAllByUserIdOrderByDateDesc(userTest.getId()))
-                .thenReturn(Arrays.asList());
-        when(incomeRecordRepository.findAllByYearAndMonthAndUser(
-                LocalDate.now().getYear(),
-                LocalDate.now().getMonthValue(),
-                userTest))
-                .thenReturn(Arrays.asList());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(List.of(), List.of()));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(List.of()));
 
-        IncomeRecordsContainer container = incomeRecordService.findAll(null);
+        IncomeRecordsContainer container = incomeRecordService.findAll(RecordFilter.all(), null);
 
 
         assertThat(container).isNotNull();
         assertThat(container.getRecords()).isEmpty();
-        assertThat(container.getTotal()).isEqualTo(0.0);
-        assertThat(container.getAverageTotal()).isEqualTo(0.0);
-        assertThat(container.getMonthTotal()).isEqualTo(0.0);
+        assertThat(container.getTotal()).isEqualTo(0);
+        assertThat(container.getAverageTotal()).isEqualTo(0);
+        assertThat(container.getMonthTotal()).isEqualTo(0);
         assertThat(container.getFilteredTotal()).isNull();
     }
 
 
+    @Test
+    void findAll_ShouldReturnNextCursor_WhenMoreRecordsExist() {
+        List<IncomeRecord> mockPage = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
+        RecordCursor cursor = new RecordCursor(LocalDate.now().plusDays(1), 10);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3), mockPage));
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(),
+                RecordCursor.toScrollPosition(cursor),
+                Limit.of(IncomeRecordService.PAGE_SIZE)))
+                .thenReturn(Window.from(viewsOf(mockPage), ScrollPosition::offset, true));
+
+        IncomeRecordsContainer container = incomeRecordService.findAll(RecordFilter.all(), cursor);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockPage));
+        assertThat(container.getCount()).isEqualTo(3);
+        assertThat(container.hasNextCursor()).isTrue();
+        assertThat(container.getNextCursor()).isEqualTo(RecordCursor.of(incomeRecordTest2));
+    }
+
+    @Test
+    void findAll_ShouldReadSummaryAndPageFromLedgerCache_WhenEnabled() {
+        List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
+        List<IncomeRecord> mockFilteredRecords = List.of(incomeRecordTest1);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(ledgerCacheService.isCached(userTest.getId(), RecordKind.INCOME)).thenReturn(true);
+        when(ledgerCacheService.summarize(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+        when(ledgerCacheService.filterIncome(userTest.getId(), RecordFilter.of(IncomeCategory.BONUS), null, IncomeRecordService.PAGE_SIZE))
+                .thenReturn(filtered(mockFilteredRecords));
+
+        IncomeRecordsContainer container = incomeRecordService.findAll(RecordFilter.of(IncomeCategory.BONUS), null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockFilteredRecords));
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isEqualTo(sumOf(mockFilteredRecords));
+        assertThat(container.getFilteredCount()).isEqualTo(1);
+        assertThat(container.getCount()).isEqualTo(3);
+        verifyNoInteractions(incomeRecordRepository, monthlySummaryService);
+    }
+
+    @Test
+    void findSummary_ShouldReturnTotalsWithoutFetchingRecords() {
+        List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockAllRecords));
+
+        IncomeRecordsContainer container = incomeRecordService.findSummary();
+
+        assertThat(container.getRecords()).isEmpty();
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getCount()).isEqualTo(3);
+        assertThat(container.hasNextCursor()).isFalse();
+        verify(incomeRecordRepository, never()).findByUserIdOrderByDateDescIdDesc(anyInt(), any(), any());
+    }
+
+    @Test
+    void findPage_ShouldReturnRecordDtosWithoutNextCursor_WhenLastPage() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findByUserIdOrderByDateDescIdDesc(eq(userTest.getId()), any(), any()))
+                .thenReturn(lastWindow(List.of(incomeRecordTest1)));
+
+        RecordsPage page = incomeRecordService.findPage(RecordFilter.all(), null);
+
+        assertThat(page.records()).containsExactly(RecordDto.of(incomeRecordTest1));
+        assertThat(page.records().getFirst().type()).isEqualTo("INCOME");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void findAll_ShouldReturnFilteredRowsAndTotalsFromOneQuery_WhenDateAndAmountRangeIsSet() {
+        List<IncomeRecord> mockAllRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2, incomeRecordTest3);
+        List<IncomeRecord> mockFilteredRecords = Arrays.asList(incomeRecordTest1, incomeRecordTest2);
+        RecordFilter<IncomeCategory> filter = new RecordFilter<IncomeCategory>(Set.of(),
+                LocalDate.now().minusDays(7), LocalDate.now(), 1000L, null);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.INCOME, YearMonth.now()))
+                .thenReturn(categorySummaries(mockAllRecords, mockFilteredRecords));
+        when(incomeRecordRepository.findFiltered(userTest.getId(), filter, null, IncomeRecordService.PAGE_SIZE))
+                .thenReturn(filtered(mockFilteredRecords));
+
+        IncomeRecordsContainer container = incomeRecordService.findAll(filter, null);
+
+        assertThat(container.getRecords()).isEqualTo(viewsOf(mockFilteredRecords));
+        assertThat(container.getTotal()).isEqualTo(sumOf(mockAllRecords));
+        assertThat(container.getFilteredTotal()).isEqualTo(sumOf(mockFilteredRecords));
+        assertThat(container.getFilteredAverageTotal()).isEqualTo(Money.divide(sumOf(mockFilteredRecords), 12));
+        assertThat(container.getFilteredCount()).isEqualTo(2);
+        assertThat(container.getCount()).isEqualTo(3);
+        verify(incomeRecordRepository, never()).findByUserIdOrderByDateDescIdDesc(anyInt(), any(), any());
+    }
+
+    @Test
+    void findPage_ShouldScrollFilteredRecords_WhenFilterIsSet() {
+        RecordFilter<IncomeCategory> filter = new RecordFilter<IncomeCategory>(Set.of(), null, null, null, 20000L);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.scrollFiltered(userTest.getId(), filter, null, IncomeRecordService.PAGE_SIZE))
+                .thenReturn(Window.from(viewsOf(List.of(incomeRecordTest1)), ScrollPosition::offset, true));
+
+        RecordsPage page = incomeRecordService.findPage(filter, null);
+
+        assertThat(page.records()).containsExactly(RecordDto.of(incomeRecordTest1));
+        assertThat(page.nextCursor()).isEqualTo(RecordCursor.of(incomeRecordTest1).encode());
+    }
+
     @Test
     void findRecord_ShouldReturnIncomeRecord_WhenRecordExists() {
-        when(incomeRecordRepository.findById(incomeRecordTest1.getId()))
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findByIdAndUserId(incomeRecordTest1.getId(), userTest.getId()))
                 .thenReturn(Optional.of(incomeRecordTest1));
 
         IncomeRecord incomeRecord = incomeRecordService.findRecord(incomeRecordTest1.getId());
 
         assertThat(incomeRecord).isEqualTo(incomeRecordTest1);
-        verify(incomeRecordRepository).findById(incomeRecordTest1.getId());
+        verify(incomeRecordRepository).findByIdAndUserId(incomeRecordTest1.getId(), userTest.getId());
     }
 
     @Test
-    void findRecord_ShouldThrowException_WhenRecordDoesNotExist() {
-        when(incomeRecordRepository.findById(incomeRecordTest2.getId()))
+    void findRecord_ShouldThrowException_WhenRecordDoesNotExistOrBelongsToAnotherUser() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findByIdAndUserId(incomeRecordTest2.getId(), userTest.getId()))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> incomeRecordService.findRecord(incomeRecordTest2.getId()))
                 .isInstanceOf(EntityNotFoundException.class)
-                        .hasMessage("Income record not found with id: " + incomeRecordTest2.getId());
-        verify(incomeRecordRepository).findById(incomeRecordTest2.getId());
+                .hasMessage("Income record not found with id: " + incomeRecordTest2.getId());
+        verify(incomeRecordRepository).findByIdAndUserId(incomeRecordTest2.getId(), userTest.getId());
     }
 
     @Test
@@ -285,55 +449,165 @@ public class IncomeRecordServiceTest {
                 incomeRecordTest1.getDescription());
 
         verify(incomeRecordRepository).save(any(IncomeRecord.class));
+        verify(monthlySummaryService).add(userTest.getId(), RecordKind.INCOME, incomeRecordTest1.getCategory(),
+                incomeRecordTest1.getDate(), incomeRecordTest1.getAmount());
+        verify(ledgerCacheService).put(eq(userTest.getId()), eq(RecordKind.INCOME), any(IncomeRecord.class));
+        verify(ledgerVersionService).bump(userTest.getId());
     }
 
     @Test
-    void updateRecord_ShouldUpdateFieldsAndSave_WhenRecordExists() {
-
-        when(incomeRecordRepository.findById(incomeRecordTest1.getId()))
-                .thenReturn(Optional.of(incomeRecordTest1));
+    void updateRecord_ShouldUpdateOwnedRecordInOneStatement_WhenRecordExists() {
+        int id = incomeRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(incomeRecordTest1)));
+        when(incomeRecordRepository.updateOwned(id, userTest.getId(), incomeRecordTest2.getCategory(),
+                incomeRecordTest2.getAmount(), incomeRecordTest2.getDate(), incomeRecordTest2.getDescription())).thenReturn(1);
 
         incomeRecordService.updateRecord(
-                incomeRecordTest1.getId(),
+                id,
                 incomeRecordTest2.getCategory(),
                 incomeRecordTest2.getAmount(),
                 incomeRecordTest2.getDate(),
                 incomeRecordTest2.getDescription()
         );
 
-        assertThat(incomeRecordTest1.getCategory()).isEqualTo(incomeRecordTest2.getCategory());
-        assertThat(incomeRecordTest1.getAmount()).isEqualTo(incomeRecordTest2.getAmount());
-        assertThat(incomeRecordTest1.getDate()).isEqualTo(incomeRecordTest2.getDate());
-        assertThat(incomeRecordTest1.getDescription()).isEqualTo(incomeRecordTest2.getDescription());
-
-        verify(incomeRecordRepository).findById(incomeRecordTest1.getId());
-        verify(incomeRecordRepository).save(incomeRecordTest1);
-
+        verify(incomeRecordRepository).updateOwned(id, userTest.getId(), incomeRecordTest2.getCategory(),
+                incomeRecordTest2.getAmount(), incomeRecordTest2.getDate(), incomeRecordTest2.getDescription());
+        verify(incomeRecordRepository, never()).save(any(IncomeRecord.class));
+        verify(monthlySummaryService).move(userTest.getId(), RecordKind.INCOME,
+                incomeRecordTest1.getCategory(), incomeRecordTest1.getDate(), incomeRecordTest1.getAmount(),
+                incomeRecordTest2.getCategory(), incomeRecordTest2.getDate(), incomeRecordTest2.getAmount());
+        verify(ledgerCacheService).put(userTest.getId(), RecordKind.INCOME,
+                new IncomeRecordView(id, incomeRecordTest2.getCategory(), incomeRecordTest2.getAmount(),
+                        incomeRecordTest2.getDate(), incomeRecordTest2.getDescription()));
+        verify(ledgerVersionService).bump(userTest.getId());
     }
 
     @Test
-    void updateRecord_ShouldThrowException_WhenRecordDoesNotExist() {
-        when(incomeRecordRepository.findById(incomeRecordTest2.getId()))
+    void updateRecord_ShouldThrowException_WhenRecordDoesNotExistOrBelongsToAnotherUser() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findViewByIdAndUserId(incomeRecordTest2.getId(), userTest.getId()))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> incomeRecordService.updateRecord(
-                        incomeRecordTest2.getId(),
-                        incomeRecordTest2.getCategory(),
-                        incomeRecordTest2.getAmount(),
-                        incomeRecordTest2.getDate(),
-                        incomeRecordTest2.getDescription()
-                ))
+                incomeRecordTest2.getId(),
+                incomeRecordTest2.getCategory(),
+                incomeRecordTest2.getAmount(),
+                incomeRecordTest2.getDate(),
+                incomeRecordTest2.getDescription()
+        ))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("Income record not found with id: " + incomeRecordTest2.getId());
-        verify(incomeRecordRepository).findById(incomeRecordTest2.getId());
+        verify(incomeRecordRepository, never()).updateOwned(anyInt(), anyInt(), any(), anyLong(), any(), any());
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
     }
 
     @Test
-    void deleteRecord_ShouldCallIncomeRepository() {
-        incomeRecordService.deleteRecord(incomeRecordTest1.getId());
+    void updateRecord_ShouldThrowAndLeaveSummaryAndCaches_WhenNoRowIsUpdated() {
+        int id = incomeRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(incomeRecordTest1)));
+        when(incomeRecordRepository.updateOwned(id, userTest.getId(), incomeRecordTest2.getCategory(),
+                incomeRecordTest2.getAmount(), incomeRecordTest2.getDate(), incomeRecordTest2.getDescription())).thenReturn(0);
 
-        verify(incomeRecordRepository).deleteById(incomeRecordTest1.getId());
+        assertThatThrownBy(() -> incomeRecordService.updateRecord(
+                id,
+                incomeRecordTest2.getCategory(),
+                incomeRecordTest2.getAmount(),
+                incomeRecordTest2.getDate(),
+                incomeRecordTest2.getDescription()
+        ))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Income record not found with id: " + id);
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
     }
 
-}
+    @Test
+    void deleteRecord_ShouldDeleteOwnedRecordAndUpdateSummary_WhenRecordExists() {
+        int id = incomeRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(incomeRecordTest1)));
+        when(incomeRecordRepository.deleteOwned(id, userTest.getId())).thenReturn(1);
+
+        assertThat(incomeRecordService.deleteRecord(id)).isTrue();
+
+        verify(incomeRecordRepository).deleteOwned(id, userTest.getId());
+        verify(incomeRecordRepository, never()).delete(any(IncomeRecord.class));
+        verify(monthlySummaryService).remove(userTest.getId(), RecordKind.INCOME, incomeRecordTest1.getCategory(),
+                incomeRecordTest1.getDate(), incomeRecordTest1.getAmount());
+        verify(ledgerCacheService).remove(userTest.getId(), RecordKind.INCOME, id);
+        verify(ledgerVersionService).bump(userTest.getId());
+    }
 
+    @Test
+    void deleteRecord_ShouldReturnFalseAndLeaveSummaryAndCaches_WhenNoRowIsDeleted() {
+        int id = incomeRecordTest1.getId();
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findViewByIdAndUserId(id, userTest.getId()))
+                .thenReturn(Optional.of(viewOf(incomeRecordTest1)));
+        when(incomeRecordRepository.deleteOwned(id, userTest.getId())).thenReturn(0);
+
+        assertThat(incomeRecordService.deleteRecord(id)).isFalse();
+
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
+    }
+
+    @Test
+    void deleteRecord_ShouldDoNothing_WhenRecordDoesNotExistOrBelongsToAnotherUser() {
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        when(incomeRecordRepository.findViewByIdAndUserId(incomeRecordTest1.getId(), userTest.getId()))
+                .thenReturn(Optional.empty());
+
+        assertThat(incomeRecordService.deleteRecord(incomeRecordTest1.getId())).isFalse();
+
+        verify(incomeRecordRepository, never()).deleteOwned(anyInt(), anyInt());
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
+    }
+
+    private static RecordFilter<IncomeCategory> filterOf(String category) {
+        return new RecordFilterForm(List.of(category), null, null, null, null).toFilter(IncomeCategory.class);
+    }
+
+    private static FilteredRecords<IncomeRecordView> filtered(List<IncomeRecord> records) {
+        return new FilteredRecords<>(lastWindow(records), sumOf(records), records.size());
+    }
+
+    private static Window<IncomeRecordView> lastWindow(List<IncomeRecord> records) {
+        return Window.from(viewsOf(records), ScrollPosition::offset);
+    }
+
+    private static IncomeRecordView viewOf(IncomeRecord record) {
+        return new IncomeRecordView(record.getId(), record.getCategory(), record.getAmount(),
+                record.getDate(), record.getDescription());
+    }
+
+    private static List<IncomeRecordView> viewsOf(List<IncomeRecord> records) {
+        return records.stream()
+                .map(record -> new IncomeRecordView(record.getId(), record.getCategory(), record.getAmount(),
+                        record.getDate(), record.getDescription()))
+                .toList();
+    }
+
+    private static List<CategorySummary> categorySummaries(List<IncomeRecord> records,
+                                                           List<IncomeRecord> monthRecords) {
+        return records.stream()
+                .collect(Collectors.groupingBy(IncomeRecord::getCategory))
+                .entrySet().stream()
+                .map(entry -> new CategorySummary(entry.getKey().name(),
+                        sumOf(entry.getValue()),
+                        entry.getValue().size(),
+                        sumOf(monthRecords.stream()
+                                .filter(record -> record.getCategory() == entry.getKey())
+                                .toList())))
+                .toList();
+    }
+
+    private static long sumOf(List<IncomeRecord> records) {
+        return records.stream()
+                .mapToLong(IncomeRecord::getAmount)
+                .sum();
+    }
+}
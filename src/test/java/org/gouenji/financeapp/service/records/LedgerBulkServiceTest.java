@@ -0,0 +1,178 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.gouenji.financeapp.repository.LedgerEntryRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerBulkServiceTest {
+
+    private static final int USER_ID = 1;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Mock
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Mock
+    private MonthlySummaryService monthlySummaryService;
+
+    @Mock
+    private LedgerCacheService ledgerCacheService;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private LedgerBulkService ledgerBulkService;
+
+    private final LedgerEntryView salary = new LedgerEntryView(1, RecordKind.INCOME, "SALARY", 100000,
+            LocalDate.of(2025, 3, 1), "Зарплата");
+    private final LedgerEntryView food = new LedgerEntryView(2, RecordKind.EXPENSE, "FOOD", 500,
+            LocalDate.of(2025, 3, 10), "Хот дог");
+    private final LedgerEntryView moreFood = new LedgerEntryView(3, RecordKind.EXPENSE, "FOOD", 700,
+            LocalDate.of(2025, 3, 31), "Обед");
+
+    @Test
+    void delete_ShouldDeleteOwnedRecordsInOneStatementAndRollUpTheSummary() {
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(ledgerEntryRepository.lockOwned(USER_ID, Set.of(1, 2, 3, 99))).thenReturn(List.of(salary, food, moreFood));
+        when(ledgerEntryRepository.deleteOwned(USER_ID, List.of(1, 2, 3))).thenReturn(3);
+
+        int deleted = ledgerBulkService.delete(null, List.of(1, 2, 3, 99, 2));
+
+        assertThat(deleted).isEqualTo(3);
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.INCOME, IncomeCategory.SALARY,
+                LocalDate.of(2025, 3, 1), -100000, -1);
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 1), -1200, -2);
+        verifyNoMoreInteractions(monthlySummaryService);
+        verify(ledgerCacheService).invalidate(USER_ID, RecordKind.INCOME);
+        verify(ledgerCacheService).invalidate(USER_ID, RecordKind.EXPENSE);
+        verify(ledgerVersionService).bump(USER_ID);
+    }
+
+    @Test
+    void delete_ShouldSkipRecordsOfAnotherKind() {
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(ledgerEntryRepository.lockOwned(USER_ID, Set.of(1, 2))).thenReturn(List.of(salary, food));
+        when(ledgerEntryRepository.deleteOwned(USER_ID, List.of(2))).thenReturn(1);
+
+        assertThat(ledgerBulkService.delete(RecordKind.EXPENSE, List.of(1, 2))).isEqualTo(1);
+
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 1), -500, -1);
+        verifyNoMoreInteractions(monthlySummaryService);
+        verify(ledgerCacheService, never()).invalidate(USER_ID, RecordKind.INCOME);
+    }
+
+    @Test
+    void delete_ShouldDoNothing_WhenNoSelectedRecordBelongsToUser() {
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(ledgerEntryRepository.lockOwned(USER_ID, Set.of(5))).thenReturn(List.of());
+
+        assertThat(ledgerBulkService.delete(null, List.of(5))).isZero();
+
+        verify(ledgerEntryRepository, never()).deleteOwned(anyInt(), any());
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
+    }
+
+    @Test
+    void delete_ShouldDoNothing_WhenNothingIsSelected() {
+        assertThat(ledgerBulkService.delete(null, null)).isZero();
+        assertThat(ledgerBulkService.delete(null, List.of())).isZero();
+
+        verifyNoInteractions(ledgerEntryRepository, monthlySummaryService, ledgerCacheService, userService);
+    }
+
+    @Test
+    void delete_ShouldRejectTooManyIds() {
+        List<Integer> ids = IntStream.rangeClosed(1, LedgerBulkService.MAX_IDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> ledgerBulkService.delete(null, ids))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(ledgerEntryRepository, monthlySummaryService, ledgerCacheService);
+    }
+
+    @Test
+    void recategorize_ShouldMoveSummaryBetweenCategories() {
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(ledgerEntryRepository.lockOwned(USER_ID, Set.of(2, 3))).thenReturn(List.of(food, moreFood));
+        when(expenseRecordRepository.updateCategoryOwned(USER_ID, List.of(2, 3), ExpenseCategory.FUN)).thenReturn(2);
+
+        assertThat(ledgerBulkService.recategorize(List.of(2, 3), ExpenseCategory.FUN)).isEqualTo(2);
+
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 1), -1200, -2);
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.EXPENSE, ExpenseCategory.FUN,
+                LocalDate.of(2025, 3, 1), 1200, 2);
+        verifyNoMoreInteractions(monthlySummaryService);
+        verify(ledgerCacheService).invalidate(USER_ID, RecordKind.EXPENSE);
+    }
+
+    @Test
+    void recategorize_ShouldOnlyTouchRecordsOfTheCategoryKind() {
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(ledgerEntryRepository.lockOwned(USER_ID, Set.of(1, 2))).thenReturn(List.of(salary, food));
+        when(incomeRecordRepository.updateCategoryOwned(USER_ID, List.of(1), IncomeCategory.BONUS)).thenReturn(1);
+
+        assertThat(ledgerBulkService.recategorize(List.of(1, 2), IncomeCategory.BONUS)).isEqualTo(1);
+
+        verifyNoInteractions(expenseRecordRepository);
+        verify(ledgerCacheService, never()).invalidate(USER_ID, RecordKind.EXPENSE);
+    }
+
+    @Test
+    void shiftDates_ShouldMoveOnlyRecordsThatCrossIntoAnotherMonth() {
+        when(userService.getCurrentUserId()).thenReturn(USER_ID);
+        when(ledgerEntryRepository.lockOwned(USER_ID, Set.of(2, 3))).thenReturn(List.of(food, moreFood));
+        when(ledgerEntryRepository.shiftDatesOwned(USER_ID, List.of(2, 3), 1)).thenReturn(2);
+
+        assertThat(ledgerBulkService.shiftDates(null, List.of(2, 3), 1)).isEqualTo(2);
+
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 1), -700, -1);
+        verify(monthlySummaryService).addAll(USER_ID, RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 4, 1), 700, 1);
+        verifyNoMoreInteractions(monthlySummaryService);
+    }
+
+    @Test
+    void shiftDates_ShouldDoNothing_WhenDaysIsZero() {
+        assertThat(ledgerBulkService.shiftDates(null, List.of(1, 2), 0)).isZero();
+
+        verifyNoInteractions(ledgerEntryRepository, monthlySummaryService, ledgerCacheService, userService);
+    }
+}
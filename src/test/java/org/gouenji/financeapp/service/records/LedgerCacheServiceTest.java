@@ -0,0 +1,196 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerCacheServiceTest {
+
+    private static final LocalDate MARCH_10 = LocalDate.of(2025, 3, 10);
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+    private static final int MAX_USER_RECORDS = 2;
+    private static final Limit LOAD_LIMIT = Limit.of(MAX_USER_RECORDS + 1);
+
+    @Mock
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Mock
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    private LedgerCacheService ledgerCacheService;
+    private User userTest;
+
+    @BeforeEach
+    void setUp() {
+        ledgerCacheService = new LedgerCacheService(incomeRecordRepository, expenseRecordRepository,
+                1000, MAX_USER_RECORDS, Duration.ofMinutes(10));
+        userTest = new User("Ivan", "test@gmail.com", "1234", UserRole.USER);
+        userTest.setId(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void summarize_ShouldLoadLedgerOnceAndServeRepeatedReadsFromMemory() {
+        when(incomeRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT)).thenReturn(List.of(
+                new IncomeRecordView(2, IncomeCategory.SALARY, 10000, MARCH_10, "Зарплата"),
+                new IncomeRecordView(1, IncomeCategory.BONUS, 4000, MARCH_10.minusMonths(1), "Премия")));
+
+        List<CategorySummary> first = ledgerCacheService.summarize(1, RecordKind.INCOME, MARCH);
+        List<CategorySummary> second = ledgerCacheService.summarize(1, RecordKind.INCOME, MARCH);
+
+        assertThat(first).containsExactlyInAnyOrder(
+                new CategorySummary("SALARY", 10000, 1, 10000),
+                new CategorySummary("BONUS", 4000, 1, 0));
+        assertThat(second).isEqualTo(first);
+        assertThat(ledgerCacheService.filterIncome(1, RecordFilter.of(IncomeCategory.BONUS), null, 20).window().getContent())
+                .extracting(IncomeRecordView::getId)
+                .containsExactly(1);
+        verify(incomeRecordRepository, times(1)).findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT);
+        verifyNoInteractions(expenseRecordRepository);
+    }
+
+    @Test
+    void putAndRemove_ShouldUpdateLoadedLedgerInPlace() {
+        when(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT)).thenReturn(List.of(
+                new ExpenseRecordView(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог")));
+        ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH);
+
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(2, ExpenseCategory.FUN, 3000, MARCH_10.plusDays(1)));
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(1, ExpenseCategory.FOOD, 700, MARCH_10));
+        ledgerCacheService.remove(1, RecordKind.EXPENSE, 2);
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(3, ExpenseCategory.FOOD, 300, MARCH_10.minusMonths(1)));
+
+        assertThat(ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH))
+                .containsExactly(new CategorySummary("FOOD", 1000, 2, 700));
+        verify(expenseRecordRepository, times(1)).findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT);
+    }
+
+    @Test
+    void put_ShouldWaitForCommit_WhenTransactionIsActive() {
+        when(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT)).thenReturn(List.of());
+        ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(1, ExpenseCategory.FOOD, 500, MARCH_10));
+
+        assertThat(ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH)).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH))
+                .containsExactly(new CategorySummary("FOOD", 500, 1, 500));
+    }
+
+    @Test
+    void invalidate_ShouldReloadLedgerAfterCommit() {
+        when(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new ExpenseRecordView(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог")));
+        ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledgerCacheService.invalidate(1, RecordKind.EXPENSE);
+
+        assertThat(ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH)).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH))
+                .containsExactly(new CategorySummary("FOOD", 500, 1, 500));
+        verify(expenseRecordRepository, times(2)).findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT);
+    }
+
+    @Test
+    void put_ShouldNotLoadLedger_WhenUserIsNotCached() {
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(1, ExpenseCategory.FOOD, 500, MARCH_10));
+        ledgerCacheService.remove(1, RecordKind.EXPENSE, 1);
+
+        verifyNoInteractions(expenseRecordRepository);
+    }
+
+    @Test
+    void isCached_ShouldBeFalse_WhenMaxRecordsIsZero() {
+        LedgerCacheService disabled = new LedgerCacheService(incomeRecordRepository, expenseRecordRepository,
+                0, MAX_USER_RECORDS, Duration.ofMinutes(10));
+
+        disabled.put(1, RecordKind.EXPENSE, expense(1, ExpenseCategory.FOOD, 500, MARCH_10));
+
+        assertThat(disabled.isCached(1, RecordKind.EXPENSE)).isFalse();
+        verifyNoInteractions(expenseRecordRepository);
+    }
+
+    @Test
+    void isCached_ShouldLoadLedgerOnce_WhenWithinUserCap() {
+        when(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT)).thenReturn(List.of(
+                new ExpenseRecordView(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог")));
+
+        assertThat(ledgerCacheService.isCached(1, RecordKind.EXPENSE)).isTrue();
+        assertThat(ledgerCacheService.summarize(1, RecordKind.EXPENSE, MARCH))
+                .containsExactly(new CategorySummary("FOOD", 500, 1, 500));
+        verify(expenseRecordRepository, times(1)).findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT);
+    }
+
+    @Test
+    void isCached_ShouldBeFalseWithoutReloading_WhenLedgerExceedsUserCap() {
+        when(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT)).thenReturn(List.of(
+                new ExpenseRecordView(3, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог"),
+                new ExpenseRecordView(2, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог"),
+                new ExpenseRecordView(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог")));
+
+        assertThat(ledgerCacheService.isCached(1, RecordKind.EXPENSE)).isFalse();
+        assertThat(ledgerCacheService.isCached(1, RecordKind.EXPENSE)).isFalse();
+        verify(expenseRecordRepository, times(1)).findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT);
+    }
+
+    @Test
+    void put_ShouldDropLedger_WhenItGrowsOverUserCap() {
+        when(expenseRecordRepository.findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT)).thenReturn(List.of(
+                new ExpenseRecordView(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог")));
+        assertThat(ledgerCacheService.isCached(1, RecordKind.EXPENSE)).isTrue();
+
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(2, ExpenseCategory.FOOD, 500, MARCH_10));
+        assertThat(ledgerCacheService.isCached(1, RecordKind.EXPENSE)).isTrue();
+        ledgerCacheService.put(1, RecordKind.EXPENSE, expense(3, ExpenseCategory.FOOD, 500, MARCH_10));
+
+        assertThat(ledgerCacheService.isCached(1, RecordKind.EXPENSE)).isFalse();
+        verify(expenseRecordRepository, times(1)).findAllByUserIdOrderByDateDescIdDesc(1, LOAD_LIMIT);
+    }
+
+    private ExpenseRecord expense(int id, ExpenseCategory category, long amount, LocalDate date) {
+        ExpenseRecord record = new ExpenseRecord(category, amount, date, "Хот дог", userTest);
+        record.setId(id);
+        return record;
+    }
+}
@@ -0,0 +1,84 @@
+package org.gouenji.financeapp.service.records;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.gouenji.financeapp.dto.records.ExportFormat;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerExportServiceTest {
+
+    private static final LocalDate MARCH_10 = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private LedgerExportService ledgerExportService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerExportService = new LedgerExportService(ledgerEntryRepository,
+                JsonMapper.builder().findAndAddModules().build());
+    }
+
+    @Test
+    void export_ShouldWriteLedgerEntriesIntoCsvAndCloseTheStream() throws Exception {
+        AtomicInteger closedStreams = new AtomicInteger();
+        when(ledgerEntryRepository.streamByUserIdOrderByDateDescIdDesc(1)).thenReturn(Stream.of(
+                new LedgerEntryView(4, RecordKind.EXPENSE, "FOOD", 500, MARCH_10, "Кофе, \"большой\""),
+                new LedgerEntryView(3, RecordKind.INCOME, "SALARY", 100000, MARCH_10, "Зарплата"),
+                new LedgerEntryView(2, RecordKind.EXPENSE, "FUN", 1500, MARCH_10.minusDays(1), "Парк"),
+                new LedgerEntryView(1, RecordKind.INCOME, "BONUS", 2550, MARCH_10.minusDays(2), null)
+        ).onClose(closedStreams::incrementAndGet));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ledgerExportService.export(1, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                date,type,category,amount,description
+                2025-03-10,EXPENSE,FOOD,5.00,"Кофе, ""большой\"""
+                2025-03-10,INCOME,SALARY,1000.00,Зарплата
+                2025-03-09,EXPENSE,FUN,15.00,Парк
+                2025-03-08,INCOME,BONUS,25.50,
+                """);
+        assertThat(closedStreams).hasValue(1);
+    }
+
+    @Test
+    void export_ShouldWriteJsonArrayOfRecords() throws Exception {
+        when(ledgerEntryRepository.streamByUserIdOrderByDateDescIdDesc(1)).thenReturn(Stream.of(
+                new LedgerEntryView(1, RecordKind.INCOME, "SALARY", 10000, MARCH_10, "Зарплата")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ledgerExportService.export(1, ExportFormat.JSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "[{\"id\":1,\"type\":\"INCOME\",\"category\":\"SALARY\",\"amount\":100.00,"
+                        + "\"date\":\"2025-03-10\",\"description\":\"Зарплата\"}]");
+    }
+
+    @Test
+    void export_ShouldWriteOnlyHeader_WhenLedgerIsEmpty() throws Exception {
+        when(ledgerEntryRepository.streamByUserIdOrderByDateDescIdDesc(1)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ledgerExportService.export(1, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("date,type,category,amount,description\n");
+    }
+}
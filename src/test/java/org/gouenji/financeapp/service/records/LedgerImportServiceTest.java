@@ -0,0 +1,137 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.ImportReport;
+import org.gouenji.financeapp.dto.records.ImportedRecord;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.repository.RecordBatchWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerImportServiceTest {
+
+    @Mock
+    private RecordBatchWriter recordBatchWriter;
+
+    @Mock
+    private MonthlySummaryService monthlySummaryService;
+
+    @Mock
+    private LedgerCacheService ledgerCacheService;
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    @InjectMocks
+    private LedgerImportService ledgerImportService;
+
+    @Test
+    void importCsv_ShouldInsertValidRowsAndRollUpMonthlyTotals() throws Exception {
+        ImportReport report = ledgerImportService.importCsv(1, csv("""
+                date,type,category,amount,description
+                2025-03-10,EXPENSE,FOOD,5.00,"Кофе, ""большой\"""
+                2025-03-12,expense,food,2.5,
+                2025-03-01,INCOME,SALARY,1000,Зарплата
+                """));
+
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.rejected()).isZero();
+        assertThat(report.errors()).isEmpty();
+        verify(recordBatchWriter).insert(RecordKind.EXPENSE, 1, List.of(
+                new ImportedRecord(ExpenseCategory.FOOD, 500, LocalDate.of(2025, 3, 10), "Кофе, \"большой\""),
+                new ImportedRecord(ExpenseCategory.FOOD, 250, LocalDate.of(2025, 3, 12), null)));
+        verify(recordBatchWriter).insert(RecordKind.INCOME, 1, List.of(
+                new ImportedRecord(IncomeCategory.SALARY, 100000, LocalDate.of(2025, 3, 1), "Зарплата")));
+        verify(monthlySummaryService).addAll(1, RecordKind.EXPENSE, ExpenseCategory.FOOD, LocalDate.of(2025, 3, 1), 750, 2);
+        verify(monthlySummaryService).addAll(1, RecordKind.INCOME, IncomeCategory.SALARY, LocalDate.of(2025, 3, 1), 100000, 1);
+        verify(ledgerCacheService).invalidate(1, RecordKind.EXPENSE);
+        verify(ledgerCacheService).invalidate(1, RecordKind.INCOME);
+        verify(ledgerVersionService).bump(1);
+    }
+
+    @Test
+    void importCsv_ShouldReportInvalidRowsByLineAndKeepValidOnes() throws Exception {
+        ImportReport report = ledgerImportService.importCsv(1, csv("""
+                2025-13-01,EXPENSE,FOOD,5.00,
+                2025-03-10,EXPENSE,SALARY,5.00,
+                2025-03-10,TRANSFER,FOOD,5.00,
+                2025-03-10,INCOME,BONUS,-5,
+                2025-03-10,INCOME,BONUS,1.005,
+                2025-03-10,INCOME,BONUS,abc,
+                2025-03-10,INCOME
+                2025-03-10,INCOME,BONUS,10.00,Премия
+                """));
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(7);
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(report.errors()).extracting(ImportReport.RowError::message).containsExactly(
+                "Invalid date: 2025-13-01",
+                "Unknown expense category: SALARY",
+                "Unknown type: TRANSFER",
+                "Amount must be positive: -5",
+                "Amount has more than 2 decimal places: 1.005",
+                "Invalid amount: abc",
+                "Expected 4 or 5 columns but found 2");
+        verify(recordBatchWriter).insert(RecordKind.INCOME, 1, List.of(
+                new ImportedRecord(IncomeCategory.BONUS, 1000, LocalDate.of(2025, 3, 10), "Премия")));
+        verify(ledgerCacheService, never()).invalidate(1, RecordKind.EXPENSE);
+    }
+
+    @Test
+    void importCsv_ShouldFlushFullBatchesAndCapReportedErrors() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        int rows = LedgerImportService.BATCH_SIZE * 2 + 1;
+        for(int i = 0; i < rows; i++){
+            csv.append("2025-03-10,EXPENSE,FOOD,1.00,\n");
+        }
+        for(int i = 0; i < LedgerImportService.MAX_REPORTED_ERRORS + 5; i++){
+            csv.append("bad\n");
+        }
+
+        ImportReport report = ledgerImportService.importCsv(1, csv(csv.toString()));
+
+        assertThat(report.imported()).isEqualTo(rows);
+        assertThat(report.rejected()).isEqualTo(LedgerImportService.MAX_REPORTED_ERRORS + 5);
+        assertThat(report.errors()).hasSize(LedgerImportService.MAX_REPORTED_ERRORS);
+        assertThat(report.hasMoreErrors()).isTrue();
+        verify(recordBatchWriter, times(2)).insert(eq(RecordKind.EXPENSE), eq(1),
+                argThat(batch -> batch.size() == LedgerImportService.BATCH_SIZE));
+        verify(recordBatchWriter).insert(eq(RecordKind.EXPENSE), eq(1), argThat(batch -> batch.size() == 1));
+        verify(monthlySummaryService).addAll(1, RecordKind.EXPENSE, ExpenseCategory.FOOD, LocalDate.of(2025, 3, 1),
+                rows * 100L, rows);
+    }
+
+    @Test
+    void importCsv_ShouldWriteNothing_WhenFileHasOnlyHeader() throws Exception {
+        ImportReport report = ledgerImportService.importCsv(1, csv("date,type,category,amount,description\n"));
+
+        assertThat(report.imported()).isZero();
+        verify(recordBatchWriter, never()).insert(eq(RecordKind.INCOME), eq(1), anyList());
+        verifyNoInteractions(monthlySummaryService, ledgerCacheService, ledgerVersionService);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
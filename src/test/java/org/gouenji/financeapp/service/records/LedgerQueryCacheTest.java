@@ -0,0 +1,104 @@
+package org.gouenji.financeapp.service.records;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerQueryCacheTest {
+
+    private static final String QUERY = "income.findAll";
+
+    @Mock
+    private LedgerVersionService ledgerVersionService;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LedgerQueryCache cache(long maxEntries) {
+        return new LedgerQueryCache(ledgerVersionService, maxEntries, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void get_ShouldReuseResult_ForSameVersionFilterAndCursor() {
+        LedgerQueryCache ledgerQueryCache = cache(100);
+        when(ledgerVersionService.currentVersion(1)).thenReturn(3L);
+        RecordFilter<IncomeCategory> filter = RecordFilter.of(IncomeCategory.SALARY);
+        RecordCursor cursor = new RecordCursor(LocalDate.of(2025, 3, 1), 10);
+
+        Integer first = ledgerQueryCache.get(1, QUERY, filter, cursor, loads::incrementAndGet);
+        Integer second = ledgerQueryCache.get(1, QUERY, RecordFilter.of(IncomeCategory.SALARY),
+                new RecordCursor(LocalDate.of(2025, 3, 1), 10), loads::incrementAndGet);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(1);
+        assertThat(ledgerQueryCache.stats().hitCount()).isEqualTo(1);
+        assertThat(ledgerQueryCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldLoadAgain_WhenVersionOrKeyChanges() {
+        LedgerQueryCache ledgerQueryCache = cache(100);
+        when(ledgerVersionService.currentVersion(1)).thenReturn(3L, 3L, 4L);
+        when(ledgerVersionService.currentVersion(2)).thenReturn(3L);
+
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+        ledgerQueryCache.get(1, "income.findPage", RecordFilter.all(), null, loads::incrementAndGet);
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+        ledgerQueryCache.get(2, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(4);
+        assertThat(ledgerQueryCache.stats().hitCount()).isZero();
+    }
+
+    @Test
+    void get_ShouldNotCache_WhileVersionIsUnknown() {
+        LedgerQueryCache ledgerQueryCache = cache(100);
+        when(ledgerVersionService.currentVersion(1)).thenReturn(null);
+
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+        assertThat(ledgerQueryCache.stats().requestCount()).isZero();
+    }
+
+    @Test
+    void get_ShouldCallLoaderDirectly_WhenDisabled() {
+        LedgerQueryCache ledgerQueryCache = cache(0);
+
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+        verifyNoInteractions(ledgerVersionService);
+    }
+
+    @Test
+    void bindTo_ShouldExposeHitsAndMisses() {
+        LedgerQueryCache ledgerQueryCache = cache(100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ledgerQueryCache.bindTo(meterRegistry);
+        when(ledgerVersionService.currentVersion(1)).thenReturn(3L);
+
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+        ledgerQueryCache.get(1, QUERY, RecordFilter.all(), null, loads::incrementAndGet);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "ledger.query").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "ledger.query").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
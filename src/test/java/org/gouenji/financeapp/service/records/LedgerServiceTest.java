@@ -0,0 +1,172 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.IncomeRecordView;
+import org.gouenji.financeapp.dto.records.LedgerEntryView;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordsPage;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.repository.LedgerEntryRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerServiceTest {
+
+    private static final Limit PAGE_LIMIT = Limit.of(LedgerService.PAGE_SIZE);
+    private static final LocalDate START_DATE = LocalDate.of(2025, 3, 31);
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private LedgerCacheService ledgerCacheService;
+
+    // disabled: every read goes straight to the loader
+    @Spy
+    private LedgerQueryCache ledgerQueryCache = new LedgerQueryCache(null, 0, Duration.ZERO);
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private User userTest;
+
+    @BeforeEach
+    void setUp() {
+        userTest = new User(
+                "Ivan",
+                "test@gmail.com",
+                "1234",
+                UserRole.USER
+        );
+        userTest.setId(1);
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+    }
+
+    @Test
+    void findRecent_ShouldReadBothKindsFromOneLedgerWindow() {
+        LedgerEntryView salary = entry(3, RecordKind.INCOME, "SALARY", START_DATE);
+        LedgerEntryView food = entry(2, RecordKind.EXPENSE, "FOOD", START_DATE.minusDays(1));
+        when(ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(userTest.getId(), ScrollPosition.keyset(), PAGE_LIMIT))
+                .thenReturn(window(List.of(salary, food), false));
+
+        LedgerPage page = ledgerService.findRecent(null);
+
+        assertThat(page.records()).containsExactly(salary, food);
+        assertThat(page.hasNextCursor()).isFalse();
+    }
+
+    @Test
+    void findRecent_ShouldContinueAfterLastRecordOfFullPage() {
+        RecordCursor cursor = new RecordCursor(START_DATE, 50);
+        List<LedgerEntryView> entries = new ArrayList<>();
+        for(int i = 0; i < LedgerService.PAGE_SIZE; i++){
+            entries.add(entry(49 - i, i % 2 == 0 ? RecordKind.INCOME : RecordKind.EXPENSE,
+                    i % 2 == 0 ? "SALARY" : "FOOD", START_DATE.minusDays(i)));
+        }
+        when(ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(
+                userTest.getId(), RecordCursor.toScrollPosition(cursor), PAGE_LIMIT))
+                .thenReturn(window(entries, true));
+
+        LedgerPage page = ledgerService.findRecent(cursor);
+
+        assertThat(page.records()).hasSize(LedgerService.PAGE_SIZE);
+        assertThat(page.nextCursor()).isEqualTo(RecordCursor.of(entries.getLast()));
+    }
+
+    @Test
+    void findPage_ShouldEncodeRecordsAndCursor() {
+        when(ledgerEntryRepository.findByUserIdOrderByDateDescIdDesc(userTest.getId(), ScrollPosition.keyset(), PAGE_LIMIT))
+                .thenReturn(window(List.of(
+                        entry(2, RecordKind.INCOME, "SALARY", START_DATE),
+                        entry(1, RecordKind.EXPENSE, "FOOD", START_DATE)), true));
+
+        RecordsPage page = ledgerService.findPage(null);
+
+        assertThat(page.records()).extracting(record -> record.type()).containsExactly("INCOME", "EXPENSE");
+        assertThat(page.nextCursor()).isEqualTo("2025-03-31:1");
+    }
+
+    @Test
+    void findRecent_ShouldMergeWindowsFromLedgerCache_WhenEnabled() {
+        RecordCursor cursor = new RecordCursor(START_DATE, 3);
+        IncomeRecordView salary = income(2, START_DATE.minusDays(2));
+        ExpenseRecordView food = expense(1, START_DATE.minusDays(1));
+        when(ledgerCacheService.isCached(userTest.getId(), RecordKind.INCOME)).thenReturn(true);
+        when(ledgerCacheService.isCached(userTest.getId(), RecordKind.EXPENSE)).thenReturn(true);
+        when(ledgerCacheService.findIncome(userTest.getId(), cursor, LedgerService.PAGE_SIZE))
+                .thenReturn(window(List.of(salary), false));
+        when(ledgerCacheService.findExpense(userTest.getId(), cursor, LedgerService.PAGE_SIZE))
+                .thenReturn(window(List.of(food), false));
+
+        LedgerPage page = ledgerService.findRecent(cursor);
+
+        assertThat(page.records()).containsExactly(food, salary);
+        assertThat(page.hasNextCursor()).isFalse();
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void findRecent_ShouldStopCachedMergeAtPageSizeAndContinueAfterLastShownRecord() {
+        List<IncomeRecordView> incomeRecords = new ArrayList<>();
+        List<ExpenseRecordView> expenseRecords = new ArrayList<>();
+        for(int i = 0; i < LedgerService.PAGE_SIZE; i++){
+            incomeRecords.add(income(100 + i, START_DATE.minusDays(2L * i)));
+            expenseRecords.add(expense(200 + i, START_DATE.minusDays(2L * i + 1)));
+        }
+        when(ledgerCacheService.isCached(userTest.getId(), RecordKind.INCOME)).thenReturn(true);
+        when(ledgerCacheService.isCached(userTest.getId(), RecordKind.EXPENSE)).thenReturn(true);
+        when(ledgerCacheService.findIncome(userTest.getId(), null, LedgerService.PAGE_SIZE))
+                .thenReturn(window(incomeRecords, true));
+        when(ledgerCacheService.findExpense(userTest.getId(), null, LedgerService.PAGE_SIZE))
+                .thenReturn(window(expenseRecords, true));
+
+        LedgerPage page = ledgerService.findRecent(null);
+
+        assertThat(page.records()).hasSize(LedgerService.PAGE_SIZE);
+        assertThat(page.records()).isSortedAccordingTo((a, b) -> b.getDate().compareTo(a.getDate()));
+        assertThat(page.nextCursor()).isEqualTo(RecordCursor.of(expenseRecords.get(9)));
+    }
+
+    private static LedgerEntryView entry(int id, RecordKind kind, String category, LocalDate date) {
+        return new LedgerEntryView(id, kind, category, 500, date, "Запись");
+    }
+
+    private static IncomeRecordView income(int id, LocalDate date) {
+        return new IncomeRecordView(id, IncomeCategory.SALARY, 10000, date, "Зарплата");
+    }
+
+    private static ExpenseRecordView expense(int id, LocalDate date) {
+        return new ExpenseRecordView(id, ExpenseCategory.FOOD, 500, date, "Хот дог");
+    }
+
+    private static <T> Window<T> window(List<T> records, boolean hasNext) {
+        return Window.from(records, ScrollPosition::offset, hasNext);
+    }
+}
@@ -0,0 +1,125 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.repository.UserRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerVersionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    private LedgerVersionService ledgerVersionService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerVersionService = new LedgerVersionService(userRepository, userService, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void currentETag_ShouldChangeWithLedgerVersion() {
+        when(userService.getCurrentUserId()).thenReturn(1);
+        when(userRepository.findLedgerVersionById(1)).thenReturn(Optional.of(4L), Optional.of(5L));
+
+        String before = ledgerVersionService.currentETag();
+        ledgerVersionService.bump(1);
+        String after = ledgerVersionService.currentETag();
+
+        assertThat(before).startsWith("1-4-" + YearMonth.now() + "-");
+        assertThat(after).startsWith("1-5-" + YearMonth.now() + "-");
+    }
+
+    @Test
+    void currentETag_ShouldBeNull_WhenUserDoesNotExist() {
+        when(userService.getCurrentUserId()).thenReturn(7);
+        when(userRepository.findLedgerVersionById(7)).thenReturn(Optional.empty());
+
+        assertThat(ledgerVersionService.currentETag()).isNull();
+    }
+
+    @Test
+    void bump_ShouldIncrementStoredVersion() {
+        ledgerVersionService.bump(1);
+
+        verify(userRepository).incrementLedgerVersion(1);
+    }
+
+    @Test
+    void currentETag_ShouldBeNull_UntilBumpingTransactionCompletes() {
+        when(userService.getCurrentUserId()).thenReturn(1);
+        when(userRepository.findLedgerVersionById(1)).thenReturn(Optional.of(5L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledgerVersionService.bump(1);
+        ledgerVersionService.bump(1);
+
+        assertThat(ledgerVersionService.currentETag()).isNull();
+        for(TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()){
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertThat(ledgerVersionService.currentETag()).startsWith("1-5-");
+    }
+
+    @Test
+    void currentVersion_ShouldBeCached_UntilBumped() {
+        when(userRepository.findLedgerVersionById(1)).thenReturn(Optional.of(4L), Optional.of(5L));
+
+        assertThat(ledgerVersionService.currentVersion(1)).isEqualTo(4L);
+        assertThat(ledgerVersionService.currentVersion(1)).isEqualTo(4L);
+        verify(userRepository).findLedgerVersionById(1);
+
+        ledgerVersionService.bump(1);
+
+        assertThat(ledgerVersionService.currentVersion(1)).isEqualTo(5L);
+    }
+
+    @Test
+    void currentVersion_ShouldSeeWriteFromAnotherInstance_WhenCacheDisabled() {
+        LedgerVersionService uncached = new LedgerVersionService(userRepository, userService, Duration.ZERO);
+        when(userRepository.findLedgerVersionById(1)).thenReturn(Optional.of(4L), Optional.of(5L));
+
+        assertThat(uncached.currentVersion(1)).isEqualTo(4L);
+        assertThat(uncached.currentVersion(1)).isEqualTo(5L);
+    }
+
+    @Test
+    void currentVersion_ShouldStayCached_UntilBumpingTransactionCommits() {
+        when(userRepository.findLedgerVersionById(1)).thenReturn(Optional.of(4L), Optional.of(5L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledgerVersionService.bump(1);
+        assertThat(ledgerVersionService.currentVersion(1)).isNull();
+
+        for(TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()){
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertThat(ledgerVersionService.currentVersion(1)).isEqualTo(5L);
+    }
+}
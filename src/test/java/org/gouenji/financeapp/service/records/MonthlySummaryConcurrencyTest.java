@@ -0,0 +1,97 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.repository.MonthlySummaryRepository;
+import org.gouenji.financeapp.repository.MonthlySummaryWriter;
+import org.gouenji.financeapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Commits for real: the race only exists between separate transactions
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MonthlySummaryService.class, MonthlySummaryWriter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MonthlySummaryConcurrencyTest {
+
+    private static final LocalDate MARCH_FIRST = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private MonthlySummaryRepository monthlySummaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User userTest;
+
+    @BeforeEach
+    void setUp() {
+        userTest = userRepository.save(new User("Ivan", "concurrent@gmail.com", "1234", UserRole.USER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        monthlySummaryRepository.deleteAllInBatch();
+        userRepository.delete(userTest);
+    }
+
+    @Test
+    void add_ShouldMergeFirstWritesOfConcurrentTransactions() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstWritten = new CountDownLatch(1);
+
+        // the first transaction inserts the month row and holds it uncommitted while the second one writes
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD, MARCH_FIRST, 500);
+            firstWritten.countDown();
+            sleep();
+        }));
+        assertThat(firstWritten.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status ->
+                monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                        MARCH_FIRST.plusDays(5), 700)));
+
+        CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+
+        assertThat(monthlySummaryRepository.count()).isEqualTo(1);
+        assertThat(monthlySummaryService.findByCategory(userTest.getId(), RecordKind.EXPENSE, YearMonth.of(2025, 3)))
+                .containsExactly(new CategorySummary("FOOD", 1200, 2, 1200));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
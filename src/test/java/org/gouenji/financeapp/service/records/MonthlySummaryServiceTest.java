@@ -0,0 +1,166 @@
+package org.gouenji.financeapp.service.records;
+
+import jakarta.persistence.EntityManager;
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.records.RecordKind;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.gouenji.financeapp.repository.MonthlySummaryRepository;
+import org.gouenji.financeapp.repository.MonthlySummaryWriter;
+import org.gouenji.financeapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MonthlySummaryService.class, MonthlySummaryWriter.class})
+public class MonthlySummaryServiceTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private MonthlySummaryRepository monthlySummaryRepository;
+
+    @Autowired
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User userTest;
+
+    @BeforeEach
+    void setUp() {
+        userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+    }
+
+    @Test
+    void add_ShouldCreateRowOnceAndAccumulateAfterwards() {
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 1), 500);
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 31), 1000);
+
+        assertThat(monthlySummaryRepository.count()).isEqualTo(1);
+        assertThat(summaries(RecordKind.EXPENSE, MARCH))
+                .containsExactly(new CategorySummary("FOOD", 1500, 2, 1500));
+    }
+
+    @Test
+    void findByCategory_ShouldSplitMonthTotalAndIgnoreOtherKindsAndUsers() {
+        User anotherUser = userRepository.save(new User("Petr", "another@gmail.com", "1234", UserRole.USER));
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 10), 500);
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 2, 10), 700);
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FUN,
+                LocalDate.of(2025, 1, 10), 3000);
+        monthlySummaryService.add(userTest.getId(), RecordKind.INCOME, IncomeCategory.SALARY,
+                LocalDate.of(2025, 3, 10), 100000);
+        monthlySummaryService.add(anotherUser.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 3, 10), 10000);
+
+        assertThat(summaries(RecordKind.EXPENSE, MARCH)).containsExactlyInAnyOrder(
+                new CategorySummary("FOOD", 1200, 2, 500),
+                new CategorySummary("FUN", 3000, 1, 0)
+        );
+    }
+
+    @Test
+    void move_ShouldShiftAmountBetweenMonthsAndCategories() {
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FOOD,
+                LocalDate.of(2025, 2, 28), 500);
+
+        monthlySummaryService.move(userTest.getId(), RecordKind.EXPENSE,
+                ExpenseCategory.FOOD, LocalDate.of(2025, 2, 28), 500,
+                ExpenseCategory.FUN, LocalDate.of(2025, 3, 1), 800);
+
+        assertThat(summaries(RecordKind.EXPENSE, MARCH)).containsExactlyInAnyOrder(
+                new CategorySummary("FOOD", 0, 0, 0),
+                new CategorySummary("FUN", 800, 1, 800)
+        );
+    }
+
+    @Test
+    void move_ShouldOnlyAdjustAmount_WhenCategoryAndMonthAreUnchanged() {
+        monthlySummaryService.add(userTest.getId(), RecordKind.INCOME, IncomeCategory.SALARY,
+                LocalDate.of(2025, 3, 1), 10000);
+
+        monthlySummaryService.move(userTest.getId(), RecordKind.INCOME,
+                IncomeCategory.SALARY, LocalDate.of(2025, 3, 1), 10000,
+                IncomeCategory.SALARY, LocalDate.of(2025, 3, 20), 15000);
+
+        assertThat(summaries(RecordKind.INCOME, MARCH))
+                .containsExactly(new CategorySummary("SALARY", 15000, 1, 15000));
+    }
+
+    @Test
+    void remove_ShouldSubtractAmountAndCount() {
+        monthlySummaryService.add(userTest.getId(), RecordKind.INCOME, IncomeCategory.BONUS,
+                LocalDate.of(2025, 3, 1), 4000);
+        monthlySummaryService.add(userTest.getId(), RecordKind.INCOME, IncomeCategory.BONUS,
+                LocalDate.of(2025, 3, 2), 6000);
+
+        monthlySummaryService.remove(userTest.getId(), RecordKind.INCOME, IncomeCategory.BONUS,
+                LocalDate.of(2025, 3, 2), 6000);
+
+        assertThat(summaries(RecordKind.INCOME, MARCH))
+                .containsExactly(new CategorySummary("BONUS", 4000, 1, 4000));
+    }
+
+    @Test
+    void rebuild_ShouldReplaceDriftedRowsWithTotalsFromRecords() {
+        incomeRecordRepository.saveAll(List.of(
+                new IncomeRecord(IncomeCategory.SALARY, 10000, LocalDate.of(2025, 3, 10), "Зарплата", userTest),
+                new IncomeRecord(IncomeCategory.SALARY, 5000, LocalDate.of(2025, 2, 10), "Аванс", userTest)
+        ));
+        expenseRecordRepository.saveAll(List.of(
+                new ExpenseRecord(ExpenseCategory.FOOD, 500, LocalDate.of(2025, 3, 1), "Хот дог", userTest),
+                new ExpenseRecord(ExpenseCategory.FOOD, 700, LocalDate.of(2025, 3, 31), "Кофе", userTest)
+        ));
+        monthlySummaryService.add(userTest.getId(), RecordKind.EXPENSE, ExpenseCategory.FUN,
+                LocalDate.of(2025, 3, 1), 99900);
+        entityManager.flush();
+
+        int rows = monthlySummaryService.rebuild();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(summaries(RecordKind.INCOME, MARCH))
+                .containsExactly(new CategorySummary("SALARY", 15000, 2, 10000));
+        assertThat(summaries(RecordKind.EXPENSE, MARCH))
+                .containsExactly(new CategorySummary("FOOD", 1200, 2, 1200));
+    }
+
+    private List<CategorySummary> summaries(RecordKind kind, YearMonth month) {
+        return monthlySummaryService.findByCategory(userTest.getId(), kind, month);
+    }
+}
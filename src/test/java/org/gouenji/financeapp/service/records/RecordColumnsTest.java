@@ -0,0 +1,162 @@
+package org.gouenji.financeapp.service.records;
+
+import org.gouenji.financeapp.dto.records.CategorySummary;
+import org.gouenji.financeapp.dto.records.ExpenseRecordView;
+import org.gouenji.financeapp.dto.records.FilteredRecords;
+import org.gouenji.financeapp.dto.records.RecordCursor;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecordColumnsTest {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+    private static final LocalDate MARCH_10 = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void of_ShouldKeepNewestFirstOrderOfLoadedRecords() {
+        RecordColumns columns = RecordColumns.of(List.of(
+                expense(3, ExpenseCategory.FOOD, 500, MARCH_10),
+                expense(1, ExpenseCategory.FUN, 1500, MARCH_10.minusDays(1))
+        ), CATEGORIES);
+
+        assertThat(ids(columns.window(null, 10, RecordColumnsTest::expense)))
+                .containsExactly(3, 1);
+    }
+
+    @Test
+    void put_ShouldInsertByDateAndIdAndGrowPastInitialCapacity() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        for(int id = 1; id <= 40; id++){
+            columns.put(id, ExpenseCategory.FOOD, 100, MARCH_10.minusDays(id % 4), "Хот дог");
+        }
+
+        Window<ExpenseRecordView> window = columns.window(null, 40, RecordColumnsTest::expense);
+
+        assertThat(columns.size()).isEqualTo(40);
+        assertThat(window.getContent()).isSortedAccordingTo((a, b) -> a.getDate().equals(b.getDate())
+                ? Integer.compare(b.getId(), a.getId())
+                : b.getDate().compareTo(a.getDate()));
+        assertThat(window.hasNext()).isFalse();
+    }
+
+    @Test
+    void put_ShouldReplaceExistingRowWithSameId() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        columns.put(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог");
+        columns.put(2, ExpenseCategory.FOOD, 700, MARCH_10.minusDays(5), "Кофе");
+
+        columns.put(1, ExpenseCategory.FUN, 1500, MARCH_10.minusDays(10), "Парк");
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.window(null, 10, RecordColumnsTest::expense).getContent())
+                .containsExactly(
+                        new ExpenseRecordView(2, ExpenseCategory.FOOD, 700, MARCH_10.minusDays(5), "Кофе"),
+                        new ExpenseRecordView(1, ExpenseCategory.FUN, 1500, MARCH_10.minusDays(10), "Парк"));
+    }
+
+    @Test
+    void remove_ShouldDropRowAndIgnoreUnknownId() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        columns.put(1, ExpenseCategory.FOOD, 500, MARCH_10, "Хот дог");
+        columns.put(2, ExpenseCategory.FOOD, 700, MARCH_10, "Кофе");
+
+        assertThat(columns.remove(1)).isTrue();
+        assertThat(columns.remove(1)).isFalse();
+        assertThat(ids(columns.window(null, 10, RecordColumnsTest::expense)))
+                .containsExactly(2);
+    }
+
+    @Test
+    void window_ShouldContinueAfterCursor() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        for(int id = 1; id <= 5; id++){
+            columns.put(id, ExpenseCategory.FOOD, 100, MARCH_10.minusDays(id), "Запись");
+        }
+
+        Window<ExpenseRecordView> first = columns.window(null, 2, RecordColumnsTest::expense);
+        Window<ExpenseRecordView> last = columns.window(new RecordCursor(MARCH_10.minusDays(4), 4), 2,
+                RecordColumnsTest::expense);
+
+        assertThat(ids(first)).containsExactly(1, 2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(ids(last)).containsExactly(5);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void filter_ShouldPageByCursorAndTotalAllMatchingRows() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        for(int id = 1; id <= 10; id++){
+            columns.put(id, id % 2 == 0 ? ExpenseCategory.FOOD : ExpenseCategory.FUN, 100, MARCH_10.minusDays(id), "Запись");
+        }
+        RecordFilter<ExpenseCategory> food = RecordFilter.of(ExpenseCategory.FOOD);
+
+        FilteredRecords<ExpenseRecordView> first = columns.filter(food, null, 2, RecordColumnsTest::expense);
+        FilteredRecords<ExpenseRecordView> second = columns.filter(food,
+                RecordCursor.of(first.window().getContent().getLast()), 2, RecordColumnsTest::expense);
+        FilteredRecords<ExpenseRecordView> last = columns.filter(food,
+                RecordCursor.of(second.window().getContent().getLast()), 2, RecordColumnsTest::expense);
+
+        assertThat(ids(first.window())).containsExactly(2, 4);
+        assertThat(first.window().hasNext()).isTrue();
+        assertThat(ids(second.window())).containsExactly(6, 8);
+        assertThat(ids(last.window())).containsExactly(10);
+        assertThat(last.window().hasNext()).isFalse();
+        assertThat(last.total()).isEqualTo(500);
+        assertThat(last.count()).isEqualTo(5);
+    }
+
+    @Test
+    void filter_ShouldApplyInclusiveDateAndAmountBounds() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        columns.put(1, ExpenseCategory.FOOD, 500, LocalDate.of(2025, 2, 28), "Хот дог");
+        columns.put(2, ExpenseCategory.FOOD, 700, LocalDate.of(2025, 3, 1), "Кофе");
+        columns.put(3, ExpenseCategory.FUN, 3000, LocalDate.of(2025, 3, 31), "Кино");
+        columns.put(4, ExpenseCategory.FUN, 1000, LocalDate.of(2025, 3, 15), "Парк");
+        columns.put(5, ExpenseCategory.FUN, 1000, LocalDate.of(2025, 4, 1), "Парк");
+        RecordFilter<ExpenseCategory> filter = new RecordFilter<ExpenseCategory>(Set.of(),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), 700L, 1000L);
+
+        FilteredRecords<ExpenseRecordView> filtered = columns.filter(filter, null, 10, RecordColumnsTest::expense);
+
+        assertThat(ids(filtered.window())).containsExactly(4, 2);
+        assertThat(filtered.total()).isEqualTo(1700);
+        assertThat(filtered.count()).isEqualTo(2);
+    }
+
+    @Test
+    void summarize_ShouldSplitTotalsByCategoryAndMonth() {
+        RecordColumns columns = RecordColumns.empty(CATEGORIES);
+        columns.put(1, ExpenseCategory.FOOD, 500, LocalDate.of(2025, 3, 1), "Хот дог");
+        columns.put(2, ExpenseCategory.FOOD, 700, LocalDate.of(2025, 2, 28), "Кофе");
+        columns.put(3, ExpenseCategory.FUN, 3000, LocalDate.of(2025, 3, 31), "Кино");
+        columns.put(4, ExpenseCategory.FUN, 1000, LocalDate.of(2025, 4, 1), "Парк");
+
+        List<CategorySummary> summaries = columns.summarize(YearMonth.of(2025, 3));
+
+        assertThat(summaries).containsExactlyInAnyOrder(
+                new CategorySummary("FOOD", 1200, 2, 500),
+                new CategorySummary("FUN", 4000, 2, 3000));
+    }
+
+    private static List<Integer> ids(Window<ExpenseRecordView> window) {
+        return window.getContent().stream().map(ExpenseRecordView::getId).toList();
+    }
+
+    private static ExpenseRecordView expense(int id, ExpenseCategory category, long amount, LocalDate date) {
+        return new ExpenseRecordView(id, category, amount, date, "Хот дог");
+    }
+
+    private static ExpenseRecordView expense(int id, int category, long amount, LocalDate date, String description) {
+        return new ExpenseRecordView(id, CATEGORIES[category], amount, date, description);
+    }
+}
@@ -0,0 +1,154 @@
+package org.gouenji.financeapp.service.records;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.gouenji.financeapp.dto.records.ExpenseRecordsContainer;
+import org.gouenji.financeapp.dto.records.IncomeRecordsContainer;
+import org.gouenji.financeapp.dto.records.LedgerPage;
+import org.gouenji.financeapp.dto.records.RecordFilter;
+import org.gouenji.financeapp.entity.User;
+import org.gouenji.financeapp.entity.enums.records.ExpenseCategory;
+import org.gouenji.financeapp.entity.enums.records.IncomeCategory;
+import org.gouenji.financeapp.entity.enums.users.UserRole;
+import org.gouenji.financeapp.entity.records.ExpenseRecord;
+import org.gouenji.financeapp.entity.records.IncomeRecord;
+import org.gouenji.financeapp.entity.records.Record;
+import org.gouenji.financeapp.repository.ExpenseRecordRepository;
+import org.gouenji.financeapp.repository.IncomeRecordRepository;
+import org.gouenji.financeapp.repository.MonthlySummaryWriter;
+import org.gouenji.financeapp.repository.UserRepository;
+import org.gouenji.financeapp.service.UserService;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ledger.cache.max-records=0",
+        "ledger.query-cache.max-entries=0"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IncomeRecordService.class, ExpenseRecordService.class, LedgerService.class, MonthlySummaryService.class,
+        MonthlySummaryWriter.class, LedgerCacheService.class, LedgerVersionService.class, LedgerQueryCache.class})
+public class RecordReadStatisticsTest {
+
+    private static final int RECORDS_PER_TABLE = 30;
+
+    @Autowired
+    private IncomeRecordService incomeRecordService;
+
+    @Autowired
+    private ExpenseRecordService expenseRecordService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private IncomeRecordRepository incomeRecordRepository;
+
+    @Autowired
+    private ExpenseRecordRepository expenseRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private UserService userService;
+
+    private Statistics statistics;
+    private int expenseRecordId;
+
+    @BeforeEach
+    void setUp() {
+        User userTest = userRepository.save(new User("Ivan", "test@gmail.com", "1234", UserRole.USER));
+        List<IncomeRecord> incomeRecords = new ArrayList<>();
+        List<ExpenseRecord> expenseRecords = new ArrayList<>();
+        for(int i = 0; i < RECORDS_PER_TABLE; i++){
+            LocalDate date = LocalDate.of(2025, 1, 1).plusDays(i);
+            incomeRecords.add(new IncomeRecord(IncomeCategory.SALARY, 10000, date, "Зарплата", userTest));
+            expenseRecords.add(new ExpenseRecord(ExpenseCategory.FOOD, 500, date, "Хот дог", userTest));
+        }
+        incomeRecordRepository.saveAll(incomeRecords);
+        expenseRecordId = expenseRecordRepository.saveAll(expenseRecords).getFirst().getId();
+        monthlySummaryService.rebuild();
+        entityManager.flush();
+        entityManager.clear();
+
+        when(userService.getCurrentUserId()).thenReturn(userTest.getId());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void incomeFindAll_ShouldRunSummaryAndOnePageQueryWithoutLoadingEntities() {
+        IncomeRecordsContainer container = incomeRecordService.findAll(RecordFilter.all(), null);
+
+        assertThat(container.getRecords()).hasSize(IncomeRecordService.PAGE_SIZE);
+        assertThat(container.getTotal()).isEqualTo(10000 * RECORDS_PER_TABLE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void expenseFindAll_ShouldRunSummaryAndOnePageQueryWithoutLoadingEntities() {
+        ExpenseRecordsContainer container = expenseRecordService.findAll(RecordFilter.of(ExpenseCategory.FOOD), null);
+
+        assertThat(container.getRecords()).hasSize(ExpenseRecordService.PAGE_SIZE);
+        assertThat(container.getCount()).isEqualTo(RECORDS_PER_TABLE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findSummary_ShouldReadOnlyTheMonthlySummary() {
+        incomeRecordService.findSummary();
+        expenseRecordService.findSummary();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findRecent_ShouldReadBothKindsInOneQueryWithoutLoadingEntities() {
+        LedgerPage page = ledgerService.findRecent(null);
+
+        assertThat(page.records()).hasSize(LedgerService.PAGE_SIZE);
+        assertThat(page.records()).extracting(Record::getType).containsOnly("INCOME", "EXPENSE");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findRecord_ShouldNotLoadTheOwner() {
+        ExpenseRecord record = expenseRecordService.findRecord(expenseRecordId);
+
+        assertThat(Hibernate.isInitialized(record.getUser())).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,65 @@
+package org.gouenji.financeapp.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncCachesTest {
+
+    private final AsyncCache<Integer, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void get_ShouldLoadOnceForConcurrentVirtualThreadCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try(ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()){
+            List<Future<String>> results = new ArrayList<>();
+            for(int i = 0; i < 100; i++){
+                results.add(callers.submit(() -> AsyncCaches.get(cache, 1, key -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return "ledger " + key;
+                })));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            // The slow load does not hold the map lock, so other keys are still served
+            assertThat(AsyncCaches.get(cache, 2, key -> "ledger " + key)).isEqualTo("ledger 2");
+            release.countDown();
+            for(Future<String> result : results){
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ledger 1");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_ShouldRethrowLoaderFailureAndNotCacheIt() {
+        assertThatThrownBy(() -> AsyncCaches.get(cache, 1, key -> {
+            throw new IllegalStateException("Database is down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("Database is down");
+
+        assertThat(AsyncCaches.get(cache, 1, key -> "ledger " + key)).isEqualTo("ledger 1");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
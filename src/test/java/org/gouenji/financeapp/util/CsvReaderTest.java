@@ -0,0 +1,43 @@
+package org.gouenji.financeapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvReaderTest {
+
+    @Test
+    void readRecord_ShouldSplitPlainFieldsAndTrackLines() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("a,b,,c\r\n\r\nd,e\n"));
+
+        assertThat(reader.readRecord()).containsExactly("a", "b", "", "c");
+        assertThat(reader.getLine()).isEqualTo(1);
+        assertThat(reader.readRecord()).containsExactly("d", "e");
+        assertThat(reader.getLine()).isEqualTo(3);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void readRecord_ShouldUnquoteFieldsWithSeparatorsQuotesAndLineBreaks() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("""
+                2025-03-10,"Кофе, ""большой\""","две
+                строки"
+                last,line"""));
+
+        assertThat(reader.readRecord()).containsExactly("2025-03-10", "Кофе, \"большой\"", "две\nстроки");
+        assertThat(reader.readRecord()).containsExactly("last", "line");
+        assertThat(reader.getLine()).isEqualTo(3);
+        assertThat(reader.hasUnterminatedQuote()).isFalse();
+    }
+
+    @Test
+    void readRecord_ShouldSkipByteOrderMarkAndFlagUnterminatedQuote() throws Exception {
+        CsvReader reader = new CsvReader(new StringReader("\uFEFFdate,type\nx,\"open"));
+
+        assertThat(reader.readRecord()).containsExactly("date", "type");
+        assertThat(reader.readRecord()).containsExactly("x", "open");
+        assertThat(reader.hasUnterminatedQuote()).isTrue();
+    }
+}
@@ -0,0 +1,107 @@
+package org.gouenji.financeapp.util;
+
+import org.gouenji.financeapp.dto.users.AuthenticatedUser;
+import org.gouenji.financeapp.dto.users.JwtClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtTokenUtilTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private AuthenticatedUser authenticatedUser;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil(SECRET, Duration.ofMinutes(30), 100);
+        authenticatedUser = new AuthenticatedUser(
+                1,
+                "test@gmail.com",
+                "1234",
+                2,
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+    }
+
+    @Test
+    void verify_ShouldReturnTypedClaims_WhenTokenIsValid() {
+        String token = jwtTokenUtil.generateToken(authenticatedUser);
+
+        Optional<JwtClaims> claims = jwtTokenUtil.verify(token);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().subject()).isEqualTo("test@gmail.com");
+        assertThat(claims.get().userId()).isEqualTo(1);
+        assertThat(claims.get().tokenVersion()).isEqualTo(2);
+        assertThat(claims.get().roles()).containsExactly("ROLE_USER");
+        assertThat(claims.get().toPrincipal().getId()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_ShouldReturnCachedClaims_WhenSameTokenIsVerifiedAgain() {
+        String token = jwtTokenUtil.generateToken(authenticatedUser);
+
+        JwtClaims first = jwtTokenUtil.verify(token).orElseThrow();
+        JwtClaims second = jwtTokenUtil.verify(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void verify_ShouldParseEveryTime_WhenCacheIsDisabled() {
+        JwtTokenUtil uncached = new JwtTokenUtil(SECRET, Duration.ofMinutes(30), 0);
+        String token = uncached.generateToken(authenticatedUser);
+
+        JwtClaims first = uncached.verify(token).orElseThrow();
+        JwtClaims second = uncached.verify(token).orElseThrow();
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenSignatureDoesNotMatch() {
+        JwtTokenUtil anotherKey = new JwtTokenUtil("another-secret-that-is-long-enough-for-hs256",
+                Duration.ofMinutes(30), 100);
+        String token = anotherKey.generateToken(authenticatedUser);
+
+        assertThat(jwtTokenUtil.verify(token)).isEmpty();
+        assertThat(jwtTokenUtil.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenTokenIsExpired() {
+        JwtTokenUtil expiredLifetime = new JwtTokenUtil(SECRET, Duration.ofMinutes(-1), 100);
+        String token = expiredLifetime.generateToken(authenticatedUser);
+
+        assertThat(jwtTokenUtil.verify(token)).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldReturnEmpty_WhenTokenIsMalformedOrMissing() {
+        assertThat(jwtTokenUtil.verify("not-a-token")).isEmpty();
+        assertThat(jwtTokenUtil.verify(null)).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldNotBuildPrincipal_WhenTokenHasNoUserId() {
+        UserDetails plainUser = new User("test@gmail.com", "1234",
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = jwtTokenUtil.generateToken(plainUser);
+
+        JwtClaims claims = jwtTokenUtil.verify(token).orElseThrow();
+
+        assertThat(claims.userId()).isNull();
+        assertThat(claims.toPrincipal()).isNull();
+        assertThat(jwtTokenUtil.getUsername(token)).isEqualTo("test@gmail.com");
+    }
+}
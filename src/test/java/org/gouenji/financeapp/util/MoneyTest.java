@@ -0,0 +1,49 @@
+package org.gouenji.financeapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MoneyTest {
+
+    @Test
+    void ofMajor_ShouldRoundToCentsHalfUp() {
+        assertThat(Money.ofMajor(new BigDecimal("0.29"))).isEqualTo(29);
+        assertThat(Money.ofMajor(new BigDecimal("12.345"))).isEqualTo(1235);
+        assertThat(Money.ofMajor(new BigDecimal("100"))).isEqualTo(10000);
+    }
+
+    @Test
+    void ofMajor_ShouldThrow_WhenAmountDoesNotFitInLong() {
+        assertThatThrownBy(() -> Money.ofMajor(new BigDecimal("1e20")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toMajor_ShouldKeepTwoDecimalPlaces() {
+        assertThat(Money.toMajor(12550)).isEqualTo(new BigDecimal("125.50"));
+        assertThat(Money.toMajor(-5)).isEqualTo(new BigDecimal("-0.05"));
+    }
+
+    @Test
+    void sum_ShouldStayExact_WhenAddingManySmallAmounts() {
+        long total = 0;
+        for(int i = 0; i < 1_000_000; i++){
+            total += Money.ofMajor(new BigDecimal("0.10"));
+        }
+
+        assertThat(Money.toMajor(total)).isEqualTo(new BigDecimal("100000.00"));
+    }
+
+    @Test
+    void divide_ShouldRoundHalfUp() {
+        assertThat(Money.divide(12500, 12)).isEqualTo(1042);
+        assertThat(Money.divide(6, 12)).isEqualTo(1);
+        assertThat(Money.divide(5, 12)).isEqualTo(0);
+        assertThat(Money.divide(-6, 12)).isEqualTo(0);
+        assertThat(Money.divide(-7, 12)).isEqualTo(-1);
+    }
+}